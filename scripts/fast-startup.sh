@@ -0,0 +1,71 @@
+#!/bin/sh
+# Démarrage rapide : jar Spring Boot éclaté + archive CDS (AppCDS) des classes chargées au démarrage
+#
+# extract <jar> <dossier>
+#   Éclate le jar : CDS ne sait lire ni les jars imbriqués ni les répertoires. Les dépendances vont
+#   dans lib/, les classes de l'application (et le code AOT si le jar a été construit en
+#   -Pfast-startup) dans application.jar, le classpath et la classe principale dans app.args.
+#   Demande un JDK (commande jar).
+# train <dossier>
+#   Lancement d'entraînement arrêté juste après le refresh du contexte (-Dspring.context.exit=onRefresh,
+#   sans Mongo ni RabbitMQ) ; les classes chargées sont écrites dans app.jsa. L'archive n'est valable
+#   que pour la JVM qui l'a produite : lancer train avec celle de la production (un JRE suffit).
+#
+# Lancement ensuite, depuis le dossier (mêmes chemins relatifs qu'à l'entraînement) :
+#   java -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true @app.args --spring.profiles.active=fast-startup
+#
+# Usage : ./scripts/fast-startup.sh extract target/order-service-1.0.0.jar target/fast-startup
+#         ./scripts/fast-startup.sh train target/fast-startup
+# En sh POSIX : tourne aussi dans l'image alpine, sans bash
+set -eu
+
+JAVA=${JAVA:-java}
+JAR_TOOL=${JAR_TOOL:-jar}
+
+extract() {
+  local jar dir main
+  jar=$(cd "$(dirname "$1")" && pwd)/$(basename "$1")
+  dir=$2
+  [ -f "$jar" ] || { echo "JAR introuvable: $jar (mvn -Pfast-startup package -DskipTests)" >&2; exit 1; }
+
+  rm -rf "$dir"
+  mkdir -p "$dir/lib" "$dir/exploded"
+  (cd "$dir/exploded" && "$JAR_TOOL" xf "$jar")
+  cp "$dir"/exploded/BOOT-INF/lib/*.jar "$dir/lib/"
+  "$JAR_TOOL" cf "$dir/application.jar" -C "$dir/exploded/BOOT-INF/classes" .
+  # Code AOT présent : noté pour train, qui n'a pas forcément la commande jar
+  rm -f "$dir/aot"
+  if [ -n "$(find "$dir/exploded/BOOT-INF/classes" -name '*__ApplicationContextInitializer.class')" ]; then
+    touch "$dir/aot"
+  fi
+
+  # Classpath dans l'ordre du fat jar (classpath.idx), l'application en premier
+  main=$(sed -n 's/^Start-Class: *//p' "$dir/exploded/META-INF/MANIFEST.MF" | tr -d '\r')
+  {
+    printf -- '-cp application.jar'
+    sed -n 's|^- "BOOT-INF/lib/\(.*\)"$|\1|p' "$dir/exploded/BOOT-INF/classpath.idx" | tr -d '\r' \
+      | while read -r lib; do printf ':lib/%s' "$lib"; done
+    printf '\n%s\n' "$main"
+  } > "$dir/app.args"
+  rm -rf "$dir/exploded"
+  echo "Jar éclaté dans $dir ($(ls "$dir/lib" | wc -l) dépendances, classe principale $main)"
+}
+
+train() {
+  local dir=$1 aot=""
+  [ -f "$dir/app.args" ] || { echo "$dir/app.args introuvable, lancer extract d'abord" >&2; exit 1; }
+  # Code AOT présent : l'entraînement le charge, comme le lancement en production
+  if [ -f "$dir/aot" ]; then
+    aot="-Dspring.aot.enabled=true"
+  fi
+  # Sans lazy-initialization : un maximum de classes dans l'archive, y compris celles de la première requête
+  (cd "$dir" && "$JAVA" -XX:ArchiveClassesAtExit=app.jsa -Dspring.context.exit=onRefresh $aot @app.args \
+    --spring.main.lazy-initialization=false --logging.level.org.springframework=WARN --logging.file.name=)
+  echo "Archive CDS : $dir/app.jsa ($(du -h "$dir/app.jsa" | cut -f1))"
+}
+
+case "${1:-}" in
+  extract) extract "${2:?jar}" "${3:?dossier}" ;;
+  train) train "${2:?dossier}" ;;
+  *) echo "Usage : $0 extract <jar> <dossier> | train <dossier>" >&2; exit 1 ;;
+esac
@@ -0,0 +1,56 @@
+#!/usr/bin/env bash
+# Compression des lectures : une commande de plus de 2 Ko doit revenir en gzip avec son ETag
+#
+# Tomcat ne compresse pas une réponse qui porte un ETag fort : les ETags des commandes sont
+# donc faibles (W/"..."). Ce script vérifie, sur un service déjà lancé :
+# - GET /api/orders/{id} avec Accept-Encoding: gzip -> Content-Encoding: gzip + ETag W/"..."
+# - même GET avec If-None-Match -> 304
+# - GET /api/orders/user/{userId} avec Accept-Encoding: gzip -> Content-Encoding: gzip
+#
+# Prérequis : service lancé (MongoDB, RabbitMQ, user-service et product-service ou des stubs)
+# et un JWT valide.
+#
+# Usage : TOKEN=xxx ./scripts/gzip-check.sh
+set -euo pipefail
+
+BASE_URL=${BASE_URL:-http://localhost:8081}
+TOKEN=${TOKEN:?"TOKEN (JWT) requis"}
+USER_ID=${USER_ID:-507f1f77bcf86cd799439011}
+PRODUCT_ID=${PRODUCT_ID:-507f1f77bcf86cd799439021}
+ITEMS=${ITEMS:-30}
+
+# Assez de lignes pour dépasser server.compression.min-response-size (2 Ko)
+items=""
+for i in $(seq 1 "$ITEMS"); do
+  items+="{\"productId\":\"${PRODUCT_ID}\",\"productName\":\"gzip-check article numero ${i}\",\"quantity\":${i},\"price\":10.0},"
+done
+PAYLOAD="{\"userId\":\"${USER_ID}\",\"items\":[${items%,}],\"shippingAddress\":\"1 rue du Test\",
+ \"shippingCity\":\"Paris\",\"shippingZipCode\":\"75001\",\"shippingCountry\":\"France\"}"
+
+# En-têtes de la réponse, corps ignoré (pas de --compressed : on veut voir Content-Encoding)
+headers() {
+  curl -s -o /dev/null -D - -H "Authorization: Bearer ${TOKEN}" "$@" | tr -d '\r'
+}
+
+header() {
+  sed -n "s/^$1: *//Ip" <<< "$2" | head -n1
+}
+
+errors=""
+id=$(curl -s -X POST -H "Authorization: Bearer ${TOKEN}" -H 'Content-Type: application/json' \
+  -d "$PAYLOAD" "${BASE_URL}/api/orders" | sed -n 's/.*"id":"\([^"]*\)".*/\1/p')
+[ -n "$id" ] || { echo "création de la commande en échec"; exit 1; }
+
+read_headers=$(headers -H 'Accept-Encoding: gzip' "${BASE_URL}/api/orders/${id}")
+etag=$(header ETag "$read_headers")
+[ "$(header Content-Encoding "$read_headers")" = gzip ] || errors+=" lecture-non-compressée"
+[[ "$etag" == W/\"* ]] || errors+=" etag-non-faible(${etag:-absent})"
+
+[ "$(headers -H 'Accept-Encoding: gzip' -H "If-None-Match: ${etag}" "${BASE_URL}/api/orders/${id}" \
+  | head -n1 | cut -d' ' -f2)" = 304 ] || errors+=" pas-de-304"
+
+list_headers=$(headers -H 'Accept-Encoding: gzip' "${BASE_URL}/api/orders/user/${USER_ID}")
+[ "$(header Content-Encoding "$list_headers")" = gzip ] || errors+=" liste-non-compressée"
+
+echo "${errors:- ok}"
+[ -z "$errors" ]
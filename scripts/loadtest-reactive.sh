@@ -0,0 +1,81 @@
+#!/usr/bin/env bash
+# Test de charge : stack servlet (Tomcat + MongoDB bloquant) vs profil reactive (Netty + WebFlux)
+#
+# Lance le service deux fois, envoie la même charge et compare pour chaque stack :
+# - créations de commandes (POST /api/orders) : débit et latence p99
+# - lecture des commandes d'un utilisateur (GET /api/orders/user/{id}) : débit et p99
+# - threads JVM vivants en fin de charge (jvm.threads.live)
+#
+# Prérequis : hey (https://github.com/rakyll/hey), MongoDB, RabbitMQ,
+# user-service et product-service (ou des stubs) qui répondent, et un JWT valide.
+#
+# Usage : TOKEN=xxx ./scripts/loadtest-reactive.sh
+set -euo pipefail
+
+JAR=${JAR:-target/order-service-1.0.0.jar}
+JAVA=${JAVA:-java}
+PORT=${PORT:-8083}
+CONCURRENCY=${CONCURRENCY:-500}
+DURATION=${DURATION:-60s}
+TOKEN=${TOKEN:?"TOKEN (JWT) requis"}
+USER_ID=${USER_ID:-507f1f77bcf86cd799439011}
+PRODUCT_ID=${PRODUCT_ID:-507f1f77bcf86cd799439021}
+BASE_URL="http://localhost:${PORT}"
+
+command -v hey >/dev/null || { echo "hey introuvable (go install github.com/rakyll/hey@latest)"; exit 1; }
+[ -f "$JAR" ] || { echo "JAR introuvable: $JAR (mvn package -DskipTests)"; exit 1; }
+
+PAYLOAD=$(cat <<JSON
+{"userId":"${USER_ID}","items":[{"productId":"${PRODUCT_ID}","productName":"bench","quantity":1,"price":10.0}],
+ "shippingAddress":"1 rue du Test","shippingCity":"Paris","shippingZipCode":"75001","shippingCountry":"France"}
+JSON
+)
+
+wait_ready() {
+  for _ in $(seq 1 120); do
+    curl -sf "${BASE_URL}/actuator/health" >/dev/null && return 0
+    sleep 1
+  done
+  echo "Le service n'a pas démarré" >&2
+  return 1
+}
+
+metric() {
+  curl -s "${BASE_URL}/actuator/metrics/$1" | sed -n 's/.*"value":\([0-9.]*\).*/\1/p' | cut -d. -f1
+}
+
+report() {
+  printf "%-9s | %-6s | %10s | %10s | %8s\n" "$1" "$2" \
+    "$(sed -n 's/.*Requests\/sec:[[:space:]]*\([0-9.]*\).*/\1/p' "$3")" \
+    "$(sed -n 's/.*99% in \([0-9.]*\) secs.*/\1/p' "$3")" \
+    "$4"
+}
+
+run_stack() {
+  local stack=$1 profiles=$2 create_out read_out pid threads
+  create_out=$(mktemp); read_out=$(mktemp)
+
+  # Rate limiting et load shedding désactivés : on compare les stacks, pas les limiteurs
+  "$JAVA" -jar "$JAR" --server.port="$PORT" --spring.profiles.active="$profiles" \
+    --rate-limit.enabled=false --load-shedding.enabled=false --logging.level.root=WARN \
+    >"/tmp/order-service-${stack}.log" 2>&1 &
+  pid=$!
+  wait_ready
+
+  hey -z "$DURATION" -c "$CONCURRENCY" -m POST -T application/json \
+    -H "Authorization: Bearer ${TOKEN}" -d "$PAYLOAD" "${BASE_URL}/api/orders" > "$create_out"
+  threads=$(metric jvm.threads.live)
+  report "$stack" "create" "$create_out" "$threads"
+
+  # Les commandes créées juste avant servent de jeu de données pour la lecture
+  hey -z "$DURATION" -c "$CONCURRENCY" -H "Accept: application/json" \
+    -H "Authorization: Bearer ${TOKEN}" "${BASE_URL}/api/orders/user/${USER_ID}" > "$read_out"
+  threads=$(metric jvm.threads.live)
+  report "$stack" "read" "$read_out" "$threads"
+
+  kill "$pid"; wait "$pid" 2>/dev/null || true
+}
+
+printf "%-9s | %-6s | %10s | %10s | %8s\n" "stack" "charge" "req/s" "p99 (s)" "threads"
+run_stack servlet default
+run_stack reactive reactive
@@ -0,0 +1,88 @@
+#!/usr/bin/env bash
+# Test de charge : pool de threads Tomcat (platform) vs virtual threads
+#
+# Lance le service deux fois (sans puis avec le profil virtual-threads), envoie la même
+# charge de créations de commandes et compare :
+# - le nombre max de créations en cours (http.server.requests.active, relevé toutes les 200 ms)
+# - le débit et la latence p99 (mesurés par hey), et les réponses hors 2xx à part
+#
+# Rate limiting et délestage désactivés : leurs refus rapides (429 / 503) gonfleraient le débit
+# et écraseraient le p99, et la limite adaptative plafonnerait les requêtes en cours.
+#
+# Prérequis : Java 21, hey (https://github.com/rakyll/hey), MongoDB, RabbitMQ,
+# user-service et product-service (ou des stubs) qui répondent, et un JWT valide.
+#
+# Usage : TOKEN=xxx ./scripts/loadtest-threads.sh
+set -euo pipefail
+
+JAR=${JAR:-target/order-service-1.0.0.jar}
+JAVA=${JAVA:-java}
+PORT=${PORT:-8083}
+CONCURRENCY=${CONCURRENCY:-1000}
+DURATION=${DURATION:-60s}
+TOKEN=${TOKEN:?"TOKEN (JWT) requis"}
+USER_ID=${USER_ID:-507f1f77bcf86cd799439011}
+PRODUCT_ID=${PRODUCT_ID:-507f1f77bcf86cd799439021}
+BASE_URL="http://localhost:${PORT}"
+
+command -v hey >/dev/null || { echo "hey introuvable (go install github.com/rakyll/hey@latest)"; exit 1; }
+[ -f "$JAR" ] || { echo "JAR introuvable: $JAR (mvn -Pjava21 package -DskipTests)"; exit 1; }
+
+PAYLOAD=$(cat <<JSON
+{"userId":"${USER_ID}","items":[{"productId":"${PRODUCT_ID}","productName":"bench","quantity":1,"price":10.0}],
+ "shippingAddress":"1 rue du Test","shippingCity":"Paris","shippingZipCode":"75001","shippingCountry":"France"}
+JSON
+)
+
+wait_ready() {
+  for _ in $(seq 1 120); do
+    curl -sf "${BASE_URL}/actuator/health" >/dev/null && return 0
+    sleep 1
+  done
+  echo "Le service n'a pas démarré" >&2
+  return 1
+}
+
+# Relève les POST en cours toutes les 200 ms et garde le max
+# (pas la gauge du délestage, qui reste à 0 quand il est désactivé)
+watch_inflight() {
+  local max=0 value
+  while true; do
+    value=$(curl -s "${BASE_URL}/actuator/metrics/http.server.requests.active?tag=method:POST" \
+      | sed -n 's/.*"ACTIVE_TASKS","value":\([0-9.]*\).*/\1/p' | cut -d. -f1)
+    [ -n "$value" ] && [ "$value" -gt "$max" ] && max=$value && echo "$max" > "$1"
+    sleep 0.2
+  done
+}
+
+run_mode() {
+  local mode=$1 profiles=$2 out inflight_file watcher pid
+  out=$(mktemp); inflight_file=$(mktemp); echo 0 > "$inflight_file"
+
+  # Rate limiting et délestage désactivés : on mesure le modèle de threads, pas les limiteurs
+  "$JAVA" -jar "$JAR" --server.port="$PORT" --spring.profiles.active="$profiles" \
+    --rate-limit.enabled=false --load-shedding.enabled=false --logging.level.root=WARN >"/tmp/order-service-${mode}.log" 2>&1 &
+  pid=$!
+  wait_ready
+
+  watch_inflight "$inflight_file" & watcher=$!
+  hey -z "$DURATION" -c "$CONCURRENCY" -m POST -T application/json \
+    -H "Authorization: Bearer ${TOKEN}" -d "$PAYLOAD" "${BASE_URL}/api/orders" > "$out"
+  kill "$watcher" 2>/dev/null || true
+  kill "$pid"; wait "$pid" 2>/dev/null || true
+
+  printf "%-10s | %10s | %10s | %12s | %8s\n" "$mode" \
+    "$(sed -n 's/.*Requests\/sec:[[:space:]]*\([0-9.]*\).*/\1/p' "$out")" \
+    "$(sed -n 's/.*99% in \([0-9.]*\) secs.*/\1/p' "$out")" \
+    "$(cat "$inflight_file")" \
+    "$(non_2xx "$out")"
+}
+
+# Réponses hors 2xx (distribution des codes de hey) : hey les compte dans req/s et p99
+non_2xx() {
+  awk '/^  \[[0-9]+\]/ { code = substr($1, 2, 3); if (code !~ /^2/) n += $2 } END { print n + 0 }' "$1"
+}
+
+printf "%-10s | %10s | %10s | %12s | %8s\n" "mode" "req/s" "p99 (s)" "max inflight" "non-2xx"
+run_mode platform default
+run_mode virtual virtual-threads
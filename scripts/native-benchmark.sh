@@ -0,0 +1,111 @@
+#!/usr/bin/env bash
+# Image native GraalVM vs JVM : smoke test, démarrage, mémoire et débit en régime établi
+#
+# Chaque build est lancé une fois :
+# - smoke test : création (201), lecture (200), commandes du client (200), stats (200), sans token (401).
+#   Un hint manquant en natif se voit ici (500 ou champs vides), pas à la compilation
+# - prêt : du lancement à /actuator/health/readiness en 200
+# - RSS au démarrage puis après la charge (VmHWM : pic de mémoire résidente du processus)
+# - débit et p99 (hey) sur GET /api/orders/{id} après WARMUP de chauffe, puis sur POST /api/orders.
+#   La JVM n'atteint son régime qu'une fois le JIT passé ; le natif est compilé d'avance (sans PGO
+#   il plafonne souvent plus bas)
+#
+# Prérequis : hey (https://github.com/rakyll/hey), jar (mvn -Pfast-startup package -DskipTests),
+# exécutable natif (mvn -Pnative package -DskipTests, JDK GraalVM 21), MongoDB, RabbitMQ,
+# user-service et product-service (ou des stubs) et un JWT valide.
+#
+# Usage : TOKEN=xxx ./scripts/native-benchmark.sh
+set -euo pipefail
+
+JAR=${JAR:-target/order-service-1.0.0.jar}
+NATIVE=${NATIVE:-target/order-service}
+JAVA=${JAVA:-java}
+JAVA_OPTS=${JAVA_OPTS:-}
+PORT=${PORT:-8083}
+CONCURRENCY=${CONCURRENCY:-50}
+WARMUP=${WARMUP:-30s}
+DURATION=${DURATION:-60s}
+TOKEN=${TOKEN:?"TOKEN (JWT) requis"}
+USER_ID=${USER_ID:-507f1f77bcf86cd799439011}
+PRODUCT_ID=${PRODUCT_ID:-507f1f77bcf86cd799439021}
+BASE_URL="http://localhost:${PORT}"
+
+command -v hey >/dev/null || { echo "hey introuvable (go install github.com/rakyll/hey@latest)"; exit 1; }
+[ -f "$JAR" ] || { echo "JAR introuvable: $JAR (mvn -Pfast-startup package -DskipTests)"; exit 1; }
+[ -x "$NATIVE" ] || { echo "Exécutable natif introuvable: $NATIVE (mvn -Pnative package -DskipTests)"; exit 1; }
+
+PAYLOAD=$(cat <<JSON
+{"userId":"${USER_ID}","items":[{"productId":"${PRODUCT_ID}","productName":"bench","quantity":1,"price":10.0}],
+ "shippingAddress":"1 rue du Test","shippingCity":"Paris","shippingZipCode":"75001","shippingCountry":"France"}
+JSON
+)
+
+now_ms() { date +%s%3N; }
+
+rss_mb() { awk -v key="$2:" '$1 == key { printf "%d", $2 / 1024 }' "/proc/$1/status"; }
+
+status() {
+  curl -s -o /dev/null -w '%{http_code}' "$@"
+}
+
+# Vérifie les réponses de base ; affiche "ok" ou la liste des écarts, renvoie l'id de commande créé
+smoke_test() {
+  local body id errors=""
+  body=$(curl -s -w '\n%{http_code}' -X POST -H "Authorization: Bearer ${TOKEN}" -H 'Content-Type: application/json' \
+    -d "$PAYLOAD" "${BASE_URL}/api/orders")
+  [ "$(tail -n1 <<< "$body")" = 201 ] || errors+=" création=$(tail -n1 <<< "$body")"
+  id=$(head -n1 <<< "$body" | sed -n 's/.*"id":"\([^"]*\)".*/\1/p')
+  [ -n "$id" ] || errors+=" id-absent"
+  [ "$(status -H "Authorization: Bearer ${TOKEN}" "${BASE_URL}/api/orders/${id}")" = 200 ] || errors+=" lecture"
+  [ "$(status -H "Authorization: Bearer ${TOKEN}" "${BASE_URL}/api/orders/user/${USER_ID}")" = 200 ] || errors+=" client"
+  [ "$(status -H "Authorization: Bearer ${TOKEN}" "${BASE_URL}/api/orders/stats")" = 200 ] || errors+=" stats"
+  [ "$(status "${BASE_URL}/api/orders/user/${USER_ID}")" = 401 ] || errors+=" sans-token"
+  echo "${errors:- ok}" >&2
+  echo "$id"
+}
+
+hey_result() {
+  printf "%s %s" \
+    "$(sed -n 's/.*Requests\/sec:[[:space:]]*\([0-9.]*\).*/\1/p' "$1" | cut -d. -f1)" \
+    "$(sed -n 's/.*99% in \([0-9.]*\) secs.*/\1/p' "$1" | awk '{ printf "%d", $1 * 1000 }')"
+}
+
+run_build() {
+  local name=$1 start pid ready rss_start id smoke read_result create_result out log="/tmp/order-service-${1}.log"
+  shift
+  out=$(mktemp)
+  start=$(now_ms)
+  # Rate limiting désactivé : on mesure le service, pas le limiteur
+  "$@" --server.port="$PORT" --rate-limit.enabled=false --logging.level.root=WARN >"$log" 2>&1 &
+  pid=$!
+  until curl -sf -o /dev/null "${BASE_URL}/actuator/health/readiness"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "$name : arrêt au démarrage, voir $log" >&2
+      exit 1
+    fi
+    sleep 0.01
+  done
+  ready=$(( $(now_ms) - start ))
+  rss_start=$(rss_mb "$pid" VmRSS)
+
+  smoke=$(smoke_test 2>&1 >"$out")
+  id=$(cat "$out")
+
+  hey -z "$WARMUP" -c "$CONCURRENCY" -H "Authorization: Bearer ${TOKEN}" "${BASE_URL}/api/orders/${id}" >/dev/null
+  hey -z "$DURATION" -c "$CONCURRENCY" -H "Authorization: Bearer ${TOKEN}" "${BASE_URL}/api/orders/${id}" >"$out"
+  read_result=$(hey_result "$out")
+  hey -z "$DURATION" -c "$CONCURRENCY" -m POST -T application/json \
+    -H "Authorization: Bearer ${TOKEN}" -d "$PAYLOAD" "${BASE_URL}/api/orders" >"$out"
+  create_result=$(hey_result "$out")
+
+  printf "%-8s | %-18s | %8s | %9s | %9s | %15s | %15s\n" "$name" "$smoke" "$ready" "$rss_start" \
+    "$(rss_mb "$pid" VmHWM)" "$read_result" "$create_result"
+  kill "$pid"; wait "$pid" 2>/dev/null || true
+  rm -f "$out"
+}
+
+echo "Charge : ${CONCURRENCY} connexions, ${WARMUP} de chauffe puis ${DURATION} par requête (req/s p99 ms)"
+printf "%-8s | %-18s | %8s | %9s | %9s | %15s | %15s\n" "build" "smoke test" "prêt ms" "RSS Mo" "pic Mo" \
+  "GET req/s p99" "POST req/s p99"
+run_build jvm "$JAVA" $JAVA_OPTS -jar "$JAR"
+run_build native "$NATIVE"
@@ -0,0 +1,97 @@
+#!/usr/bin/env bash
+# Temps de démarrage : lancement standard vs démarrage rapide (lazy, AOT Spring, AppCDS)
+#
+# Chaque configuration est lancée RUNS fois ; médianes de :
+# - prêt : du lancement de la JVM à /actuator/health/readiness en 200 (ce que voit Kubernetes)
+#   chauffe comprise (StartupWarmup, bornée par warmup.budget)
+# - 1re requête : latence de la première requête API, qui paie les beans lazy et le JIT à froid
+# - 2e requête : la même juste après, pour voir ce que la première a payé
+#
+# Configurations :
+# - standard      java -jar
+# - lazy          profil fast-startup (lazy-initialization, repositories en tâche de fond)
+# - aot+lazy      + code AOT (-Dspring.aot.enabled=true)
+# - aot+lazy+cds  + jar éclaté et archive CDS (scripts/fast-startup.sh), comme l'image Docker
+#
+# Prérequis : jar construit avec mvn -Pfast-startup package -DskipTests, MongoDB, RabbitMQ,
+# user-service et product-service (ou des stubs) et un JWT valide.
+#
+# Usage : TOKEN=xxx ./scripts/startup-benchmark.sh
+set -euo pipefail
+
+JAR=${JAR:-target/order-service-1.0.0.jar}
+JAVA=${JAVA:-java}
+PORT=${PORT:-8083}
+RUNS=${RUNS:-5}
+TOKEN=${TOKEN:?"TOKEN (JWT) requis"}
+USER_ID=${USER_ID:-507f1f77bcf86cd799439011}
+FIRST_PATH=${FIRST_PATH:-/api/orders/user/${USER_ID}}
+CDS_DIR=${CDS_DIR:-target/fast-startup}
+BASE_URL="http://localhost:${PORT}"
+SCRIPTS=$(cd "$(dirname "$0")" && pwd)
+
+[ -f "$JAR" ] || { echo "JAR introuvable: $JAR (mvn -Pfast-startup package -DskipTests)"; exit 1; }
+JAR=$(cd "$(dirname "$JAR")" && pwd)/$(basename "$JAR")
+
+# Archive CDS à refaire si le jar a changé
+if [ ! -f "$CDS_DIR/app.jsa" ] || [ "$JAR" -nt "$CDS_DIR/app.jsa" ]; then
+  JAVA="$JAVA" "$SCRIPTS/fast-startup.sh" extract "$JAR" "$CDS_DIR"
+  JAVA="$JAVA" "$SCRIPTS/fast-startup.sh" train "$CDS_DIR" >/dev/null
+fi
+[ -f "$CDS_DIR/aot" ] || echo "ATTENTION : jar sans code AOT, les configurations aot* vont échouer (mvn -Pfast-startup package)"
+
+now_ms() { date +%s%3N; }
+
+request_ms() {
+  curl -s -o /dev/null -w '%{time_total}' -H "Authorization: Bearer ${TOKEN}" "${BASE_URL}${FIRST_PATH}" \
+    | awk '{ printf "%d", $1 * 1000 }'
+}
+
+median() { sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }'; }
+
+# Un lancement : "prêt 1re 2e" en ms
+run_once() {
+  local name=$1 dir=$2 start pid ready first second log="/tmp/order-service-startup-${1}.log"
+  shift 2
+  start=$(now_ms)
+  (cd "$dir" && exec "$@" --server.port="$PORT") >"$log" 2>&1 &
+  pid=$!
+  until curl -sf -o /dev/null "${BASE_URL}/actuator/health/readiness"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "$name : arrêt au démarrage, voir $log" >&2
+      exit 1
+    fi
+    if [ $(( $(now_ms) - start )) -gt 120000 ]; then
+      kill "$pid"
+      echo "$name : pas prêt après 120 s, voir $log" >&2
+      exit 1
+    fi
+    sleep 0.02
+  done
+  ready=$(( $(now_ms) - start ))
+  first=$(request_ms)
+  second=$(request_ms)
+  kill "$pid"; wait "$pid" 2>/dev/null || true
+  echo "$ready $first $second"
+}
+
+run_config() {
+  local name=$1 results
+  results=$(mktemp)
+  for _ in $(seq 1 "$RUNS"); do
+    run_once "$@" >> "$results"
+  done
+  printf "%-14s | %10s | %14s | %14s\n" "$name" \
+    "$(cut -d' ' -f1 "$results" | median)" \
+    "$(cut -d' ' -f2 "$results" | median)" \
+    "$(cut -d' ' -f3 "$results" | median)"
+  rm -f "$results"
+}
+
+echo "Médianes sur ${RUNS} lancements, 1re requête : GET ${FIRST_PATH}"
+printf "%-14s | %10s | %14s | %14s\n" "config" "prêt (ms)" "1re req. (ms)" "2e req. (ms)"
+run_config standard . "$JAVA" -jar "$JAR"
+run_config lazy . "$JAVA" -jar "$JAR" --spring.profiles.active=fast-startup
+run_config aot+lazy . "$JAVA" -Dspring.aot.enabled=true -jar "$JAR" --spring.profiles.active=fast-startup
+run_config aot+lazy+cds "$CDS_DIR" "$JAVA" -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true @app.args \
+  --spring.profiles.active=fast-startup
@@ -0,0 +1,127 @@
+package com.microcommerce.orderservice.benchmark;
+
+import com.microcommerce.orderservice.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de l'authentification JWT par requête
+ *
+ * - legacyFiveParses : l'ancien JwtAuthenticationFilter (clé + parser recréés,
+ *   5 vérifications HMAC : username, validate x2, userId, role)
+ * - verifyOnceUncached : une seule vérification avec clé et parser précalculés
+ * - verifyOnceCached : token déjà vu, servi depuis le cache
+ * - extractUserId : extractClaim, toujours un parsing complet (pas de cache)
+ * - validateTokenCached : validateToken sur un token déjà vu
+ * - rejectTampered / rejectExpired : tokens refusés, jamais mis en cache,
+ *   donc payés en entier à chaque requête (exception comprise)
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="JwtAuthBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthBenchmark {
+
+    private static final String SECRET = "mySecretKey123456789012345678901234567890";
+
+    private String token;
+    private String tamperedToken;
+    private String expiredToken;
+    private JwtUtil cachedJwtUtil;
+    private JwtUtil uncachedJwtUtil;
+
+    @Setup
+    public void setup() {
+        token = newToken(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1));
+        expiredToken = newToken(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(1));
+
+        // Un caractère changé au milieu de la signature (la fin peut ne toucher que le padding base64)
+        int index = token.lastIndexOf('.') + 10;
+        char replacement = token.charAt(index) == 'A' ? 'B' : 'A';
+        tamperedToken = token.substring(0, index) + replacement + token.substring(index + 1);
+
+        cachedJwtUtil = newJwtUtil(10_000);
+        uncachedJwtUtil = newJwtUtil(0);
+        cachedJwtUtil.verify(token);
+    }
+
+    private static String newToken(long expiresAtMillis) {
+        return Jwts.builder()
+            .setSubject("jean.dupont@example.com")
+            .addClaims(Map.of("userId", "507f1f77bcf86cd799439011", "role", "USER"))
+            .setIssuedAt(new Date())
+            .setExpiration(new Date(expiresAtMillis))
+            .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+            .compact();
+    }
+
+    private static JwtUtil newJwtUtil(int cacheMaxEntries) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxEntries", cacheMaxEntries);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    @Benchmark
+    public Object legacyFiveParses() {
+        String username = legacyClaims(token).getSubject();
+        legacyClaims(token);
+        boolean expired = legacyClaims(token).getExpiration().before(new Date());
+        String userId = legacyClaims(token).get("userId", String.class);
+        String role = legacyClaims(token).get("role", String.class);
+        return expired ? null : new Object[] {username, userId, role};
+    }
+
+    @Benchmark
+    public JwtUtil.VerifiedToken verifyOnceUncached() {
+        return uncachedJwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public JwtUtil.VerifiedToken verifyOnceCached() {
+        return cachedJwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public String extractUserId() {
+        return cachedJwtUtil.extractUserId(token);
+    }
+
+    @Benchmark
+    public Boolean validateTokenCached() {
+        return cachedJwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public JwtUtil.VerifiedToken rejectTampered() {
+        return cachedJwtUtil.verify(tamperedToken);
+    }
+
+    @Benchmark
+    public JwtUtil.VerifiedToken rejectExpired() {
+        return cachedJwtUtil.verify(expiredToken);
+    }
+
+    // Reproduit l'ancien JwtUtil.extractAllClaims
+    private static Claims legacyClaims(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        return Jwts.parserBuilder()
+            .setSigningKey(key)
+            .build()
+            .parseClaimsJws(token)
+            .getBody();
+    }
+}
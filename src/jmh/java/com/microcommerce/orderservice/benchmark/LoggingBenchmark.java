@@ -0,0 +1,136 @@
+package com.microcommerce.orderservice.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.microcommerce.orderservice.config.LogSamplingFilter;
+import com.microcommerce.orderservice.entity.Money;
+import com.microcommerce.orderservice.entity.Order;
+import com.microcommerce.orderservice.entity.OrderItem;
+import com.microcommerce.orderservice.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Débit d'un chemin de création de commande avec ses deux logs INFO, selon la config de logs
+ *
+ * - off : logger en WARN (les INFO ne sortent pas)
+ * - sync : écriture directe dans le fichier, comme avant logback-spring.xml
+ * - async-drop / async-block : AsyncAppender, file pleine = message jeté / appelant bloqué
+ * - async-sampled : async-drop + LogSamplingFilter à 1 sur 10 (profil prod)
+ *
+ * Sortie fichier seulement (même pattern que logging.pattern.file), dans un fichier temporaire.
+ * Avec async-drop, une partie des messages est jetée quand le disque ne suit pas : c'est le compromis mesuré.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="LoggingBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class LoggingBenchmark {
+
+    private static final String FILE_PATTERN = "%d{yyyy-MM-dd HH:mm:ss} [%thread] %-5level %logger{36} - %msg%n";
+
+    @Param({"off", "sync", "async-drop", "async-block", "async-sampled"})
+    public String mode;
+
+    private LoggerContext context;
+    private Logger logger;
+    private Path logFile;
+
+    /**
+     * Une commande par thread : calculateTotal modifie l'entité
+     */
+    @State(Scope.Thread)
+    public static class OrderState {
+        Order order;
+
+        @Setup
+        public void setup() {
+            order = new Order("user-42", List.of(
+                new OrderItem("65a1f0c2e4b0a1b2c3d4e5f6", "Clavier", 1, Money.of("49.90")),
+                new OrderItem("65a1f0c2e4b0a1b2c3d4e5f7", "Souris", 2, Money.of("19.90")),
+                new OrderItem("65a1f0c2e4b0a1b2c3d4e5f8", "Tapis", 1, Money.of("9.90"))));
+            order.setId("65a1f0c2e4b0a1b2c3d4e5f9");
+        }
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        logFile = Files.createTempFile("order-service-bench-", ".log");
+
+        // Contexte logback à part : pas d'interférence avec la config par défaut du fork
+        context = new LoggerContext();
+        context.start();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(FILE_PATTERN);
+        encoder.start();
+
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setName("FILE");
+        file.setFile(logFile.toString());
+        file.setEncoder(encoder);
+        file.start();
+
+        Appender<ILoggingEvent> appender = file;
+        if (mode.startsWith("async")) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setName("ASYNC_FILE");
+            async.setQueueSize(8192);
+            async.setNeverBlock(!"async-block".equals(mode));
+            async.addAppender(file);
+            async.start();
+            appender = async;
+        }
+        if ("async-sampled".equals(mode)) {
+            LogSamplingFilter sampling = new LogSamplingFilter();
+            sampling.setContext(context);
+            sampling.setRules(OrderService.class.getName() + ":10:0");
+            sampling.start();
+            context.addTurboFilter(sampling);
+        }
+
+        ch.qos.logback.classic.Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.addAppender(appender);
+        root.setLevel("off".equals(mode) ? Level.WARN : Level.INFO);
+
+        // Même nom de logger que le service : c'est lui que cible la règle d'échantillonnage
+        logger = context.getLogger(OrderService.class);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.stop();
+        Files.deleteIfExists(logFile);
+    }
+
+    /**
+     * Les deux INFO de OrderService.createOrder autour du calcul du total
+     */
+    @Benchmark
+    public Money createOrderPath(OrderState state) {
+        Order order = state.order;
+        logger.info("Création d'une nouvelle commande pour l'utilisateur: {}", order.getUserId());
+        order.calculateTotal();
+        logger.info("Commande créée avec succès: {}", order.getId());
+        return order.getTotalAmount();
+    }
+}
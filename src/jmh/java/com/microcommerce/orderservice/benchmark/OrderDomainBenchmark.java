@@ -0,0 +1,103 @@
+package com.microcommerce.orderservice.benchmark;
+
+import com.microcommerce.orderservice.entity.Money;
+import com.microcommerce.orderservice.entity.Order;
+import com.microcommerce.orderservice.entity.OrderItem;
+import com.microcommerce.orderservice.entity.OrderStatus;
+import com.microcommerce.orderservice.event.OrderEvent;
+import com.microcommerce.orderservice.service.OrderEventPublisher;
+import com.microcommerce.orderservice.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Chemins chauds du domaine commande, selon le nombre d'articles
+ *
+ * - calculateTotal : Order.calculateTotal (constructeur, setItems) ; le seul reste alloué est le
+ *   LocalDateTime.now() de updatedAt
+ * - calculateTotalAmount : OrderService.calculateTotalAmount (création de commande), 0 B/op attendu
+ * - bigDecimalTotal : référence, l'ancien calcul (stream, multiply et add en BigDecimal)
+ * - createOrderEvent : conversion Order -> OrderEvent avant chaque publication RabbitMQ
+ * - canTransitionTo : les 36 couples de statuts (indépendant du nombre d'articles)
+ *
+ * Profileur GC actif par défaut (jmh.profilers) : regarder gc.alloc.rate.norm en B/op.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="OrderDomainBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderDomainBenchmark {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    // Aucune dépendance utilisée par calculateTotalAmount : pas besoin du contexte Spring
+    private final OrderService orderService = new OrderService();
+
+    /**
+     * Une commande par thread : les calculs de total modifient l'entité
+     */
+    @State(Scope.Thread)
+    public static class OrderState {
+        // 1 à 5 articles pour l'essentiel des commandes, 20 et 100 pour les gros paniers
+        @Param({"1", "5", "20", "100"})
+        public int itemCount;
+
+        Order order;
+        List<BigDecimal> prices;
+        List<Integer> quantities;
+
+        @Setup
+        public void setup() {
+            order = SampleOrders.order(new Random(42), itemCount);
+            prices = order.getItems().stream().map(item -> item.getPrice().toBigDecimal()).toList();
+            quantities = order.getItems().stream().map(OrderItem::getQuantity).toList();
+        }
+    }
+
+    @Benchmark
+    public Money calculateTotal(OrderState state) {
+        state.order.calculateTotal();
+        return state.order.getTotalAmount();
+    }
+
+    @Benchmark
+    public Money calculateTotalAmount(OrderState state) {
+        orderService.calculateTotalAmount(state.order);
+        return state.order.getTotalAmount();
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalTotal(OrderState state) {
+        return IntStream.range(0, state.prices.size())
+            .mapToObj(i -> state.prices.get(i).multiply(BigDecimal.valueOf(state.quantities.get(i))))
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    @Benchmark
+    public OrderEvent createOrderEvent(OrderState state) {
+        return OrderEventPublisher.createOrderEvent(state.order, OrderEvent.EventType.CREATED);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(36)
+    public int canTransitionTo() {
+        int allowed = 0;
+        for (OrderStatus from : STATUSES) {
+            for (OrderStatus to : STATUSES) {
+                if (from.canTransitionTo(to)) {
+                    allowed++;
+                }
+            }
+        }
+        return allowed;
+    }
+}
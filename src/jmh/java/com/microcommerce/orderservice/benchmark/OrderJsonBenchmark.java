@@ -0,0 +1,90 @@
+package com.microcommerce.orderservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.microcommerce.orderservice.config.OrderFieldSet;
+import com.microcommerce.orderservice.entity.Order;
+import com.microcommerce.orderservice.event.OrderEvent;
+import com.microcommerce.orderservice.service.OrderEventPublisher;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * (Dé)sérialisation JSON d'une commande et de son événement, selon le nombre d'articles
+ *
+ * - Order : ObjectMapper configuré comme celui des réponses HTTP (JacksonConfig : Blackbird + filtres fields=)
+ * - OrderEvent : Jackson2JsonMessageConverter de RabbitMQConfig (même mapper), message AMQP complet
+ *   (toMessage à la publication, fromMessage avec le type inféré comme dans un @RabbitListener)
+ * - publishOrderEvent : conversion Order -> OrderEvent + toMessage, tout le travail CPU d'une publication
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="OrderJsonBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderJsonBenchmark {
+
+    @Param({"1", "5", "20", "100"})
+    public int itemCount;
+
+    private ObjectMapper objectMapper;
+    private Jackson2JsonMessageConverter messageConverter;
+
+    private Order order;
+    private byte[] orderJson;
+    private OrderEvent event;
+    private Message eventMessage;
+
+    @Setup
+    public void setup() throws IOException {
+        objectMapper = OrderFieldSet.configure(Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(new BlackbirdModule())
+            .build());
+        messageConverter = new Jackson2JsonMessageConverter(objectMapper);
+
+        order = SampleOrders.order(new Random(42), itemCount);
+        orderJson = objectMapper.writeValueAsBytes(order);
+        event = OrderEventPublisher.createOrderEvent(order, OrderEvent.EventType.CREATED);
+        eventMessage = messageConverter.toMessage(event, new MessageProperties());
+        eventMessage.getMessageProperties().setInferredArgumentType(OrderEvent.class);
+
+        System.out.printf("%n[%d articles] octets : order=%d event=%d%n",
+            itemCount, orderJson.length, eventMessage.getBody().length);
+    }
+
+    @Benchmark
+    public byte[] serializeOrder() throws IOException {
+        return objectMapper.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public Order deserializeOrder() throws IOException {
+        return objectMapper.readValue(orderJson, Order.class);
+    }
+
+    @Benchmark
+    public Message serializeOrderEvent() {
+        return messageConverter.toMessage(event, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object deserializeOrderEvent() {
+        return messageConverter.fromMessage(eventMessage);
+    }
+
+    @Benchmark
+    public Message publishOrderEvent() {
+        return messageConverter.toMessage(
+            OrderEventPublisher.createOrderEvent(order, OrderEvent.EventType.CREATED), new MessageProperties());
+    }
+}
@@ -0,0 +1,98 @@
+package com.microcommerce.orderservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.microcommerce.orderservice.config.OrderFieldSet;
+import com.microcommerce.orderservice.entity.Order;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Coût de sérialisation JSON d'une commande, et octets envoyés, avant / après
+ *
+ * - mapper : jackson (réflexion, config par défaut de Spring) ou blackbird
+ * - fields : "" (commande complète, comme avant) ou une sélection typique d'un écran de liste
+ *
+ * Les tailles (brute et gzip, par commande) sont affichées au setup de chaque combinaison.
+ * Les temps de serializeList sont par commande (@OperationsPerInvocation).
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="OrderSerializationBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderSerializationBenchmark {
+
+    private static final int LIST_SIZE = 50;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Param({"jackson", "blackbird"})
+    public String mapper;
+
+    @Param({"", "status,totalAmount,createdAt,items.productId,items.quantity"})
+    public String fields;
+
+    private ObjectMapper objectMapper;
+    private FilterProvider filters;
+    private Order order;
+    private List<Order> orders;
+
+    @Setup
+    public void setup() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if ("blackbird".equals(mapper)) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        objectMapper = OrderFieldSet.configure(builder.build());
+        filters = OrderFieldSet.parse(fields);
+
+        // Données variées (graine fixe) : des commandes identiques fausseraient le ratio gzip
+        Random random = new Random(42);
+        orders = new ArrayList<>(LIST_SIZE);
+        for (int i = 0; i < LIST_SIZE; i++) {
+            orders.add(SampleOrders.order(random, ITEMS_PER_ORDER));
+        }
+        order = orders.get(0);
+
+        byte[] json = writer().writeValueAsBytes(orders);
+        System.out.printf("%n[%s, fields=\"%s\"] octets par commande : json=%d gzip=%d%n",
+            mapper, fields, json.length / LIST_SIZE, gzip(json).length / LIST_SIZE);
+    }
+
+    @Benchmark
+    public byte[] serializeOrder() throws IOException {
+        return writer().writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LIST_SIZE)
+    public byte[] serializeList() throws IOException {
+        return writer().writeValueAsBytes(orders);
+    }
+
+    // Comme MappingJacksonValue côté Spring : un writer par réponse
+    private ObjectWriter writer() {
+        return filters != null ? objectMapper.writer(filters) : objectMapper.writer();
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
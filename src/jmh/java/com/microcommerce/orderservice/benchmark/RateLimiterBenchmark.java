@@ -0,0 +1,54 @@
+package com.microcommerce.orderservice.benchmark;
+
+import com.microcommerce.orderservice.security.TokenBucketRateLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût d'une décision du rate limiter (objectif : bien en dessous de la microseconde)
+ *
+ * - sameKey : un seul utilisateur, contention maximale sur le même bucket
+ * - manyKeys : 10 000 utilisateurs répartis sur les threads
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="RateLimiterBenchmark -t 4"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final int USERS = 10_000;
+
+    private TokenBucketRateLimiter limiter;
+    private String[] userIds;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup
+    public void setup() {
+        // Débit élevé pour mesurer le chemin "accepté" comme le chemin "refusé"
+        limiter = new TokenBucketRateLimiter(1_000_000, 1_000, 100_000);
+        userIds = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            userIds[i] = "user-" + i;
+        }
+    }
+
+    @Benchmark
+    public long sameKey() {
+        return limiter.tryAcquire("user-0");
+    }
+
+    @Benchmark
+    public long manyKeys(Cursor cursor) {
+        String userId = userIds[cursor.next++ % USERS];
+        return limiter.tryAcquire(userId);
+    }
+}
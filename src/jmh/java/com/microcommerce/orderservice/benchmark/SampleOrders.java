@@ -0,0 +1,60 @@
+package com.microcommerce.orderservice.benchmark;
+
+import com.microcommerce.orderservice.entity.Money;
+import com.microcommerce.orderservice.entity.Order;
+import com.microcommerce.orderservice.entity.OrderItem;
+import com.microcommerce.orderservice.entity.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Commandes réalistes partagées par les benchmarks (graine fixe fournie par l'appelant)
+ *
+ * Textes variés : des commandes identiques fausseraient les ratios gzip et les caches.
+ */
+final class SampleOrders {
+
+    private static final String[] WORDS = {"coton", "bio", "lavable", "30°", "taille", "ajustée", "garantie",
+        "2 ans", "livré", "monté", "acier", "inoxydable", "compatible", "recharge", "USB-C", "noir", "mat",
+        "édition", "limitée", "format", "compact", "pièces", "détachées", "disponibles", "écran", "tactile"};
+
+    private SampleOrders() {
+    }
+
+    static Order order(Random random, int itemCount) {
+        List<OrderItem> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            OrderItem item = new OrderItem(String.format("%024x", random.nextLong() & Long.MAX_VALUE),
+                words(random, 3), 1 + random.nextInt(4), Money.ofMinor(100 + random.nextInt(20000), 2));
+            item.setProductDescription(words(random, 25));
+            item.setProductCategory(words(random, 1));
+            items.add(item);
+        }
+
+        Order order = new Order("user-" + random.nextInt(100_000), items);
+        order.setId(String.format("%024x", random.nextLong() & Long.MAX_VALUE));
+        order.setStatus(OrderStatus.values()[random.nextInt(OrderStatus.values().length)]);
+        order.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(random.nextInt(500_000)));
+        order.setUpdatedAt(order.getCreatedAt().plusMinutes(random.nextInt(10_000)));
+        order.setShippingAddress((1 + random.nextInt(200)) + " rue " + words(random, 2));
+        order.setShippingCity(words(random, 1));
+        order.setShippingZipCode(String.format("%05d", random.nextInt(100_000)));
+        order.setShippingCountry("France");
+        order.setNotes(words(random, 6));
+        return order;
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,218 @@
+package com.microcommerce.orderservice.loadtest;
+
+import com.microcommerce.orderservice.config.MongoConfig;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Jeu de données synthétique pour tester order-service à l'échelle (dizaines de millions de commandes)
+ *
+ * Les commandes (voir {@link SyntheticOrders}) passent par le MappingMongoConverter de Spring
+ * Data, comme celles de l'application : mêmes champs, mêmes types (montants en String, _class).
+ * threads écrivains en insertMany non ordonnés, par lots de batch-size.
+ *
+ * Chargement incrémental : sans --reset, les commandes s'ajoutent à l'existant. Avec --steps=N le
+ * chargement est coupé en N paliers ; après chaque palier les index d'init-mongo.js sont posés
+ * (construits en une fois au premier palier, entretenus ensuite) et les requêtes du repository
+ * passent en explain (voir {@link QueryProbes}), résultats cumulés dans output-dir/dataset-growth.csv.
+ *
+ * mvn -Ploadtest -DskipTests test-compile exec:exec@dataset -Ddataset.args="--orders=20000000 --steps=4"
+ */
+public final class DatasetGenerator {
+
+    static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        // Base à part, la même que celle du banc de charge
+        DEFAULTS.put("mongo", "localhost:27017");
+        DEFAULTS.put("database", "orderservice_loadtest");
+        DEFAULTS.put("reset", "false");
+        // Commandes ajoutées par ce lancement, en steps paliers
+        DEFAULTS.put("orders", "1000000");
+        DEFAULTS.put("steps", "1");
+        // Clients et produits : nombre et exposant de Zipf (0 = uniforme)
+        DEFAULTS.put("users", "200000");
+        DEFAULTS.put("user-skew", "1.0");
+        DEFAULTS.put("products", "20000");
+        DEFAULTS.put("product-skew", "1.1");
+        // createdAt sur years années jusqu'à until (maintenant par défaut), volume multiplié par growth chaque année
+        DEFAULTS.put("years", "3");
+        DEFAULTS.put("until", "");
+        DEFAULTS.put("growth", "1.6");
+        DEFAULTS.put("threads", String.valueOf(Math.max(2, Runtime.getRuntime().availableProcessors())));
+        DEFAULTS.put("batch-size", "1000");
+        DEFAULTS.put("seed", "42");
+        DEFAULTS.put("indexes", "true");
+        DEFAULTS.put("probes", "true");
+        DEFAULTS.put("output-dir", "target/dataset");
+        DEFAULTS.put("report-interval", "PT5S");
+    }
+
+    // Index d'init-mongo.js (nom par défaut de MongoDB, createIndex ne refait rien s'il existe)
+    private static final List<Document> INDEXES = List.of(
+        new Document("userId", 1),
+        new Document("status", 1),
+        new Document("createdAt", -1),
+        new Document("userId", 1).append("status", 1),
+        new Document("items.productId", 1),
+        new Document("totalAmount", 1));
+
+    private DatasetGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        HarnessOptions options = HarnessOptions.parse(DEFAULTS, args);
+        if (options.help()) {
+            System.out.print(options.usage());
+            return;
+        }
+        Path outputDir = options.path("output-dir");
+        Files.createDirectories(outputDir);
+
+        String until = options.string("until");
+        SyntheticOrders orders = new SyntheticOrders(options.integer("users"), options.decimal("user-skew"),
+            options.integer("products"), options.decimal("product-skew"),
+            until.isEmpty() ? LocalDateTime.now() : LocalDateTime.parse(until),
+            options.decimal("years"), options.decimal("growth"));
+        System.out.printf("Clients : 1%% d'entre eux passent %.0f%% des commandes ; best-sellers : 1%% des produits "
+                + "dans %.0f%% des lignes%n",
+            100 * orders.users().share(options.integer("users") / 100),
+            100 * orders.products().share(options.integer("products") / 100));
+
+        MappingMongoConverter converter = converter();
+        try (MongoClient client = MongoClients.create("mongodb://" + options.string("mongo"))) {
+            MongoDatabase database = client.getDatabase(options.string("database"));
+            MongoCollection<Document> collection = database.getCollection("orders");
+            if (options.flag("reset")) {
+                System.out.println("Suppression de " + options.string("database") + ".orders");
+                collection.drop();
+            }
+            QueryProbes probes = new QueryProbes(database, options.integer("users"), orders.until());
+
+            long existing = collection.estimatedDocumentCount();
+            long total = options.integer("orders");
+            int steps = Math.max(1, options.integer("steps"));
+            System.out.printf("%,d commandes existantes, %,d à ajouter en %d palier(s), createdAt du %s au %s%n",
+                existing, total, steps, orders.from().toLocalDate(), orders.until().toLocalDate());
+
+            long done = 0;
+            for (int step = 1; step <= steps; step++) {
+                long count = total * step / steps - done;
+                load(options, orders, converter, collection, existing + done, count);
+                done += count;
+                if (options.flag("indexes")) {
+                    createIndexes(collection);
+                }
+                if (options.flag("probes")) {
+                    probes.run(collection.estimatedDocumentCount(), outputDir.resolve("dataset-growth.csv"));
+                }
+            }
+            System.out.println("Historique des plans : " + outputDir.resolve("dataset-growth.csv"));
+        }
+    }
+
+    /**
+     * Insère count commandes avec threads écrivains ; offset (commandes déjà en base) décale la
+     * graine, un chargement incrémental ne rejoue pas les mêmes tirages
+     */
+    private static void load(HarnessOptions options, SyntheticOrders orders, MappingMongoConverter converter,
+                             MongoCollection<Document> collection, long offset, long count) throws Exception {
+        int threads = options.integer("threads");
+        int batchSize = options.integer("batch-size");
+        long seed = Long.parseLong(options.string("seed"));
+        InsertManyOptions insertOptions = new InsertManyOptions().ordered(false);
+
+        AtomicLong next = new AtomicLong();
+        LongAdder inserted = new LongAdder();
+        ExecutorService writers = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < threads; i++) {
+                futures.add(writers.submit(() -> {
+                    long first;
+                    while ((first = next.getAndAdd(batchSize)) < count) {
+                        int size = (int) Math.min(batchSize, count - first);
+                        SplittableRandom random = new SplittableRandom(seed * 1_000_003L + offset + first);
+                        List<Document> batch = new ArrayList<>(size);
+                        for (int j = 0; j < size; j++) {
+                            Document document = new Document();
+                            converter.write(orders.next(random), document);
+                            batch.add(document);
+                        }
+                        collection.insertMany(batch, insertOptions);
+                        inserted.add(size);
+                    }
+                    return null;
+                }));
+            }
+            long intervalMillis = options.duration("report-interval").toMillis();
+            long last = 0;
+            long lastNanos = start;
+            for (Future<?> future : futures) {
+                while (true) {
+                    try {
+                        future.get(intervalMillis, TimeUnit.MILLISECONDS);
+                        break;
+                    } catch (TimeoutException e) {
+                        long now = System.nanoTime();
+                        long sum = inserted.sum();
+                        System.out.printf("  %,d / %,d (%,.0f/s)%n", sum, count, (sum - last) * 1e9 / (now - lastNanos));
+                        last = sum;
+                        lastNanos = now;
+                    }
+                }
+            }
+        } finally {
+            writers.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%,d commandes insérées en %.1f s (%,.0f/s)%n", count, seconds, count / seconds);
+    }
+
+    private static void createIndexes(MongoCollection<Document> collection) {
+        long start = System.nanoTime();
+        for (Document keys : INDEXES) {
+            collection.createIndex(keys);
+        }
+        System.out.printf("Index en place (%.1f s)%n", (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Même converter que celui que Spring Boot configure pour l'application (conversions de MongoConfig)
+     */
+    private static MappingMongoConverter converter() {
+        MongoCustomConversions conversions = MongoConfig.customConversions();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+}
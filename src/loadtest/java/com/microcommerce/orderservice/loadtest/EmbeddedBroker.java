@@ -0,0 +1,73 @@
+package com.microcommerce.orderservice.loadtest;
+
+import org.apache.qpid.server.SystemLauncher;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Broker AMQP 0-9-1 en mémoire (Qpid Broker-J) à la place de RabbitMQ
+ *
+ * Même protocole que RabbitMQ côté client : l'application se connecte sans changement et
+ * publie ses événements comme en prod. Rien n'est persisté. Les arguments de queue propres à
+ * RabbitMQ sont ignorés : le chemin de retry différé (TTL + DLX) n'est pas représentatif ici.
+ */
+final class EmbeddedBroker implements AutoCloseable {
+
+    // Mêmes identifiants que spring.rabbitmq dans application.yml
+    static final String USER = "admin";
+    static final String PASSWORD = "password123";
+
+    private final SystemLauncher launcher;
+    private final Path workDir;
+    private final int port;
+
+    private EmbeddedBroker(SystemLauncher launcher, Path workDir, int port) {
+        this.launcher = launcher;
+        this.workDir = workDir;
+        this.port = port;
+    }
+
+    static EmbeddedBroker start() throws Exception {
+        URL config = EmbeddedBroker.class.getClassLoader().getResource("qpid-broker.json");
+        if (config == null) {
+            throw new IllegalStateException("qpid-broker.json introuvable sur le classpath");
+        }
+        Path workDir = Files.createTempDirectory("order-service-qpid-");
+        int port = LoadHarness.freePort();
+
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("type", "Memory");
+        attributes.put("initialConfigurationLocation", config.toExternalForm());
+        attributes.put("startupLoggedToSystemOut", false);
+        attributes.put("context", Map.of(
+            "qpid.amqp_port", String.valueOf(port),
+            "qpid.work_dir", workDir.toString(),
+            "qpid.user", USER,
+            "qpid.password", PASSWORD,
+            // Arguments propres à RabbitMQ (x-max-length, TTL / DLX des queues de retry) ignorés
+            "queue.behaviourOnUnknownDeclareArgument", "IGNORE"));
+
+        SystemLauncher launcher = new SystemLauncher();
+        launcher.startup(attributes);
+        return new EmbeddedBroker(launcher, workDir, port);
+    }
+
+    int port() {
+        return port;
+    }
+
+    @Override
+    public void close() throws IOException {
+        launcher.shutdown();
+        try (Stream<Path> files = Files.walk(workDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
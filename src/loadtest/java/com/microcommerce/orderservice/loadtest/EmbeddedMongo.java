@@ -0,0 +1,48 @@
+package com.microcommerce.orderservice.loadtest;
+
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+
+/**
+ * mongod lancé localement par flapdoodle
+ *
+ * Le binaire MongoDB 7.0 est téléchargé au premier lancement (~/.embedmongo) puis réutilisé.
+ * Sans accès à fastdl.mongodb.org, lancer un mongod soi-même et passer --mongo=host:port.
+ */
+final class EmbeddedMongo implements AutoCloseable {
+
+    private final TransitionWalker.ReachedState<RunningMongodProcess> running;
+
+    private EmbeddedMongo(TransitionWalker.ReachedState<RunningMongodProcess> running) {
+        this.running = running;
+    }
+
+    static EmbeddedMongo start() {
+        try {
+            return new EmbeddedMongo(Mongod.instance().start(Version.Main.V7_0));
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("MongoDB embarqué indisponible (téléchargement de mongod ?), "
+                + "lancer un mongod et passer --mongo=host:port", e);
+        }
+    }
+
+    String host() {
+        return address().getHost();
+    }
+
+    int port() {
+        return address().getPort();
+    }
+
+    private ServerAddress address() {
+        return running.current().getServerAddress();
+    }
+
+    @Override
+    public void close() {
+        running.close();
+    }
+}
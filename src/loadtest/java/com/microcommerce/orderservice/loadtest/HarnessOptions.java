@@ -0,0 +1,140 @@
+package com.microcommerce.orderservice.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Options du banc de charge, en --cle=valeur (les options répétables s'accumulent)
+ *
+ * Valeurs par défaut dans {@link #DEFAULTS} (ou celles de l'outil qui parse), affichées par --help.
+ */
+final class HarnessOptions {
+
+    static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        // Application testée : lancée depuis le jar, ou déjà lancée (target-url, rien n'est démarré)
+        DEFAULTS.put("app-jar", "target/order-service-1.0.0.jar");
+        DEFAULTS.put("target-url", "");
+        DEFAULTS.put("deps-only", "false");
+        DEFAULTS.put("startup-timeout", "PT2M");
+        DEFAULTS.put("output-dir", "target/loadtest");
+        // Dépendances : "embedded" ou host:port d'une instance déjà lancée
+        DEFAULTS.put("mongo", "embedded");
+        DEFAULTS.put("amqp", "embedded");
+        // Stubs product-service / user-service : fixed:ms, uniform:min:max, lognormal:médiane:p99
+        DEFAULTS.put("product-latency", "lognormal:5:40");
+        DEFAULTS.put("product-error-rate", "0");
+        DEFAULTS.put("user-latency", "lognormal:3:20");
+        DEFAULTS.put("user-error-rate", "0");
+        // Charge : closed = concurrency clients en boucle, open = rate requêtes/s quelle que soit la latence
+        DEFAULTS.put("model", "closed");
+        DEFAULTS.put("concurrency", "32");
+        DEFAULTS.put("think-time-ms", "0");
+        DEFAULTS.put("rate", "100");
+        DEFAULTS.put("arrivals", "poisson");
+        DEFAULTS.put("max-in-flight", "2000");
+        DEFAULTS.put("mix", "create:20,get:60,list:20");
+        DEFAULTS.put("users", "1000");
+        DEFAULTS.put("products", "500");
+        DEFAULTS.put("items", "1-5");
+        DEFAULTS.put("warmup", "PT15S");
+        DEFAULTS.put("duration", "PT60S");
+        DEFAULTS.put("report-interval", "PT5S");
+        DEFAULTS.put("jwt-secret", "mySecretKey123456789012345678901234567890");
+    }
+
+    private static final List<String> REPEATABLE = List.of("app-jvm-arg", "app-arg");
+
+    private final Map<String, String> defaults;
+    private final Map<String, String> values;
+    private final Map<String, List<String>> lists = new LinkedHashMap<>();
+
+    private HarnessOptions(Map<String, String> defaults) {
+        this.defaults = defaults;
+        this.values = new LinkedHashMap<>(defaults);
+    }
+
+    static HarnessOptions parse(String[] args) {
+        return parse(DEFAULTS, args);
+    }
+
+    static HarnessOptions parse(Map<String, String> defaults, String[] args) {
+        HarnessOptions options = new HarnessOptions(defaults);
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Option attendue en --cle=valeur : " + arg);
+            }
+            int separator = arg.indexOf('=');
+            String key = separator < 0 ? arg.substring(2) : arg.substring(2, separator);
+            // --deps-only tout court = --deps-only=true
+            String value = separator < 0 ? "true" : arg.substring(separator + 1);
+            if (REPEATABLE.contains(key)) {
+                options.lists.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+            } else if (defaults.containsKey(key) || "help".equals(key)) {
+                options.values.put(key, value);
+            } else {
+                throw new IllegalArgumentException("Option inconnue : --" + key + " (voir --help)");
+            }
+        }
+        return options;
+    }
+
+    String usage() {
+        StringBuilder usage = new StringBuilder("Options (défaut) :\n");
+        defaults.forEach((key, value) -> usage.append("  --").append(key).append('=').append(value).append('\n'));
+        if (defaults == DEFAULTS) {
+            usage.append("  --app-jvm-arg=... / --app-arg=...  (répétables, passés à l'application lancée)\n");
+        }
+        return usage.toString();
+    }
+
+    boolean help() {
+        return values.containsKey("help");
+    }
+
+    String string(String key) {
+        return values.get(key);
+    }
+
+    boolean flag(String key) {
+        return Boolean.parseBoolean(values.get(key));
+    }
+
+    int integer(String key) {
+        return Integer.parseInt(values.get(key));
+    }
+
+    double decimal(String key) {
+        return Double.parseDouble(values.get(key));
+    }
+
+    Duration duration(String key) {
+        return Duration.parse(values.get(key));
+    }
+
+    Path path(String key) {
+        return Path.of(values.get(key));
+    }
+
+    List<String> list(String key) {
+        return lists.getOrDefault(key, List.of());
+    }
+
+    /**
+     * "min-max" ou une seule valeur
+     */
+    int[] range(String key) {
+        String value = values.get(key);
+        int separator = value.indexOf('-');
+        if (separator < 0) {
+            int single = Integer.parseInt(value);
+            return new int[] {single, single};
+        }
+        return new int[] {Integer.parseInt(value.substring(0, separator)), Integer.parseInt(value.substring(separator + 1))};
+    }
+}
@@ -0,0 +1,79 @@
+package com.microcommerce.orderservice.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latence simulée d'un stub, en millisecondes
+ *
+ * - fixed:5 : toujours 5 ms
+ * - uniform:2:10 : entre 2 et 10 ms
+ * - lognormal:5:40 : médiane 5 ms, p99 40 ms (queue longue, proche d'un vrai service)
+ */
+final class LatencyDistribution {
+
+    // Quantile 0.99 de la loi normale centrée réduite
+    private static final double Z_99 = 2.3263;
+
+    private final String spec;
+    private final Kind kind;
+    private final double first;
+    private final double second;
+
+    private enum Kind {
+        FIXED, UNIFORM, LOGNORMAL
+    }
+
+    private LatencyDistribution(String spec, Kind kind, double first, double second) {
+        this.spec = spec;
+        this.kind = kind;
+        this.first = first;
+        this.second = second;
+    }
+
+    static LatencyDistribution parse(String spec) {
+        String[] parts = spec.split(":");
+        try {
+            switch (parts[0]) {
+                case "fixed":
+                    return new LatencyDistribution(spec, Kind.FIXED, Double.parseDouble(parts[1]), 0);
+                case "uniform":
+                    return new LatencyDistribution(spec, Kind.UNIFORM, Double.parseDouble(parts[1]),
+                        Double.parseDouble(parts[2]));
+                case "lognormal":
+                    double median = Double.parseDouble(parts[1]);
+                    double p99 = Double.parseDouble(parts[2]);
+                    if (median <= 0 || p99 < median) {
+                        throw new IllegalArgumentException("lognormal : il faut 0 < médiane <= p99 : " + spec);
+                    }
+                    // sigma tel que médiane * exp(sigma * z99) = p99
+                    return new LatencyDistribution(spec, Kind.LOGNORMAL, median, Math.log(p99 / median) / Z_99);
+                default:
+                    throw new IllegalArgumentException("Distribution inconnue (fixed, uniform, lognormal) : " + spec);
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Distribution de latence invalide : " + spec, e);
+        }
+    }
+
+    long sampleNanos() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double millis;
+        switch (kind) {
+            case UNIFORM:
+                millis = first + random.nextDouble() * (second - first);
+                break;
+            case LOGNORMAL:
+                millis = first * Math.exp(second * random.nextGaussian());
+                break;
+            default:
+                millis = first;
+        }
+        return (long) (millis * TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+}
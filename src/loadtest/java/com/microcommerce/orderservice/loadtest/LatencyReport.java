@@ -0,0 +1,147 @@
+package com.microcommerce.orderservice.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latences (HdrHistogram, en microsecondes) et codes HTTP par opération
+ *
+ * Les threads du générateur écrivent dans un Recorder (sans verrou) ; le thread du banc
+ * récupère l'histogramme de chaque intervalle et ne cumule qu'après l'échauffement.
+ * Seules les réponses 2xx entrent dans les latences, les autres sont comptées par code.
+ */
+final class LatencyReport {
+
+    // Code "statut" des requêtes sans réponse (connexion refusée, timeout)
+    static final int NO_RESPONSE = 0;
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final Map<LoadGenerator.Operation, Recorder> recorders = new EnumMap<>(LoadGenerator.Operation.class);
+    private final Map<LoadGenerator.Operation, Histogram> totals = new EnumMap<>(LoadGenerator.Operation.class);
+    private final Map<LoadGenerator.Operation, Histogram> intervals = new EnumMap<>(LoadGenerator.Operation.class);
+    private final Map<LoadGenerator.Operation, Map<Integer, LongAdder>> statuses = new EnumMap<>(LoadGenerator.Operation.class);
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile boolean measuring;
+    private long measureStartNanos;
+    private long measureEndNanos;
+
+    LatencyReport() {
+        for (LoadGenerator.Operation operation : LoadGenerator.Operation.values()) {
+            recorders.put(operation, new Recorder(3));
+            totals.put(operation, new Histogram(3));
+            statuses.put(operation, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Appelé par les threads du générateur
+     */
+    void record(LoadGenerator.Operation operation, long nanos, int status) {
+        if (status >= 200 && status < 300) {
+            recorders.get(operation).recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos)));
+        }
+        if (measuring) {
+            statuses.get(operation).computeIfAbsent(status, s -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Modèle ouvert : arrivée abandonnée, trop de requêtes déjà en vol
+     */
+    void drop() {
+        if (measuring) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Fin de l'échauffement : ce qui a été enregistré jusque-là est jeté
+     */
+    void startMeasurement() {
+        for (LoadGenerator.Operation operation : LoadGenerator.Operation.values()) {
+            intervals.put(operation, recorders.get(operation).getIntervalHistogram(intervals.get(operation)));
+        }
+        measureStartNanos = System.nanoTime();
+        measuring = true;
+    }
+
+    void stopMeasurement() {
+        interval(0);
+        measuring = false;
+        measureEndNanos = System.nanoTime();
+    }
+
+    /**
+     * Ligne de progression de l'intervalle écoulé, cumulée si la mesure a commencé
+     */
+    void interval(long intervalNanos) {
+        StringBuilder line = new StringBuilder(measuring ? "[mesure]" : "[échauffement]");
+        int length = line.length();
+        for (LoadGenerator.Operation operation : LoadGenerator.Operation.values()) {
+            Histogram interval = recorders.get(operation).getIntervalHistogram(intervals.get(operation));
+            intervals.put(operation, interval);
+            if (measuring) {
+                totals.get(operation).add(interval);
+            }
+            if (intervalNanos > 0 && interval.getTotalCount() > 0) {
+                line.append(String.format("  %s %.0f/s p50=%.1fms p99=%.1fms", operation.label(),
+                    interval.getTotalCount() * 1e9 / intervalNanos,
+                    interval.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                    interval.getValueAtPercentile(99) / MICROS_PER_MILLI));
+            }
+        }
+        if (intervalNanos > 0) {
+            System.out.println(line.length() > length ? line : line.append("  aucune réponse 2xx"));
+        }
+    }
+
+    /**
+     * Tableau final et un fichier .hgrm par opération (lisible par le HdrHistogram plotter)
+     */
+    void print(Path outputDir) throws IOException {
+        double seconds = (measureEndNanos - measureStartNanos) / 1e9;
+        System.out.printf("%nMesure sur %.1f s (latences des réponses 2xx, en ms)%n", seconds);
+        System.out.printf("%-8s %10s %10s %9s %9s %9s %9s %9s %9s  %s%n",
+            "op", "requêtes", "débit/s", "p50", "p90", "p99", "p99.9", "max", "moyenne", "codes HTTP");
+        for (LoadGenerator.Operation operation : LoadGenerator.Operation.values()) {
+            Histogram histogram = totals.get(operation);
+            Map<Integer, Long> codes = new TreeMap<>();
+            statuses.get(operation).forEach((status, count) -> codes.put(status, count.sum()));
+            long requests = codes.values().stream().mapToLong(Long::longValue).sum();
+            if (requests == 0) {
+                continue;
+            }
+            System.out.printf("%-8s %10d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n",
+                operation.label(), requests, requests / seconds,
+                histogram.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(90) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+                histogram.getMaxValue() / MICROS_PER_MILLI,
+                histogram.getMean() / MICROS_PER_MILLI,
+                codes);
+
+            Path file = outputDir.resolve(operation.label() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+        if (dropped.sum() > 0) {
+            System.out.printf("Arrivées abandonnées (max-in-flight atteint) : %d%n", dropped.sum());
+        }
+        System.out.println("Distributions complètes : " + outputDir.resolve("*.hgrm"));
+    }
+}
@@ -0,0 +1,296 @@
+package com.microcommerce.orderservice.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+import javax.crypto.SecretKey;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Générateur de charge sur l'API commandes
+ *
+ * - closed : concurrency clients qui enchaînent requête, réponse, think-time. Le débit baisse
+ *   quand la latence monte (comme de vrais utilisateurs qui attendent).
+ * - open : rate arrivées/s (poisson ou uniform) quoi que fasse le serveur. La latence est
+ *   comptée depuis l'heure d'arrivée prévue : un serveur qui prend du retard le paie dans
+ *   les percentiles (pas d'omission coordonnée).
+ *
+ * Chaque utilisateur simulé a son token JWT ; les commandes créées alimentent les lectures.
+ */
+final class LoadGenerator {
+
+    enum Operation {
+        CREATE("create"),
+        GET("get"),
+        LIST("list");
+
+        private final String label;
+
+        Operation(String label) {
+            this.label = label;
+        }
+
+        String label() {
+            return label;
+        }
+    }
+
+    // Commandes récentes lues par GET /api/orders/{id}
+    private static final int KNOWN_ORDERS = 10_000;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HarnessOptions options;
+    private final URI baseUrl;
+    private final LatencyReport report;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final String[] userIds;
+    private final String[] tokens;
+    private final String[] productIds;
+    private final int minItems;
+    private final int maxItems;
+    private final Operation[] mix;
+
+    private final AtomicReferenceArray<String> knownOrders = new AtomicReferenceArray<>(KNOWN_ORDERS);
+    private final AtomicLong knownOrderSequence = new AtomicLong();
+
+    LoadGenerator(HarnessOptions options, URI baseUrl, LatencyReport report) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+        this.report = report;
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+        int users = options.integer("users");
+        userIds = new String[users];
+        tokens = new String[users];
+        SecretKey key = Keys.hmacShaKeyFor(options.string("jwt-secret").getBytes());
+        long expiration = System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1);
+        for (int i = 0; i < users; i++) {
+            userIds[i] = userId(i);
+            tokens[i] = Jwts.builder()
+                .setSubject("client" + i + "@example.com")
+                .addClaims(Map.of("userId", userIds[i], "role", "USER"))
+                .setExpiration(new Date(expiration))
+                .signWith(key)
+                .compact();
+        }
+
+        productIds = new String[options.integer("products")];
+        for (int i = 0; i < productIds.length; i++) {
+            productIds[i] = productId(i);
+        }
+        int[] items = options.range("items");
+        minItems = items[0];
+        maxItems = items[1];
+        mix = parseMix(options.string("mix"));
+    }
+
+    /**
+     * Identifiants (format ObjectId) partagés avec le générateur de données : les utilisateurs
+     * du banc sont les plus gros clients d'un jeu de données synthétique
+     */
+    static String userId(int index) {
+        return String.format("%024x", index + 1);
+    }
+
+    static String productId(int index) {
+        return String.format("%024x", 0x7000_0000L + index);
+    }
+
+    /**
+     * "create:20,get:60,list:20" : tableau de 100 cases tiré au hasard
+     */
+    private static Operation[] parseMix(String spec) {
+        List<Operation> weighted = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            Operation operation = Operation.valueOf(parts[0].toUpperCase());
+            int weight = Integer.parseInt(parts[1]);
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        }
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("Mix vide : " + spec);
+        }
+        return weighted.toArray(new Operation[0]);
+    }
+
+    /**
+     * Lance la charge jusqu'à deadlineNanos (System.nanoTime), sans bloquer l'appelant
+     */
+    Thread start(long deadlineNanos) {
+        Runnable load = "open".equals(options.string("model"))
+            ? () -> runOpen(deadlineNanos)
+            : () -> runClosed(deadlineNanos);
+        Thread thread = new Thread(load, "load-generator");
+        thread.start();
+        return thread;
+    }
+
+    private void runClosed(long deadlineNanos) {
+        int concurrency = options.integer("concurrency");
+        long thinkNanos = TimeUnit.MILLISECONDS.toNanos(options.integer("think-time-ms"));
+        List<Thread> clients = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            int client = i;
+            Thread thread = new Thread(() -> {
+                while (System.nanoTime() < deadlineNanos) {
+                    Operation operation = pickOperation();
+                    HttpRequest request = request(operation, client % userIds.length);
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<String> response = this.client.send(request, HttpResponse.BodyHandlers.ofString());
+                        complete(operation, start, response);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception e) {
+                        report.record(operation, System.nanoTime() - start, LatencyReport.NO_RESPONSE);
+                    }
+                    if (thinkNanos > 0) {
+                        LockSupport.parkNanos(thinkNanos);
+                    }
+                }
+            }, "load-client-" + i);
+            thread.start();
+            clients.add(thread);
+        }
+        for (Thread thread : clients) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void runOpen(long deadlineNanos) {
+        double rate = options.decimal("rate");
+        boolean poisson = "poisson".equals(options.string("arrivals"));
+        int maxInFlight = options.integer("max-in-flight");
+        AtomicInteger inFlight = new AtomicInteger();
+
+        double meanIntervalNanos = 1e9 / rate;
+        long intended = System.nanoTime();
+        while (intended < deadlineNanos) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = pickOperation();
+            if (inFlight.get() >= maxInFlight) {
+                report.drop();
+            } else {
+                inFlight.incrementAndGet();
+                long scheduled = intended;
+                HttpRequest request = request(operation, ThreadLocalRandom.current().nextInt(userIds.length));
+                client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        inFlight.decrementAndGet();
+                        if (error != null) {
+                            report.record(operation, System.nanoTime() - scheduled, LatencyReport.NO_RESPONSE);
+                        } else {
+                            complete(operation, scheduled, response);
+                        }
+                    });
+            }
+            // Prochaine arrivée prévue, indépendante de la réponse
+            intended += poisson
+                ? (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanIntervalNanos)
+                : (long) meanIntervalNanos;
+        }
+        // Dernières réponses (bornées par le timeout des requêtes)
+        long drainDeadline = System.nanoTime() + REQUEST_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+
+    private void complete(Operation operation, long startNanos, HttpResponse<String> response) {
+        report.record(operation, System.nanoTime() - startNanos, response.statusCode());
+        if (operation == Operation.CREATE && response.statusCode() == 201) {
+            rememberOrder(response.body());
+        }
+    }
+
+    private void rememberOrder(String body) {
+        try {
+            JsonNode id = objectMapper.readTree(body).get("id");
+            if (id != null) {
+                knownOrders.set((int) (knownOrderSequence.getAndIncrement() % KNOWN_ORDERS), id.asText());
+            }
+        } catch (Exception e) {
+            // Réponse illisible : la commande ne sera simplement pas relue
+        }
+    }
+
+    private Operation pickOperation() {
+        Operation operation = mix[ThreadLocalRandom.current().nextInt(mix.length)];
+        // Pas encore de commande à relire : on en crée une
+        return operation == Operation.GET && knownOrderSequence.get() == 0 ? Operation.CREATE : operation;
+    }
+
+    private HttpRequest request(Operation operation, int user) {
+        HttpRequest.Builder builder;
+        switch (operation) {
+            case CREATE:
+                builder = HttpRequest.newBuilder(baseUrl.resolve("/api/orders"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(orderJson(userIds[user]), StandardCharsets.UTF_8));
+                break;
+            case GET:
+                long known = Math.min(knownOrderSequence.get(), KNOWN_ORDERS);
+                String orderId = knownOrders.get(ThreadLocalRandom.current().nextInt((int) known));
+                builder = HttpRequest.newBuilder(baseUrl.resolve("/api/orders/" + orderId)).GET();
+                break;
+            default:
+                builder = HttpRequest.newBuilder(baseUrl.resolve("/api/orders/user/" + userIds[user])).GET();
+        }
+        return builder
+            .header("Authorization", "Bearer " + tokens[user])
+            .timeout(REQUEST_TIMEOUT)
+            .build();
+    }
+
+    private String orderJson(String userId) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int itemCount = minItems + random.nextInt(maxItems - minItems + 1);
+        StringBuilder json = new StringBuilder(128 + itemCount * 128)
+            .append("{\"userId\":\"").append(userId).append("\",\"items\":[");
+        for (int i = 0; i < itemCount; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            String productId = productIds[random.nextInt(productIds.length)];
+            json.append("{\"productId\":\"").append(productId)
+                .append("\",\"productName\":\"Produit\",\"quantity\":").append(1 + random.nextInt(3))
+                .append(",\"price\":").append((100 + random.nextInt(20_000)) / 100.0).append('}');
+        }
+        return json.append("],\"shippingAddress\":\"12 rue de la Paix\",\"shippingCity\":\"Paris\",")
+            .append("\"shippingZipCode\":\"75002\",\"shippingCountry\":\"France\"}")
+            .toString();
+    }
+}
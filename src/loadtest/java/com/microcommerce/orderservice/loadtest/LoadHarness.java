@@ -0,0 +1,193 @@
+package com.microcommerce.orderservice.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Banc de charge de bout en bout d'order-service, sur une seule machine
+ *
+ * 1. stubs product-service / user-service (latence et taux d'erreur réglables)
+ * 2. MongoDB (flapdoodle) et broker AMQP (Qpid) embarqués, ou instances existantes
+ * 3. order-service lancé depuis son jar et branché sur tout ça
+ * 4. charge closed ou open sur POST /api/orders, GET /api/orders/{id}, GET /api/orders/user/{userId}
+ * 5. débit et histogrammes HDR par opération (console + output-dir/*.hgrm)
+ *
+ * mvn -Ploadtest -DskipTests package exec:exec -Dloadtest.args="--model=open --rate=300"
+ */
+public final class LoadHarness {
+
+    private LoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        HarnessOptions options = HarnessOptions.parse(args);
+        if (options.help()) {
+            System.out.print(options.usage());
+            return;
+        }
+        Path outputDir = options.path("output-dir");
+        Files.createDirectories(outputDir);
+
+        if (!options.string("target-url").isEmpty()) {
+            // Instance déjà lancée (IDE, profiler...) : on ne démarre rien, seulement la charge
+            runLoad(options, URI.create(options.string("target-url")), outputDir);
+            return;
+        }
+
+        Deque<AutoCloseable> resources = new ArrayDeque<>();
+        try {
+            List<String> appArgs = startDependencies(options, resources);
+            appArgs.addAll(options.list("app-arg"));
+            // On mesure les chemins de commande, pas les limiteurs : 32 clients en boucle sur 32 users
+            // dépassent vite 2 créations/s par user (429) et le délestage renverrait des 503.
+            // Un --app-arg explicite garde la main (un argument en double casserait la conversion)
+            addDefault(appArgs, "--rate-limit.enabled", "false");
+            addDefault(appArgs, "--load-shedding.enabled", "false");
+
+            if (options.flag("deps-only")) {
+                System.out.println("Dépendances prêtes. Lancer order-service avec :");
+                appArgs.forEach(arg -> System.out.println("  " + arg));
+                System.out.println("puis le banc avec --target-url=http://localhost:<port>. Ctrl-C pour arrêter.");
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> closeAll(resources)));
+                new CountDownLatch(1).await();
+                return;
+            }
+
+            System.out.println("Démarrage d'order-service...");
+            OrderServiceProcess app = OrderServiceProcess.launch(options.path("app-jar"),
+                options.list("app-jvm-arg"), appArgs, outputDir, options.duration("startup-timeout"));
+            resources.push(app);
+            System.out.println("order-service prêt sur " + app.baseUrl());
+
+            runLoad(options, app.baseUrl(), outputDir);
+            resources.stream()
+                .filter(StubServer.class::isInstance)
+                .forEach(stub -> System.out.println(((StubServer) stub).summary()));
+        } finally {
+            closeAll(resources);
+        }
+    }
+
+    /**
+     * Démarre stubs, Mongo et broker ; renvoie les arguments qui branchent l'application dessus
+     */
+    private static List<String> startDependencies(HarnessOptions options, Deque<AutoCloseable> resources)
+            throws Exception {
+        List<String> appArgs = new ArrayList<>();
+
+        StubServer products = StubServer.products(LatencyDistribution.parse(options.string("product-latency")),
+            options.decimal("product-error-rate"));
+        resources.push(products);
+        StubServer users = StubServer.users(LatencyDistribution.parse(options.string("user-latency")),
+            options.decimal("user-error-rate"));
+        resources.push(users);
+        appArgs.add("--services.product-service.url=" + products.url());
+        appArgs.add("--services.user-service.url=" + users.url());
+        System.out.println("Stubs : product-service " + products.url() + ", user-service " + users.url());
+
+        String mongo = options.string("mongo");
+        if ("embedded".equals(mongo)) {
+            System.out.println("Démarrage de MongoDB embarqué...");
+            EmbeddedMongo embedded = EmbeddedMongo.start();
+            resources.push(embedded);
+            mongo = embedded.host() + ":" + embedded.port();
+        }
+        appArgs.add("--spring.data.mongodb.host=" + host(mongo));
+        appArgs.add("--spring.data.mongodb.port=" + port(mongo));
+        // Base à part : un --mongo=localhost:27017 ne touche pas aux données de dev
+        appArgs.add("--spring.data.mongodb.database=orderservice_loadtest");
+        System.out.println("MongoDB : " + mongo);
+
+        String amqp = options.string("amqp");
+        if ("embedded".equals(amqp)) {
+            EmbeddedBroker broker = EmbeddedBroker.start();
+            resources.push(broker);
+            amqp = "127.0.0.1:" + broker.port();
+        }
+        appArgs.add("--spring.rabbitmq.host=" + host(amqp));
+        appArgs.add("--spring.rabbitmq.port=" + port(amqp));
+        System.out.println("AMQP : " + amqp);
+        return appArgs;
+    }
+
+    private static void addDefault(List<String> appArgs, String name, String value) {
+        if (appArgs.stream().noneMatch(arg -> arg.startsWith(name + "="))) {
+            appArgs.add(name + "=" + value);
+        }
+    }
+
+    private static void runLoad(HarnessOptions options, URI baseUrl, Path outputDir)
+            throws IOException, InterruptedException {
+        LatencyReport report = new LatencyReport();
+        LoadGenerator generator = new LoadGenerator(options, baseUrl, report);
+
+        long intervalNanos = options.duration("report-interval").toNanos();
+        long start = System.nanoTime();
+        long measureStart = start + options.duration("warmup").toNanos();
+        long end = measureStart + options.duration("duration").toNanos();
+        System.out.println("Charge " + options.string("model") + " ("
+            + ("open".equals(options.string("model"))
+                ? options.string("rate") + " req/s " + options.string("arrivals")
+                : options.string("concurrency") + " clients")
+            + ", mix " + options.string("mix") + ") sur " + baseUrl);
+
+        boolean measuring = measureStart == start;
+        if (measuring) {
+            report.startMeasurement();
+        }
+        Thread load = generator.start(end);
+        long last = start;
+        while (load.isAlive()) {
+            long next = measuring ? last + intervalNanos : Math.min(last + intervalNanos, measureStart);
+            load.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(next - System.nanoTime())));
+            long now = System.nanoTime();
+            if (!measuring && now >= measureStart) {
+                report.interval(now - last);
+                report.startMeasurement();
+                measuring = true;
+                last = now;
+            } else if (now >= next) {
+                report.interval(now - last);
+                last = now;
+            }
+        }
+        if (!measuring) {
+            report.startMeasurement();
+        }
+        report.stopMeasurement();
+        report.print(outputDir);
+    }
+
+    static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static String host(String hostAndPort) {
+        return hostAndPort.substring(0, hostAndPort.lastIndexOf(':'));
+    }
+
+    private static int port(String hostAndPort) {
+        return Integer.parseInt(hostAndPort.substring(hostAndPort.lastIndexOf(':') + 1));
+    }
+
+    private static void closeAll(Deque<AutoCloseable> resources) {
+        while (!resources.isEmpty()) {
+            try {
+                resources.pop().close();
+            } catch (Exception e) {
+                System.out.println("Arrêt incomplet : " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.microcommerce.orderservice.loadtest;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * order-service lancé depuis son jar, dans sa propre JVM
+ *
+ * Process séparé : le banc (générateur, stubs, broker) ne partage ni le heap ni le GC de
+ * l'application mesurée. Sortie console dans output-dir/order-service.out.
+ */
+final class OrderServiceProcess implements AutoCloseable {
+
+    private final Process process;
+    private final URI baseUrl;
+
+    private OrderServiceProcess(Process process, URI baseUrl) {
+        this.process = process;
+        this.baseUrl = baseUrl;
+    }
+
+    static OrderServiceProcess launch(Path jar, List<String> jvmArgs, List<String> appArgs, Path outputDir,
+                                      Duration startupTimeout) throws IOException, InterruptedException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException("Jar introuvable : " + jar + " (mvn -Ploadtest -DskipTests package exec:exec)");
+        }
+        int port = LoadHarness.freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--server.port=" + port);
+        command.add("--logging.file.name=" + outputDir.resolve("order-service.log"));
+        command.addAll(appArgs);
+
+        Path console = outputDir.resolve("order-service.out");
+        Process process = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(console.toFile())
+            .start();
+        OrderServiceProcess app = new OrderServiceProcess(process, URI.create("http://127.0.0.1:" + port));
+        try {
+            app.awaitHealth(startupTimeout, console);
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            app.close();
+            throw e;
+        }
+        return app;
+    }
+
+    /**
+     * Attend que /actuator/health réponde ; DOWN ou pas de réponse à temps (Mongo ou broker
+     * injoignable) est signalé mais pas bloquant
+     */
+    private void awaitHealth(Duration timeout, Path console) throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(baseUrl.resolve("/actuator/health"))
+            .timeout(Duration.ofSeconds(5))
+            .build();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("order-service s'est arrêté au démarrage, voir " + console);
+            }
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    System.out.println("ATTENTION : order-service démarré mais pas UP : " + response.body());
+                }
+                return;
+            } catch (HttpTimeoutException e) {
+                // À l'écoute, mais un indicateur de santé bloque (serveur Mongo introuvable...)
+                System.out.println("ATTENTION : order-service démarré mais /actuator/health ne répond pas");
+                return;
+            } catch (ConnectException e) {
+                // Pas encore à l'écoute
+                Thread.sleep(500);
+            }
+        }
+        throw new IllegalStateException("order-service pas prêt après " + timeout + ", voir " + console);
+    }
+
+    URI baseUrl() {
+        return baseUrl;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+}
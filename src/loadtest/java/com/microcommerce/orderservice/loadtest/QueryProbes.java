@@ -0,0 +1,147 @@
+package com.microcommerce.orderservice.loadtest;
+
+import com.microcommerce.orderservice.entity.OrderStatus;
+import com.mongodb.client.MongoDatabase;
+import org.bson.Document;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Plans d'exécution et temps des requêtes d'OrderRepository sur le jeu de données
+ *
+ * Chaque sonde est la requête que Spring Data envoie pour une méthode du repository, passée
+ * en explain executionStats : étapes du plan (COLLSCAN, IXSCAN, SORT en mémoire...), clés et
+ * documents examinés, temps côté serveur. Les lignes s'ajoutent à dataset-growth.csv pour
+ * suivre leur évolution au fil des chargements.
+ */
+final class QueryProbes {
+
+    private static final String COLLECTION = "orders";
+
+    private final MongoDatabase database;
+    private final List<Probe> probes = new ArrayList<>();
+
+    QueryProbes(MongoDatabase database, int userCount, LocalDateTime until) {
+        this.database = database;
+        String hotUser = LoadGenerator.userId(0);
+        String tailUser = LoadGenerator.userId(userCount / 2);
+        Date lastMonth = date(until.minusDays(30));
+        Date lastWeek = date(until.minusDays(7));
+
+        // getAllOrders : findAll, toute la collection
+        find("findAll", new Document(), null);
+        find("findByUserId (gros client)", new Document("userId", hotUser), new Document("createdAt", -1));
+        find("findByUserId (traîne)", new Document("userId", tailUser), new Document("createdAt", -1));
+        find("findByProductId (best-seller)", new Document("items.productId", LoadGenerator.productId(0)), null);
+        find("findByCreatedAtBetween (30 j)",
+            new Document("createdAt", new Document("$gt", lastMonth).append("$lt", date(until))), null);
+        find("findByStatus (PENDING)", new Document("status", OrderStatus.PENDING.name()), new Document("createdAt", -1));
+        find("findPendingOrdersOlderThan (7 j)",
+            new Document("status", OrderStatus.PENDING.name()).append("createdAt", new Document("$lt", lastWeek)), null);
+        // Montants écrits en String (Money, comme les BigDecimal avant) : le $gte numérique ne trouve rien
+        find("findOrdersWithMinAmount (500)", new Document("totalAmount", new Document("$gte", 500.0)), null);
+        // getOrderStats : count() puis un countByStatus par statut
+        count("count", new Document());
+        count("countByStatus (DELIVERED)", new Document("status", OrderStatus.DELIVERED.name()));
+        count("countByUserId (gros client)", new Document("userId", hotUser));
+    }
+
+    /**
+     * Passe toutes les sondes, affiche le tableau et l'ajoute au CSV
+     */
+    void run(long orderCount, Path csv) throws IOException {
+        boolean header = !Files.exists(csv);
+        try (PrintStream out = new PrintStream(Files.newOutputStream(csv,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+            if (header) {
+                out.println("date,orders,probe,plan,returned,keys_examined,docs_examined,millis");
+            }
+            System.out.printf("%nPlans à %,d commandes%n", orderCount);
+            System.out.printf("%-36s %-44s %10s %12s %12s %8s%n", "requête", "plan", "renvoyés", "clés", "documents", "ms");
+            for (Probe probe : probes) {
+                Document explain = database.runCommand(new Document("explain", probe.command)
+                    .append("verbosity", "executionStats"));
+                Document stats = explain.get("executionStats", Document.class);
+                String plan = describe(explain.get("queryPlanner", Document.class).get("winningPlan", Document.class));
+                long returned = number(stats, "nReturned");
+                long keys = number(stats, "totalKeysExamined");
+                long docs = number(stats, "totalDocsExamined");
+                long millis = number(stats, "executionTimeMillis");
+                System.out.printf("%-36s %-44s %10d %12d %12d %8d%n", probe.name, plan, returned, keys, docs, millis);
+                out.printf("%s,%d,\"%s\",\"%s\",%d,%d,%d,%d%n", LocalDateTime.now(), orderCount, probe.name, plan,
+                    returned, keys, docs, millis);
+            }
+        }
+    }
+
+    private void find(String name, Document filter, Document sort) {
+        Document command = new Document("find", COLLECTION).append("filter", filter);
+        if (sort != null) {
+            command.append("sort", sort);
+        }
+        probes.add(new Probe(name, command));
+    }
+
+    private void count(String name, Document query) {
+        probes.add(new Probe(name, new Document("count", COLLECTION).append("query", query)));
+    }
+
+    /**
+     * "SORT > FETCH > IXSCAN(userId_1)" ; les plans SBE (MongoDB 7) sont sous queryPlan
+     */
+    private static String describe(Document plan) {
+        if (plan == null) {
+            return "?";
+        }
+        if (plan.getString("stage") == null && plan.get("queryPlan") instanceof Document) {
+            return describe(plan.get("queryPlan", Document.class));
+        }
+        String stage = plan.getString("stage");
+        if (plan.getString("indexName") != null) {
+            stage += "(" + plan.getString("indexName") + ")";
+        }
+        if (plan.get("inputStage") instanceof Document) {
+            return stage + " > " + describe(plan.get("inputStage", Document.class));
+        }
+        if (plan.get("inputStages") instanceof List) {
+            StringJoiner inputs = new StringJoiner(" + ", stage + " > [", "]");
+            for (Object input : plan.getList("inputStages", Object.class)) {
+                inputs.add(input instanceof Document ? describe((Document) input) : "?");
+            }
+            return inputs.toString();
+        }
+        return stage;
+    }
+
+    private static long number(Document document, String key) {
+        Object value = document == null ? null : document.get(key);
+        return value instanceof Number ? ((Number) value).longValue() : -1;
+    }
+
+    /**
+     * Même conversion que Spring Data : LocalDateTime dans le fuseau de la JVM
+     */
+    private static Date date(LocalDateTime dateTime) {
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static final class Probe {
+        private final String name;
+        private final Document command;
+
+        private Probe(String name, Document command) {
+            this.name = name;
+            this.command = command;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.microcommerce.orderservice.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Faux product-service / user-service dans le process du banc (serveur HTTP du JDK)
+ *
+ * Répond à tous les IDs, avec une latence tirée dans une {@link LatencyDistribution} et un taux
+ * d'erreurs 503. La réponse est planifiée sur un scheduler : aucun thread n'est bloqué pendant
+ * la latence simulée, le stub tient des milliers de requêtes en vol.
+ */
+final class StubServer implements AutoCloseable {
+
+    private final String name;
+    private final HttpServer server;
+    private final ScheduledExecutorService scheduler;
+    private final LatencyDistribution latency;
+    private final double errorRate;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    private StubServer(String name, HttpServer server, LatencyDistribution latency, double errorRate) {
+        this.name = name;
+        this.server = server;
+        this.latency = latency;
+        this.errorRate = errorRate;
+        this.scheduler = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "stub-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * /api/products/{id} et /api/products/internal/{id} (ProductServiceClient)
+     */
+    static StubServer products(LatencyDistribution latency, double errorRate) throws IOException {
+        return start("product-service", List.of("/api/products/internal/", "/api/products/"), latency, errorRate,
+            StubServer::productJson);
+    }
+
+    /**
+     * /api/users/{id} et /api/users/internal/{id} (UserServiceClient)
+     */
+    static StubServer users(LatencyDistribution latency, double errorRate) throws IOException {
+        return start("user-service", List.of("/api/users/internal/", "/api/users/"), latency, errorRate,
+            StubServer::userJson);
+    }
+
+    private static StubServer start(String name, List<String> prefixes, LatencyDistribution latency,
+                                    double errorRate, Function<String, String> body) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        StubServer stub = new StubServer(name, server, latency, errorRate);
+        server.createContext("/", exchange -> stub.handle(exchange, prefixes, body));
+        server.start();
+        return stub;
+    }
+
+    private void handle(HttpExchange exchange, List<String> prefixes, Function<String, String> body) {
+        requests.increment();
+        String path = exchange.getRequestURI().getPath();
+        String id = null;
+        for (String prefix : prefixes) {
+            if (path.startsWith(prefix) && path.indexOf('/', prefix.length()) < 0) {
+                id = path.substring(prefix.length());
+                break;
+            }
+        }
+        if (id == null || id.isEmpty()) {
+            respond(exchange, 404, null);
+            return;
+        }
+
+        boolean error = ThreadLocalRandom.current().nextDouble() < errorRate;
+        String json = error ? null : body.apply(id);
+        scheduler.schedule(() -> {
+            if (error) {
+                errors.increment();
+            }
+            respond(exchange, error ? 503 : 200, json);
+        }, latency.sampleNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) {
+        try (exchange) {
+            if (json == null) {
+                exchange.sendResponseHeaders(status, -1);
+                return;
+            }
+            byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (IOException e) {
+            // Client parti (timeout côté order-service) : rien à faire
+        }
+    }
+
+    // Prix et stock dérivés de l'ID : stables d'une requête à l'autre
+    private static String productJson(String id) {
+        int hash = id.hashCode() & Integer.MAX_VALUE;
+        return "{\"id\":\"" + id + "\",\"name\":\"Produit " + (hash % 10_000)
+            + "\",\"price\":" + (100 + hash % 20_000) / 100.0
+            + ",\"category\":\"categorie-" + (hash % 20)
+            + "\",\"stock\":" + (10 + hash % 1000) + ",\"available\":true}";
+    }
+
+    private static String userJson(String id) {
+        return "{\"id\":\"" + id + "\",\"name\":\"Client " + id + "\",\"email\":\"" + id
+            + "@example.com\",\"role\":\"USER\"}";
+    }
+
+    String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    String summary() {
+        return String.format("%s (%s, erreurs %.1f %%) : %d requêtes, %d erreurs simulées",
+            name, latency, errorRate * 100, requests.sum(), errors.sum());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        scheduler.shutdownNow();
+    }
+}
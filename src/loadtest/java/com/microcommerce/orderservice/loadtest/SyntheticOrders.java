@@ -0,0 +1,283 @@
+package com.microcommerce.orderservice.loadtest;
+
+import com.microcommerce.orderservice.entity.Money;
+import com.microcommerce.orderservice.entity.Order;
+import com.microcommerce.orderservice.entity.OrderItem;
+import com.microcommerce.orderservice.entity.OrderStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Fabrique de commandes réalistes pour le jeu de données synthétique
+ *
+ * - clients et produits tirés en Zipf : les gros clients ont des milliers de commandes,
+ *   les best-sellers sont dans une fraction énorme des commandes
+ * - 1 à 3 articles la plupart du temps, avec une traîne jusqu'à 40
+ * - createdAt sur plusieurs années, volume en croissance (growth par an), pic en fin d'année
+ *   et creux la nuit
+ * - statut selon l'âge : les commandes récentes sont en cours, les anciennes livrées ou
+ *   annulées, quelques PENDING oubliées (celles que cherche findPendingOrdersOlderThan)
+ *
+ * Catalogue et adresses sont dérivés du rang : un produit a toujours le même nom et le même
+ * prix, un client la même adresse, d'un lancement à l'autre.
+ */
+final class SyntheticOrders {
+
+    private static final String[] CATEGORIES = {
+        "Informatique", "Téléphonie", "Audio", "Accessoires", "Maison", "Livres", "Sport", "Jeux vidéo"
+    };
+    private static final String[][] PRODUCT_WORDS = {
+        {"Laptop", "Écran", "Clavier", "Souris", "SSD"},
+        {"Smartphone", "Chargeur", "Coque", "Câble USB-C"},
+        {"Casque", "Enceinte", "Écouteurs", "Barre de son"},
+        {"Sacoche", "Support", "Hub", "Adaptateur"},
+        {"Lampe", "Bouilloire", "Aspirateur", "Cafetière"},
+        {"Roman", "Guide", "Bande dessinée", "Manuel"},
+        {"Ballon", "Tapis de yoga", "Gourde", "Haltères"},
+        {"Console", "Manette", "Jeu", "Volant"}
+    };
+    // Prix médian par catégorie (euros), étalé en lognormal autour
+    private static final double[] MEDIAN_PRICES = {450, 250, 80, 25, 60, 18, 30, 55};
+
+    private static final String[][] CITIES = {
+        {"Paris", "75011", "France"}, {"Lyon", "69003", "France"}, {"Marseille", "13008", "France"},
+        {"Toulouse", "31000", "France"}, {"Nice", "06000", "France"}, {"Nantes", "44000", "France"},
+        {"Bordeaux", "33000", "France"}, {"Lille", "59000", "France"}, {"Strasbourg", "67000", "France"},
+        {"Montpellier", "34000", "France"}, {"Bruxelles", "1000", "Belgique"}, {"Genève", "1201", "Suisse"}
+    };
+    private static final String[] STREETS = {
+        "rue de la Paix", "avenue des Champs", "boulevard Saint-Germain", "rue Victor Hugo",
+        "place de la République", "rue du Moulin", "allée des Tilleuls", "chemin des Vignes"
+    };
+    private static final String[] NOTES = {
+        "Livraison rapide demandée", "Cadeau - emballage spécial", "Laisser chez le gardien",
+        "Commande groupée", "Appeler avant livraison"
+    };
+
+    // Articles par commande : 1 à 5 pondérés, puis traîne géométrique
+    private static final double[] ITEM_COUNT_WEIGHTS = {0.46, 0.24, 0.13, 0.07, 0.04};
+    private static final int MAX_ITEMS = 40;
+
+    // Volume relatif par mois (janvier..décembre) et par heure
+    private static final double[] MONTH_WEIGHTS = {0.85, 0.75, 0.85, 0.9, 0.9, 0.85, 0.8, 0.75, 0.9, 1.0, 1.5, 1.6};
+    private static final double[] HOUR_WEIGHTS = {
+        0.3, 0.2, 0.1, 0.1, 0.1, 0.2, 0.4, 0.7, 1.0, 1.2, 1.3, 1.4,
+        1.5, 1.4, 1.3, 1.3, 1.3, 1.4, 1.6, 1.8, 1.9, 1.7, 1.2, 0.7
+    };
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    // Poids par statut (ordre de l'enum : PENDING, CONFIRMED, PROCESSING, SHIPPED, DELIVERED, CANCELLED)
+    private static final double[] LAST_DAY = {45, 30, 15, 0, 0, 10};
+    private static final double[] LAST_WEEK = {3, 4, 13, 55, 15, 10};
+    private static final double[] OLDER = {1.5, 0.5, 0, 1, 88, 9};
+
+    private final ZipfSampler users;
+    private final ZipfSampler products;
+    private final String[] productIds;
+    private final String[] productNames;
+    private final String[] productCategories;
+    private final Money[] productPrices;
+
+    private final LocalDateTime from;
+    private final LocalDateTime until;
+    private final double spanYears;
+    private final double growth;
+
+    private final double[] itemCounts = cumulative(ITEM_COUNT_WEIGHTS);
+    private final double[] hours = cumulative(HOUR_WEIGHTS);
+    private final double maxMonthWeight;
+    private final double[] lastDay = cumulative(LAST_DAY);
+    private final double[] lastWeek = cumulative(LAST_WEEK);
+    private final double[] older = cumulative(OLDER);
+
+    SyntheticOrders(int userCount, double userSkew, int productCount, double productSkew,
+                    LocalDateTime until, double years, double growth) {
+        this.users = new ZipfSampler(userCount, userSkew);
+        this.products = new ZipfSampler(productCount, productSkew);
+        this.until = until;
+        this.from = until.minusSeconds((long) (years * 365.25 * 86_400));
+        this.spanYears = years;
+        this.growth = growth;
+
+        productIds = new String[productCount];
+        productNames = new String[productCount];
+        productCategories = new String[productCount];
+        productPrices = new Money[productCount];
+        for (int rank = 0; rank < productCount; rank++) {
+            SplittableRandom random = new SplittableRandom(0x5EED_0000L + rank);
+            int category = random.nextInt(CATEGORIES.length);
+            String[] words = PRODUCT_WORDS[category];
+            productIds[rank] = LoadGenerator.productId(rank);
+            productNames[rank] = words[random.nextInt(words.length)] + " " + (char) ('A' + random.nextInt(26))
+                + (100 + random.nextInt(900));
+            productCategories[rank] = CATEGORIES[category];
+            double price = MEDIAN_PRICES[category] * Math.exp(0.6 * gaussian(random));
+            productPrices[rank] = Money.ofMinor(Math.max(99, Math.round(price * 100)), 2);
+        }
+        double max = 0;
+        for (double weight : MONTH_WEIGHTS) {
+            max = Math.max(max, weight);
+        }
+        maxMonthWeight = max;
+    }
+
+    Order next(SplittableRandom random) {
+        int user = users.sample(random);
+        LocalDateTime createdAt = createdAt(random);
+        OrderStatus status = status(random, Duration.between(createdAt, until));
+
+        int itemCount = itemCount(random);
+        List<OrderItem> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            int product = products.sample(random);
+            OrderItem item = new OrderItem(productIds[product], productNames[product], quantity(random),
+                productPrices[product]);
+            item.setProductCategory(productCategories[product]);
+            items.add(item);
+        }
+
+        Order order = new Order();
+        order.setUserId(LoadGenerator.userId(user));
+        order.setItems(items);
+        order.setStatus(status);
+        order.setCreatedAt(createdAt);
+        order.setUpdatedAt(updatedAt(random, status, createdAt));
+        shipTo(order, user);
+        if (random.nextInt(100) < 8) {
+            order.setNotes(NOTES[random.nextInt(NOTES.length)]);
+        }
+        return order;
+    }
+
+    LocalDateTime from() {
+        return from;
+    }
+
+    LocalDateTime until() {
+        return until;
+    }
+
+    ZipfSampler users() {
+        return users;
+    }
+
+    ZipfSampler products() {
+        return products;
+    }
+
+    /**
+     * Densité en growth^t sur la fenêtre (inversion de la CDF), saisonnalité par rejet,
+     * heure de la journée tirée à part
+     */
+    private LocalDateTime createdAt(SplittableRandom random) {
+        while (true) {
+            double u = random.nextDouble();
+            double years = growth == 1.0
+                ? u * spanYears
+                : Math.log(1 + u * (Math.pow(growth, spanYears) - 1)) / Math.log(growth);
+            LocalDateTime day = from.plusDays((long) (years * 365.25)).toLocalDate().atStartOfDay();
+            if (random.nextDouble() * maxMonthWeight > MONTH_WEIGHTS[day.getMonthValue() - 1]) {
+                continue;
+            }
+            LocalDateTime createdAt = day.plusHours(pick(random, hours)).plusSeconds(random.nextInt(3600));
+            if (createdAt.isBefore(until) && !createdAt.isBefore(from)) {
+                return createdAt;
+            }
+        }
+    }
+
+    private OrderStatus status(SplittableRandom random, Duration age) {
+        if (age.toHours() < 24) {
+            return STATUSES[pick(random, lastDay)];
+        }
+        return STATUSES[pick(random, age.toDays() < 7 ? lastWeek : older)];
+    }
+
+    private LocalDateTime updatedAt(SplittableRandom random, OrderStatus status, LocalDateTime createdAt) {
+        long minutes;
+        switch (status) {
+            case PENDING:
+                minutes = 0;
+                break;
+            case CONFIRMED:
+                minutes = 1 + random.nextInt(30);
+                break;
+            case PROCESSING:
+                minutes = 60 + random.nextInt(12 * 60);
+                break;
+            case SHIPPED:
+                minutes = 24 * 60 + random.nextInt(2 * 24 * 60);
+                break;
+            case DELIVERED:
+                minutes = 2 * 24 * 60 + random.nextInt(5 * 24 * 60);
+                break;
+            default:
+                minutes = random.nextInt(2 * 24 * 60);
+        }
+        LocalDateTime updatedAt = createdAt.plusMinutes(minutes);
+        return updatedAt.isAfter(until) ? until : updatedAt;
+    }
+
+    private int itemCount(SplittableRandom random) {
+        int index = pick(random, itemCounts);
+        if (index < ITEM_COUNT_WEIGHTS.length) {
+            return index + 1;
+        }
+        // Traîne : 6 et plus, géométrique de moyenne ~4 (paniers de pro, listes de mariage...)
+        int count = ITEM_COUNT_WEIGHTS.length + 1;
+        while (count < MAX_ITEMS && random.nextInt(4) != 0) {
+            count++;
+        }
+        return count;
+    }
+
+    private static int quantity(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        if (roll < 82) {
+            return 1;
+        }
+        return roll < 95 ? 2 : 3 + random.nextInt(8);
+    }
+
+    private static void shipTo(Order order, int user) {
+        SplittableRandom random = new SplittableRandom(0xADD0_0000L + user);
+        // Grandes villes plus représentées
+        String[] city = CITIES[Math.min(random.nextInt(CITIES.length), random.nextInt(CITIES.length))];
+        order.setShippingAddress((1 + random.nextInt(150)) + " " + STREETS[random.nextInt(STREETS.length)]);
+        order.setShippingCity(city[0]);
+        order.setShippingZipCode(city[1]);
+        order.setShippingCountry(city[2]);
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] cumulative = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cumulative[i] = sum;
+        }
+        return cumulative;
+    }
+
+    /**
+     * Index tiré selon les poids cumulés. Des poids qui totalisent moins de 1 laissent le reste
+     * à l'index "length" (la traîne des articles).
+     */
+    private static int pick(SplittableRandom random, double[] cumulative) {
+        double roll = random.nextDouble() * Math.max(cumulative[cumulative.length - 1], 1);
+        for (int i = 0; i < cumulative.length; i++) {
+            if (roll < cumulative[i]) {
+                return i;
+            }
+        }
+        return cumulative.length;
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+}
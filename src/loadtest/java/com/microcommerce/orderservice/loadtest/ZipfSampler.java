@@ -0,0 +1,43 @@
+package com.microcommerce.orderservice.loadtest;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Tirage de rangs 0..n-1 selon une loi de Zipf (poids 1/(rang+1)^exposant)
+ *
+ * Exposant ~1 : quelques gros clients / best-sellers et une longue traîne, comme en vrai.
+ * 0 = uniforme. La CDF est précalculée (8 octets par rang), un tirage = une recherche dichotomique.
+ */
+final class ZipfSampler {
+
+    private final double[] cumulative;
+
+    ZipfSampler(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("Zipf sur " + n + " rangs");
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1.0 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cumulative[rank] /= sum;
+        }
+    }
+
+    int sample(SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+
+    /**
+     * Part des tirages qui tombent sur les `top` premiers rangs
+     */
+    double share(int top) {
+        return top <= 0 ? 0 : cumulative[Math.min(top, cumulative.length) - 1];
+    }
+}
@@ -0,0 +1,102 @@
+package com.microcommerce.orderservice.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Limite de concurrence adaptative (AIMD) basée sur la latence observée
+ *
+ * - chaque requête terminée sous le seuil de latence augmente la limite d'environ 1/limite
+ *   (donc +1 par "fenêtre" de requêtes) : augmentation additive
+ * - une requête trop lente ou en erreur serveur la multiplie par backoffRatio,
+ *   au plus une fois par fenêtre de backoff : diminution multiplicative
+ *
+ * Les priorités n'ont accès qu'à une part de la limite : quand ça sature,
+ * les requêtes LOW sont refusées bien avant le checkout.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final double minLimit;
+    private final double maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final long backoffWindowNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // Limite courante (double stocké en bits) et date du dernier backoff
+    private final AtomicLong limitBits;
+    private final AtomicLong lastBackoffNanos = new AtomicLong(System.nanoTime());
+
+    public AdaptiveConcurrencyLimiter(double initialLimit, double minLimit, double maxLimit,
+                                      long latencyThresholdNanos, double backoffRatio, long backoffWindowNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+        this.backoffWindowNanos = backoffWindowNanos;
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(initialLimit));
+    }
+
+    /**
+     * Réserve une place si la priorité y a encore droit
+     *
+     * @return true si la requête peut passer (il faudra appeler {@link #release})
+     */
+    public boolean tryAcquire(RequestPriority.Level priority) {
+        int allowed = Math.max(1, (int) (getLimit() * priority.getShare()));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libère la place et ajuste la limite avec la latence mesurée
+     */
+    public void release(long latencyNanos, boolean serverError) {
+        inFlight.decrementAndGet();
+
+        if (serverError || latencyNanos > latencyThresholdNanos) {
+            long now = System.nanoTime();
+            long last = lastBackoffNanos.get();
+            if (now - last >= backoffWindowNanos && lastBackoffNanos.compareAndSet(last, now)) {
+                updateLimit(limit -> limit * backoffRatio);
+            }
+        } else if (inFlight.get() * 2 >= getLimit()) {
+            // On n'augmente que si la limite est vraiment sollicitée, sinon elle gonflerait au repos
+            updateLimit(limit -> limit + 1.0 / limit);
+        }
+    }
+
+    /**
+     * Libère la place sans échantillon (requête asynchrone qui rend son thread)
+     */
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    private void updateLimit(DoubleUnaryOperator update) {
+        while (true) {
+            long currentBits = limitBits.get();
+            double next = update.applyAsDouble(Double.longBitsToDouble(currentBits));
+            next = Math.max(minLimit, Math.min(maxLimit, next));
+            if (limitBits.compareAndSet(currentBits, Double.doubleToLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    public double getLimit() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
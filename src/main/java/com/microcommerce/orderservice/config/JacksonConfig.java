@@ -0,0 +1,34 @@
+package com.microcommerce.orderservice.config;
+
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+
+/**
+ * Configuration de l'ObjectMapper des réponses HTTP (servlet et WebFlux)
+ *
+ * - Blackbird : accès aux propriétés par lambdas générées au lieu de la réflexion
+ *   Pas en image native (GraalVM) : pas de génération de classes à l'exécution, l'accès par
+ *   réflexion y est déjà compilé
+ * - filtres du paramètre fields= ({@link OrderFieldSet})
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer blackbirdCustomizer() {
+        return builder -> {
+            if (!NativeDetector.inNativeImage()) {
+                // postConfigurer s'ajoute aux modules de Spring Boot au lieu de les remplacer
+                builder.postConfigurer(objectMapper -> objectMapper.registerModule(new BlackbirdModule()));
+            }
+        };
+    }
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer orderFieldSetCustomizer() {
+        return OrderFieldSet::configure;
+    }
+}
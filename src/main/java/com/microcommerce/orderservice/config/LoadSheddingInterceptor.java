@@ -0,0 +1,145 @@
+package com.microcommerce.orderservice.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load shedding devant les contrôleurs de commandes
+ *
+ * Chaque requête doit obtenir une place auprès de l'{@link AdaptiveConcurrencyLimiter}
+ * selon la priorité de son endpoint ({@link RequestPriority}). Quand Mongo ou le
+ * product-service ralentissent, la limite baisse et les requêtes LOW sont refusées
+ * tout de suite en 503, au lieu d'empiler des threads Tomcat qui bloqueraient le checkout.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class LoadSheddingInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadSheddingInterceptor.class);
+
+    private static final String START_ATTRIBUTE = LoadSheddingInterceptor.class.getName() + ".start";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${load-shedding.enabled:true}")
+    private boolean enabled;
+
+    @Value("${load-shedding.initial-limit:50}")
+    private double initialLimit;
+
+    @Value("${load-shedding.min-limit:10}")
+    private double minLimit;
+
+    @Value("${load-shedding.max-limit:200}")
+    private double maxLimit;
+
+    @Value("${load-shedding.latency-threshold-ms:500}")
+    private long latencyThresholdMs;
+
+    @Value("${load-shedding.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Value("${load-shedding.backoff-window-ms:100}")
+    private long backoffWindowMs;
+
+    private AdaptiveConcurrencyLimiter limiter;
+    private final Map<RequestPriority.Level, Counter> shedCounters = new EnumMap<>(RequestPriority.Level.class);
+
+    @PostConstruct
+    public void init() {
+        limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit,
+            TimeUnit.MILLISECONDS.toNanos(latencyThresholdMs), backoffRatio,
+            TimeUnit.MILLISECONDS.toNanos(backoffWindowMs));
+
+        Gauge.builder("order.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+            .description("Limite de concurrence adaptative courante")
+            .register(meterRegistry);
+        Gauge.builder("order.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+            .description("Requêtes en cours dans les contrôleurs de commandes")
+            .register(meterRegistry);
+        for (RequestPriority.Level level : RequestPriority.Level.values()) {
+            shedCounters.put(level, Counter.builder("order.concurrency.shed")
+                .tag("priority", level.name().toLowerCase())
+                .description("Requêtes refusées (503) par le load shedding")
+                .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        if (!enabled || !(handler instanceof HandlerMethod)) {
+            return true;
+        }
+
+        RequestPriority.Level priority = resolvePriority((HandlerMethod) handler);
+        if (!limiter.tryAcquire(priority)) {
+            shedCounters.get(priority).increment();
+            logger.warn("Requête {} {} refusée (priorité {}, limite {})",
+                       request.getMethod(), request.getRequestURI(), priority, (int) limiter.getLimit());
+            reject(response);
+            return false;
+        }
+
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start == null) {
+            return;
+        }
+        request.removeAttribute(START_ATTRIBUTE);
+
+        long latencyNanos = System.nanoTime() - (Long) start;
+        boolean serverError = ex != null || response.getStatus() >= 500;
+        limiter.release(latencyNanos, serverError);
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // Requête asynchrone : le thread est rendu, la place aussi
+        if (request.getAttribute(START_ATTRIBUTE) != null) {
+            request.removeAttribute(START_ATTRIBUTE);
+            limiter.releaseWithoutSample();
+        }
+    }
+
+    private RequestPriority.Level resolvePriority(HandlerMethod handlerMethod) {
+        RequestPriority annotation = handlerMethod.getMethodAnnotation(RequestPriority.class);
+        return annotation != null ? annotation.value() : RequestPriority.Level.NORMAL;
+    }
+
+    private void reject(HttpServletResponse response) throws Exception {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"status\":503,\"error\":\"Service Unavailable\","
+            + "\"message\":\"Service surchargé, réessayez dans quelques instants\","
+            + "\"service\":\"order-service\"}");
+    }
+}
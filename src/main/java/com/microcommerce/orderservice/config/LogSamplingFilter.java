@@ -0,0 +1,130 @@
+package com.microcommerce.orderservice.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Échantillonnage et plafond des logs bavards par requête (déclaré dans logback-spring.xml)
+ *
+ * Règles "logger:1-sur-N:max-par-seconde" séparées par des virgules, par préfixe de logger :
+ *   com.microcommerce.orderservice.service.OrderService:10:100
+ * garde 1 message INFO sur 10 de OrderService, et au plus 100 par seconde. 0 = pas de plafond.
+ *
+ * Jamais appliqué à WARN / ERROR ni aux messages avec exception : le chemin d'erreur reste complet.
+ * Les tests isXxxEnabled() (sans message) ne consomment pas d'échantillon.
+ */
+public class LogSamplingFilter extends TurboFilter {
+
+    private static final Rule NO_RULE = new Rule("", 1, 0);
+
+    private boolean enabled = true;
+    private String rules = "";
+
+    private final List<Rule> parsedRules = new ArrayList<>();
+    // Règle résolue par nom de logger (le parcours des préfixes n'est fait qu'une fois)
+    private final Map<String, Rule> rulesByLogger = new ConcurrentHashMap<>();
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void setRules(String rules) {
+        this.rules = rules;
+    }
+
+    @Override
+    public void start() {
+        parsedRules.clear();
+        rulesByLogger.clear();
+        for (String rule : rules.split(",")) {
+            String trimmed = rule.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            String[] parts = trimmed.split(":");
+            if (parts.length != 3) {
+                addError("Règle d'échantillonnage invalide (attendu logger:N:max): " + trimmed);
+                continue;
+            }
+            try {
+                parsedRules.add(new Rule(parts[0], Math.max(1, Integer.parseInt(parts[1])),
+                    Math.max(0, Integer.parseInt(parts[2]))));
+            } catch (NumberFormatException e) {
+                addError("Règle d'échantillonnage invalide (attendu logger:N:max): " + trimmed);
+            }
+        }
+        // Le préfixe le plus long gagne
+        parsedRules.sort((a, b) -> Integer.compare(b.prefix.length(), a.prefix.length()));
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        if (!enabled || format == null || t != null || level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        // Message qui serait filtré de toute façon : il ne doit pas compter
+        // (getEffectiveLevel et pas isEnabledFor, qui rappellerait les turbo filters)
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        Rule rule = rulesByLogger.computeIfAbsent(logger.getName(), this::resolve);
+        if (rule == NO_RULE) {
+            return FilterReply.NEUTRAL;
+        }
+        return rule.accept() ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private Rule resolve(String loggerName) {
+        for (Rule rule : parsedRules) {
+            if (loggerName.startsWith(rule.prefix)) {
+                return rule;
+            }
+        }
+        return NO_RULE;
+    }
+
+    private static final class Rule {
+        private static final long SECOND_NANOS = 1_000_000_000L;
+
+        final String prefix;
+        final int sampleEvery;
+        final int maxPerSecond;
+
+        private final AtomicLong seen = new AtomicLong();
+        private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+        private final AtomicLong acceptedInWindow = new AtomicLong();
+
+        Rule(String prefix, int sampleEvery, int maxPerSecond) {
+            this.prefix = prefix;
+            this.sampleEvery = sampleEvery;
+            this.maxPerSecond = maxPerSecond;
+        }
+
+        boolean accept() {
+            if (sampleEvery > 1 && seen.getAndIncrement() % sampleEvery != 0) {
+                return false;
+            }
+            if (maxPerSecond == 0) {
+                return true;
+            }
+            long start = windowStart.get();
+            long now = System.nanoTime();
+            if (now - start >= SECOND_NANOS && windowStart.compareAndSet(start, now)) {
+                acceptedInWindow.set(0);
+            }
+            return acceptedInWindow.incrementAndGet() <= maxPerSecond;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.microcommerce.orderservice.config;
+
+import com.mongodb.event.CommandEvent;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.mongodb.DefaultMongoCommandTagsProvider;
+import io.micrometer.core.instrument.binder.mongodb.MongoCommandTagsProvider;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.StreamSupport;
+
+/**
+ * Configuration des métriques (exposées en Prometheus sur /actuator/prometheus)
+ *
+ * - TimedAspect : active @Timed, utilisé sur OrderService (order.service)
+ * - timings des commandes Mongo (mongodb.driver.commands) : le command listener est branché par
+ *   Spring Boot, on retire juste le tag cluster.id, un identifiant aléatoire par démarrage
+ *   qui crée de nouvelles séries à chaque redéploiement
+ * - un second command listener ajoute le temps Mongo à la {@link RequestTrace} de la requête en cours
+ *   (driver synchrone : les callbacks tournent sur le thread de la requête)
+ *
+ * Les autres métriques sont enregistrées là où elles sont mesurées (clients HTTP, publisher,
+ * listeners). Tous les tags restent à cardinalité bornée : jamais d'ID de commande ou d'utilisateur.
+ */
+@Configuration
+public class MetricsConfig {
+
+    private static final String CLUSTER_ID_TAG = "cluster.id";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer requestTraceMongoListener() {
+        return settings -> settings.addCommandListener(new CommandListener() {
+            @Override
+            public void commandSucceeded(CommandSucceededEvent event) {
+                RequestTrace.mongoCommand(event.getElapsedTime(TimeUnit.NANOSECONDS));
+            }
+
+            @Override
+            public void commandFailed(CommandFailedEvent event) {
+                RequestTrace.mongoCommand(event.getElapsedTime(TimeUnit.NANOSECONDS));
+            }
+        });
+    }
+
+    @Bean
+    public MongoCommandTagsProvider mongoCommandTagsProvider() {
+        return new DefaultMongoCommandTagsProvider() {
+            @Override
+            public Iterable<Tag> commandTags(CommandEvent event) {
+                return StreamSupport.stream(super.commandTags(event).spliterator(), false)
+                    .filter(tag -> !CLUSTER_ID_TAG.equals(tag.getKey()))
+                    .toList();
+            }
+        };
+    }
+}
@@ -0,0 +1,68 @@
+package com.microcommerce.orderservice.config;
+
+import com.microcommerce.orderservice.entity.Money;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Conversions Mongo des montants ({@link Money})
+ *
+ * Les documents gardent le format des BigDecimal d'avant : une chaîne ("25.50"), écrite et relue
+ * telle quelle. Les montants numériques (double des données d'init-mongo.js, Decimal128) se
+ * relisent aussi, comme Spring Data le faisait pour un BigDecimal.
+ * Remplace le MongoCustomConversions vide de Spring Boot (servlet et reactive).
+ */
+@Configuration
+public class MongoConfig {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return customConversions();
+    }
+
+    /**
+     * Aussi utilisé hors contexte Spring (générateur de jeu de données de src/loadtest)
+     */
+    public static MongoCustomConversions customConversions() {
+        return new MongoCustomConversions(List.of(
+            MoneyToStringConverter.INSTANCE, StringToMoneyConverter.INSTANCE, NumberToMoneyConverter.INSTANCE));
+    }
+
+    @WritingConverter
+    enum MoneyToStringConverter implements Converter<Money, String> {
+        INSTANCE;
+
+        @Override
+        public String convert(Money source) {
+            return source.toString();
+        }
+    }
+
+    @ReadingConverter
+    enum StringToMoneyConverter implements Converter<String, Money> {
+        INSTANCE;
+
+        @Override
+        public Money convert(String source) {
+            return Money.of(source);
+        }
+    }
+
+    @ReadingConverter
+    enum NumberToMoneyConverter implements Converter<Number, Money> {
+        INSTANCE;
+
+        @Override
+        public Money convert(Number source) {
+            // toString : 1299.99 et pas l'approximation binaire du double (comme NumberUtils)
+            return Money.of(new BigDecimal(source.toString()));
+        }
+    }
+}
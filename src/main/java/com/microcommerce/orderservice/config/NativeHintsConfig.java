@@ -0,0 +1,103 @@
+package com.microcommerce.orderservice.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import com.microcommerce.orderservice.entity.IdempotencyRecord;
+import com.microcommerce.orderservice.entity.Money;
+import com.microcommerce.orderservice.entity.MoneyDecimalMinValidator;
+import com.microcommerce.orderservice.entity.Order;
+import com.microcommerce.orderservice.entity.OrderItem;
+import com.microcommerce.orderservice.entity.OrderReplayJob;
+import com.microcommerce.orderservice.entity.OrderStatus;
+import com.microcommerce.orderservice.entity.OrderVersion;
+import com.microcommerce.orderservice.event.OrderEvent;
+import com.microcommerce.orderservice.event.OrderStreamEvent;
+import com.microcommerce.orderservice.event.ProductEvent;
+import com.microcommerce.orderservice.event.UserEvent;
+import com.microcommerce.orderservice.event.UserEventListener;
+import com.microcommerce.orderservice.listener.OrderStreamListener;
+import com.microcommerce.orderservice.listener.ProductEventListener;
+import com.microcommerce.orderservice.service.OrderService;
+import com.microcommerce.orderservice.service.ProductServiceClient;
+import com.microcommerce.orderservice.service.UserServiceClient;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+/**
+ * Hints pour l'image native GraalVM (profil Maven native)
+ *
+ * Une image native ne connaît que les classes vues à la compilation : tout ce qui passe par la
+ * réflexion doit être déclaré. L'AOT de Spring couvre les beans, les repositories et les types
+ * déclarés des contrôleurs ; reste ce qu'il ne peut pas deviner :
+ * - les types (dé)sérialisés par Jackson derrière ResponseEntity<?>, les messages RabbitMQ et les
+ *   réponses de user-service / product-service
+ * - jjwt, qui instancie son implémentation par nom de classe et trouve son sérialiseur Jackson
+ *   par ServiceLoader
+ * - les méthodes @RabbitListener, appelées par réflexion par le conteneur
+ * - les mix-ins Jackson de fields= ({@link OrderFieldSet}), lus par réflexion
+ * - Money : fabrique @JsonCreator et @JsonValue, validateur @DecimalMin chargé par ServiceLoader
+ * - les classes que logback-spring.xml instancie par leur nom (turbo filter, appenders async)
+ *
+ * Sur la JVM ces hints ne servent à rien et ne coûtent rien.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.Hints.class)
+@RegisterReflectionForBinding({
+    Order.class, OrderItem.class, OrderStatus.class, OrderService.OrderStats.class,
+    OrderReplayJob.class, OrderVersion.class, IdempotencyRecord.class,
+    OrderEvent.class, OrderEvent.OrderItemEvent.class, OrderStreamEvent.class, ProductEvent.class, UserEvent.class,
+    ProductServiceClient.ProductInfo.class, UserServiceClient.UserInfo.class, SlowRequest.class
+})
+public class NativeHintsConfig {
+
+    // jjwt 0.11 : Jwts et Keys chargent l'implémentation par Classes.newInstance("io.jsonwebtoken.impl...")
+    private static final List<String> JJWT_CLASSES = List.of(
+        "io.jsonwebtoken.impl.DefaultJwtBuilder",
+        "io.jsonwebtoken.impl.DefaultJwtParser",
+        "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+        "io.jsonwebtoken.impl.DefaultClaims",
+        "io.jsonwebtoken.impl.DefaultHeader",
+        "io.jsonwebtoken.impl.DefaultJwsHeader",
+        "io.jsonwebtoken.impl.compression.DefaultCompressionCodecResolver",
+        "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+        "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+        "io.jsonwebtoken.jackson.io.JacksonSerializer",
+        "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (String className : JJWT_CLASSES) {
+                hints.reflection().registerType(TypeReference.of(className),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+            for (Class<?> listener : List.of(UserEventListener.class, ProductEventListener.class,
+                    OrderStreamListener.class)) {
+                hints.reflection().registerType(listener, MemberCategory.INVOKE_DECLARED_METHODS);
+            }
+
+            for (Class<?> mixin : List.of(OrderFieldSet.OrderMixin.class, OrderFieldSet.OrderItemMixin.class)) {
+                hints.reflection().registerType(mixin, MemberCategory.INTROSPECT_DECLARED_METHODS);
+            }
+
+            hints.reflection().registerType(Money.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+            hints.reflection().registerType(MoneyDecimalMinValidator.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.resources().registerPattern("META-INF/services/jakarta.validation.ConstraintValidator");
+
+            // Joran : constructeur par défaut puis setters (enabled, rules, appender-ref, queueSize...)
+            for (Class<?> logbackClass : List.of(LogSamplingFilter.class, AsyncAppender.class)) {
+                hints.reflection().registerType(logbackClass,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.microcommerce.orderservice.config;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.microcommerce.orderservice.entity.Order;
+import com.microcommerce.orderservice.entity.OrderItem;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Sparse fieldsets : paramètre fields= des lectures de commandes
+ *
+ * GET /api/orders/user/123?fields=status,totalAmount,items.productId,items.quantity
+ *
+ * - les noms de premier niveau sont les propriétés de {@link Order}, l'id est toujours renvoyé
+ * - items.xxx sélectionne les propriétés de {@link OrderItem} (items seul = items complets)
+ * - les noms inconnus sont ignorés
+ *
+ * Le filtre passe par des mixins : les entités ne portent pas d'annotation Jackson, et sans
+ * fields= tout est sérialisé (filtre par défaut).
+ */
+public final class OrderFieldSet {
+
+    public static final String PARAM = "fields";
+
+    private static final String ORDER_FILTER = "orderFields";
+    private static final String ITEM_FILTER = "orderItemFields";
+    private static final String ITEMS = "items";
+    private static final String ITEMS_PREFIX = ITEMS + ".";
+
+    // Sans fields= : tous les filtres laissent tout passer
+    public static final FilterProvider ALL_FIELDS = new SimpleFilterProvider()
+        .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll());
+
+    @JsonFilter(ORDER_FILTER)
+    interface OrderMixin {
+    }
+
+    @JsonFilter(ITEM_FILTER)
+    interface OrderItemMixin {
+    }
+
+    private OrderFieldSet() {
+    }
+
+    /**
+     * Branche les filtres sur l'ObjectMapper de l'application
+     */
+    public static void configure(Jackson2ObjectMapperBuilder builder) {
+        builder.mixIn(Order.class, OrderMixin.class)
+            .mixIn(OrderItem.class, OrderItemMixin.class)
+            .filters(ALL_FIELDS);
+    }
+
+    /**
+     * Même chose sur un ObjectMapper déjà construit (benchmarks)
+     */
+    public static ObjectMapper configure(ObjectMapper mapper) {
+        return mapper.addMixIn(Order.class, OrderMixin.class)
+            .addMixIn(OrderItem.class, OrderItemMixin.class)
+            .setFilterProvider(ALL_FIELDS);
+    }
+
+    /**
+     * Construit les filtres pour une valeur de fields=
+     *
+     * @return null si fields est absent ou vide (réponse complète)
+     */
+    public static FilterProvider parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+
+        Set<String> orderFields = new HashSet<>();
+        Set<String> itemFields = new HashSet<>();
+        orderFields.add("id");
+
+        for (String raw : fields.split(",")) {
+            String field = raw.trim();
+            if (field.startsWith(ITEMS_PREFIX)) {
+                orderFields.add(ITEMS);
+                itemFields.add(field.substring(ITEMS_PREFIX.length()));
+            } else if (!field.isEmpty()) {
+                orderFields.add(field);
+            }
+        }
+
+        SimpleFilterProvider filters = new SimpleFilterProvider()
+            .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll())
+            .addFilter(ORDER_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(orderFields));
+        if (!itemFields.isEmpty()) {
+            filters.addFilter(ITEM_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(itemFields));
+        }
+        return filters;
+    }
+}
@@ -1,13 +1,21 @@
 package com.microcommerce.orderservice.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Configuration RabbitMQ pour le Order Service
  * 
@@ -15,6 +23,12 @@ import org.springframework.context.annotation.Configuration;
  * - Valider la disponibilité des produits
  * - Mettre à jour les prix en temps réel
  * - Gérer les stocks lors des commandes
+ * 
+ * Chaque queue écoutée a sa topologie de retry :
+ * - des queues d'attente {queue}.retry.delay.{n} avec un TTL exponentiel,
+ *   qui dead-letterent vers {queue}.retry une fois le délai écoulé
+ * - {queue}.retry, consommée à part (concurrence 1) pour ne jamais affamer la queue principale
+ * - {queue}.dlq, la destination finale après le nombre max de tentatives
  */
 @Configuration
 public class RabbitMQConfig {
@@ -35,6 +49,13 @@ public class RabbitMQConfig {
     public static final String ORDER_CANCELLED_ROUTING_KEY = "order.cancelled";
     public static final String ORDER_DELETED_ROUTING_KEY = "order.deleted";
     
+    // Exchange dédié au rejeu des événements commandes (mêmes routing keys)
+    public static final String ORDER_REPLAY_EXCHANGE = "order.replay.exchange";
+    
+    // Fanout des transitions de statut vers toutes les instances (streams SSE)
+    public static final String ORDER_STREAM_EXCHANGE = "order.stream.exchange";
+    public static final String ORDER_STREAM_QUEUE_PREFIX = "order-service.stream.";
+    
     // Routing keys pour écouter tous les événements produits
     public static final String PRODUCT_ALL_ROUTING_KEY = "product.*";
 
@@ -71,6 +92,39 @@ public class RabbitMQConfig {
         return new TopicExchange(ORDER_EXCHANGE);
     }
     
+    /**
+     * Exchange de rejeu : les consommateurs qui ont perdu leur état s'y abonnent
+     * sans que les autres reçoivent les événements rejoués
+     */
+    @Bean
+    public TopicExchange orderReplayExchange() {
+        return new TopicExchange(ORDER_REPLAY_EXCHANGE);
+    }
+    
+    /**
+     * Exchange fanout des transitions de statut : chaque instance y lie sa propre queue
+     */
+    @Bean
+    public FanoutExchange orderStreamExchange() {
+        return new FanoutExchange(ORDER_STREAM_EXCHANGE);
+    }
+    
+    /**
+     * Queue propre à l'instance (exclusive, supprimée à l'arrêt)
+     * Bornée : une instance qui décroche perd les plus vieux événements, ses clients
+     * feront un resync à la reconnexion au lieu de faire grossir le broker
+     */
+    @Bean
+    public Queue orderStreamQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy(ORDER_STREAM_QUEUE_PREFIX),
+            Map.of("x-max-length", orderStreamQueueMaxLength));
+    }
+    
+    @Bean
+    public Binding orderStreamBinding() {
+        return BindingBuilder.bind(orderStreamQueue()).to(orderStreamExchange());
+    }
+    
     // Configuration pour écouter les événements utilisateurs
     public static final String USER_EXCHANGE = "user.exchange";
     public static final String USER_ALL_ROUTING_KEY = "user.*";
@@ -94,21 +148,107 @@ public class RabbitMQConfig {
             .with(USER_ALL_ROUTING_KEY);
     }
 
+    // Configuration des retries (suffixes ajoutés aux queues écoutées)
+    public static final String RETRY_QUEUE_SUFFIX = ".retry";
+    public static final String RETRY_DELAY_QUEUE_SUFFIX = ".retry.delay.";
+    public static final String DEAD_LETTER_QUEUE_SUFFIX = ".dlq";
+    public static final String ORDER_SERVICE_PRODUCT_RETRY_QUEUE = ORDER_SERVICE_PRODUCT_QUEUE + RETRY_QUEUE_SUFFIX;
+    public static final String ORDER_SERVICE_USER_RETRY_QUEUE = ORDER_SERVICE_USER_QUEUE + RETRY_QUEUE_SUFFIX;
+    
+    @Value("${events.retry.max-attempts:4}")
+    private int retryMaxAttempts;
+    
+    @Value("${events.retry.initial-delay-ms:1000}")
+    private long retryInitialDelayMs;
+    
+    @Value("${events.retry.multiplier:5.0}")
+    private double retryMultiplier;
+
+    @Value("${order-stream.queue-max-length:10000}")
+    private int orderStreamQueueMaxLength;
+    
+    /**
+     * Queues de retry et DLQ pour les queues produits et utilisateurs
+     * 
+     * Attention : le TTL fait partie des arguments de la queue, donc si on change
+     * le délai ou le multiplicateur il faut supprimer les queues .retry.delay.* existantes
+     */
+    @Bean
+    public Declarables eventRetryTopology() {
+        List<Declarable> declarables = new ArrayList<>();
+        for (String queue : List.of(ORDER_SERVICE_PRODUCT_QUEUE, ORDER_SERVICE_USER_QUEUE)) {
+            declarables.add(QueueBuilder.durable(retryQueue(queue)).build());
+            declarables.add(QueueBuilder.durable(deadLetterQueue(queue)).build());
+            
+            // Une queue d'attente par retry : 1s, 5s, 25s... avec la config par défaut
+            for (int level = 1; level < retryMaxAttempts; level++) {
+                declarables.add(QueueBuilder.durable(retryDelayQueue(queue, level))
+                    .ttl((int) retryDelayMs(level))
+                    .deadLetterExchange("")
+                    .deadLetterRoutingKey(retryQueue(queue))
+                    .build());
+            }
+        }
+        return new Declarables(declarables);
+    }
+    
+    /**
+     * Factory dédiée aux queues .retry : un seul consumer, un message à la fois
+     * Les retries passent après le trafic normal au lieu de le concurrencer
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory retryListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        // Même réglages que la factory par défaut (convertisseur, virtual threads si activés...)
+        configurer.configure(factory, connectionFactory);
+        factory.setConcurrentConsumers(1);
+        factory.setMaxConcurrentConsumers(1);
+        factory.setPrefetchCount(1);
+        return factory;
+    }
+    
+    /**
+     * Délai avant la tentative n°(level + 1)
+     */
+    public long retryDelayMs(int level) {
+        return (long) (retryInitialDelayMs * Math.pow(retryMultiplier, level - 1));
+    }
+    
+    public int getRetryMaxAttempts() {
+        return retryMaxAttempts;
+    }
+    
+    public static String retryQueue(String queue) {
+        return queue + RETRY_QUEUE_SUFFIX;
+    }
+    
+    public static String retryDelayQueue(String queue, int level) {
+        return queue + RETRY_DELAY_QUEUE_SUFFIX + level;
+    }
+    
+    public static String deadLetterQueue(String queue) {
+        return queue + DEAD_LETTER_QUEUE_SUFFIX;
+    }
+
     /**
      * Convertisseur JSON pour sérialiser/désérialiser les messages
+     * Sur l'ObjectMapper de Spring Boot : le mapper par défaut du convertisseur n'a pas le module
+     * java.time et échouait sur le timestamp (LocalDateTime) des événements, donc sur chaque
+     * republication vers les queues de retry / DLQ. Les dates partent en chaîne ISO-8601
      */
     @Bean
-    public MessageConverter messageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public MessageConverter messageConverter(ObjectMapper objectMapper) {
+        return new Jackson2JsonMessageConverter(objectMapper);
     }
 
     /**
      * Template RabbitMQ avec convertisseur JSON
      */
     @Bean
-    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, MessageConverter messageConverter) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
-        template.setMessageConverter(messageConverter());
+        template.setMessageConverter(messageConverter);
         return template;
     }
 }
\ No newline at end of file
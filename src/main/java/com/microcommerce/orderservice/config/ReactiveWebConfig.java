@@ -0,0 +1,63 @@
+package com.microcommerce.orderservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.reactive.config.BlockingExecutionConfigurer;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * Configuration WebFlux de la variante réactive (profil reactive)
+ *
+ * - serveur Netty : Tomcat est aussi sur le classpath (stack servlet) et serait choisi par défaut
+ * - les contrôleurs restés bloquants (admin DLQ, rejeu) tournent sur un pool dédié,
+ *   jamais sur l'event loop ; les contrôleurs qui renvoient Mono/Flux ne sont pas concernés
+ * - encodeur JSON qui gère le paramètre fields= ({@link SparseFieldsJsonEncoder})
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWebConfig implements WebFluxConfigurer {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${reactive.blocking-pool.size:16}")
+    private int blockingPoolSize;
+
+    @Value("${reactive.blocking-pool.queue-capacity:100}")
+    private int blockingQueueCapacity;
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * Pool des méthodes de contrôleur bloquantes (bean pour être arrêté proprement)
+     */
+    @Bean
+    public ThreadPoolTaskExecutor webFluxBlockingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(blockingPoolSize);
+        executor.setMaxPoolSize(blockingPoolSize);
+        executor.setQueueCapacity(blockingQueueCapacity);
+        executor.setThreadNamePrefix("webflux-blocking-");
+        return executor;
+    }
+
+    @Override
+    public void configureBlockingExecution(BlockingExecutionConfigurer configurer) {
+        configurer.setExecutor(webFluxBlockingExecutor());
+    }
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        configurer.defaultCodecs().jackson2JsonEncoder(new SparseFieldsJsonEncoder(objectMapper));
+    }
+}
@@ -0,0 +1,40 @@
+package com.microcommerce.orderservice.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Priorité d'un endpoint pour le load shedding
+ * 
+ * Sans annotation, un endpoint est en priorité NORMAL.
+ * Quand le service sature, les endpoints LOW sont refusés en premier (503).
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface RequestPriority {
+
+    Level value();
+
+    /**
+     * Niveaux de priorité, avec la part de la limite de concurrence accessible
+     */
+    enum Level {
+        HIGH(1.0),   // Checkout et transitions de statut
+        NORMAL(0.8), // Lectures unitaires
+        LOW(0.5);    // Rapports et recherches coûteuses
+
+        private final double share;
+
+        Level(double share) {
+            this.share = share;
+        }
+
+        public double getShare() {
+            return share;
+        }
+    }
+}
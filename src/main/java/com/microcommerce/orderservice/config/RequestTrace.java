@@ -0,0 +1,220 @@
+package com.microcommerce.orderservice.config;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Zone de travail par thread pour le traçage des requêtes lentes ({@link SlowRequestRecorder})
+ *
+ * Une instance par thread Tomcat, réutilisée d'une requête à l'autre : pendant la requête on ne fait
+ * qu'écrire des longs dans des tableaux préalloués, rien n'est alloué. Seules les requêtes retenues
+ * (lentes ou top-N) sont copiées dans un {@link SlowRequest}.
+ *
+ * Avec le profil virtual-threads, chaque requête a son propre virtual thread : une instance par
+ * thread serait allouée à chaque requête. Les virtual threads empruntent donc une instance à un
+ * pool borné et la rendent en fin de requête (reste seule l'entrée du ThreadLocal, par thread).
+ *
+ * Les méthodes statiques ne font rien hors d'une requête tracée (threads réactifs, listeners...).
+ */
+public final class RequestTrace {
+
+    /**
+     * Phases de la création d'une commande (mêmes découpages que l'événement JFR)
+     */
+    public enum Phase {
+        USER_CHECK,
+        PRODUCT_LOOKUP,
+        TOTAL_CALCULATION,
+        SAVE,
+        PUBLISH
+    }
+
+    // Au-delà, les appels sont comptés mais pas détaillés
+    static final int MAX_DOWNSTREAM_CALLS = 32;
+
+    // Instances gardées pour les virtual threads ; au-delà (pic de requêtes), on alloue
+    static final int POOL_SIZE = 1024;
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+    private static final ArrayBlockingQueue<RequestTrace> POOL = new ArrayBlockingQueue<>(POOL_SIZE);
+    // Thread.isVirtual() n'existe qu'à partir de Java 21 (le service compile aussi en 17)
+    private static final MethodHandle IS_VIRTUAL = isVirtualHandle();
+
+    private boolean active;
+    // Empruntée au pool par un virtual thread, à rendre en fin de requête
+    private boolean pooled;
+    // Lue depuis les threads Netty des appels sortants
+    private volatile long generation;
+    long startNanos;
+    String orderId;
+
+    final long[] phaseNanos = new long[Phase.values().length];
+
+    long mongoNanos;
+    int mongoCommands;
+    long publishNanos;
+    int publishes;
+
+    final String[] downstreamServices = new String[MAX_DOWNSTREAM_CALLS];
+    final String[] downstreamOperations = new String[MAX_DOWNSTREAM_CALLS];
+    final String[] downstreamOutcomes = new String[MAX_DOWNSTREAM_CALLS];
+    final long[] downstreamNanos = new long[MAX_DOWNSTREAM_CALLS];
+    int downstreamCount;
+    int downstreamDropped;
+
+    private RequestTrace() {
+    }
+
+    /**
+     * Démarre le traçage sur le thread courant (début de requête)
+     */
+    static RequestTrace begin() {
+        RequestTrace trace = CURRENT.get();
+        if (trace == null) {
+            trace = isVirtualThread() ? borrow() : new RequestTrace();
+            CURRENT.set(trace);
+        }
+        trace.generation++;
+        trace.active = true;
+        trace.startNanos = System.nanoTime();
+        trace.orderId = null;
+        Arrays.fill(trace.phaseNanos, 0L);
+        trace.mongoNanos = 0;
+        trace.mongoCommands = 0;
+        trace.publishNanos = 0;
+        trace.publishes = 0;
+        trace.downstreamCount = 0;
+        trace.downstreamDropped = 0;
+        return trace;
+    }
+
+    /**
+     * Fin de requête : les écritures suivantes sur ce thread sont ignorées
+     */
+    static void end() {
+        RequestTrace trace = CURRENT.get();
+        if (trace == null) {
+            return;
+        }
+        trace.active = false;
+        trace.generation++;
+        if (trace.pooled) {
+            // Le virtual thread se termine avec la requête : l'instance retourne au pool
+            CURRENT.remove();
+            POOL.offer(trace);
+        }
+    }
+
+    /**
+     * Trace de la requête en cours sur ce thread, null si aucune
+     */
+    static RequestTrace current() {
+        RequestTrace trace = CURRENT.get();
+        return trace != null && trace.active ? trace : null;
+    }
+
+    private static RequestTrace borrow() {
+        RequestTrace trace = POOL.poll();
+        if (trace == null) {
+            trace = new RequestTrace();
+            trace.pooled = true;
+        }
+        return trace;
+    }
+
+    private static boolean isVirtualThread() {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(Thread.currentThread());
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    private static MethodHandle isVirtualHandle() {
+        try {
+            return MethodHandles.publicLookup()
+                .findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    public static void phase(Phase phase, long nanos) {
+        RequestTrace trace = current();
+        if (trace != null) {
+            trace.phaseNanos[phase.ordinal()] += nanos;
+        }
+    }
+
+    public static void orderId(String orderId) {
+        RequestTrace trace = current();
+        if (trace != null && orderId != null) {
+            trace.orderId = orderId;
+        }
+    }
+
+    public static void mongoCommand(long nanos) {
+        RequestTrace trace = current();
+        if (trace != null) {
+            trace.mongoNanos += nanos;
+            trace.mongoCommands++;
+        }
+    }
+
+    public static void publish(long nanos) {
+        RequestTrace trace = current();
+        if (trace != null) {
+            trace.publishNanos += nanos;
+            trace.publishes++;
+        }
+    }
+
+    /**
+     * Marque à prendre au début d'un appel HTTP sortant, sur le thread de la requête
+     *
+     * L'appel se termine sur un thread Netty : on garde la trace et sa génération pour
+     * ignorer une réponse arrivée après la fin de la requête (thread déjà réutilisé).
+     */
+    public static Downstream downstream() {
+        RequestTrace trace = current();
+        return trace != null ? new Downstream(trace, trace.generation) : null;
+    }
+
+    /**
+     * Appel sortant en cours, rattaché à la trace de sa requête
+     */
+    public static final class Downstream {
+        private final RequestTrace trace;
+        private final long generation;
+
+        private Downstream(RequestTrace trace, long generation) {
+            this.trace = trace;
+            this.generation = generation;
+        }
+
+        /**
+         * Le thread de la requête est bloqué sur la réponse (block()) pendant cette écriture
+         */
+        public void complete(String service, String operation, String outcome, long nanos) {
+            if (trace.generation != generation) {
+                return;
+            }
+            int index = trace.downstreamCount;
+            if (index >= MAX_DOWNSTREAM_CALLS) {
+                trace.downstreamDropped++;
+                return;
+            }
+            trace.downstreamServices[index] = service;
+            trace.downstreamOperations[index] = operation;
+            trace.downstreamOutcomes[index] = outcome;
+            trace.downstreamNanos[index] = nanos;
+            trace.downstreamCount = index + 1;
+        }
+    }
+}
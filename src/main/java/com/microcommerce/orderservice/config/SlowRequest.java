@@ -0,0 +1,127 @@
+package com.microcommerce.orderservice.config;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copie figée d'une requête retenue par le {@link SlowRequestRecorder}
+ *
+ * Construite uniquement pour les requêtes lentes ou du top-N ; les maps exposées par
+ * l'endpoint ne sont construites qu'à la lecture.
+ */
+public final class SlowRequest {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final Instant timestamp;
+    private final String method;
+    private final String route;
+    private final int status;
+    private final String orderId;
+    private final long totalNanos;
+    private final long[] phaseNanos;
+    private final long mongoNanos;
+    private final int mongoCommands;
+    private final long publishNanos;
+    private final int publishes;
+    private final String[] downstreamServices;
+    private final String[] downstreamOperations;
+    private final String[] downstreamOutcomes;
+    private final long[] downstreamNanos;
+    private final int downstreamDropped;
+
+    SlowRequest(RequestTrace trace, String method, String route, int status, long totalNanos) {
+        this.timestamp = Instant.now();
+        this.method = method;
+        this.route = route;
+        this.status = status;
+        this.orderId = trace.orderId;
+        this.totalNanos = totalNanos;
+        this.phaseNanos = trace.phaseNanos.clone();
+        this.mongoNanos = trace.mongoNanos;
+        this.mongoCommands = trace.mongoCommands;
+        this.publishNanos = trace.publishNanos;
+        this.publishes = trace.publishes;
+
+        int count = trace.downstreamCount;
+        this.downstreamServices = new String[count];
+        this.downstreamOperations = new String[count];
+        this.downstreamOutcomes = new String[count];
+        this.downstreamNanos = new long[count];
+        System.arraycopy(trace.downstreamServices, 0, downstreamServices, 0, count);
+        System.arraycopy(trace.downstreamOperations, 0, downstreamOperations, 0, count);
+        System.arraycopy(trace.downstreamOutcomes, 0, downstreamOutcomes, 0, count);
+        System.arraycopy(trace.downstreamNanos, 0, downstreamNanos, 0, count);
+        this.downstreamDropped = trace.downstreamDropped;
+    }
+
+    long totalNanos() {
+        return totalNanos;
+    }
+
+    // Getters (sérialisés par l'endpoint actuator)
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public double getTotalMs() {
+        return totalNanos / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Phases renseignées seulement (création de commande)
+     */
+    public Map<String, Double> getPhasesMs() {
+        Map<String, Double> phases = new LinkedHashMap<>();
+        for (RequestTrace.Phase phase : RequestTrace.Phase.values()) {
+            long nanos = phaseNanos[phase.ordinal()];
+            if (nanos > 0) {
+                phases.put(phase.name().toLowerCase(), nanos / NANOS_PER_MILLI);
+            }
+        }
+        return phases;
+    }
+
+    public Map<String, Object> getMongo() {
+        return Map.of("commands", mongoCommands, "totalMs", mongoNanos / NANOS_PER_MILLI);
+    }
+
+    public Map<String, Object> getPublish() {
+        return Map.of("events", publishes, "totalMs", publishNanos / NANOS_PER_MILLI);
+    }
+
+    public List<Map<String, Object>> getDownstream() {
+        List<Map<String, Object>> calls = new ArrayList<>(downstreamNanos.length);
+        for (int i = 0; i < downstreamNanos.length; i++) {
+            calls.add(Map.of(
+                "service", downstreamServices[i],
+                "operation", downstreamOperations[i],
+                "outcome", downstreamOutcomes[i],
+                "durationMs", downstreamNanos[i] / NANOS_PER_MILLI));
+        }
+        return calls;
+    }
+
+    public int getDownstreamDropped() {
+        return downstreamDropped;
+    }
+}
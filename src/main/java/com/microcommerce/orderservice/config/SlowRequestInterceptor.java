@@ -0,0 +1,73 @@
+package com.microcommerce.orderservice.config;
+
+import com.microcommerce.orderservice.controller.OrderController;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Trace les requêtes de l'{@link OrderController} pour le {@link SlowRequestRecorder}
+ *
+ * Ouvre la {@link RequestTrace} du thread en entrée et la ferme en sortie ; entre les deux,
+ * le service, les clients HTTP, le listener Mongo et le publisher y ajoutent leurs timings.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class SlowRequestInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String ID_VARIABLE = "id";
+
+    @Autowired
+    private SlowRequestRecorder slowRequestRecorder;
+
+    @Value("${slow-requests.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (enabled && handler instanceof HandlerMethod handlerMethod
+                && handlerMethod.getBeanType() == OrderController.class) {
+            RequestTrace.begin();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        RequestTrace trace = RequestTrace.current();
+        if (trace == null) {
+            return;
+        }
+        try {
+            if (trace.orderId == null) {
+                trace.orderId = pathOrderId(request);
+            }
+            String route = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            slowRequestRecorder.complete(trace, request.getMethod(), route, response.getStatus());
+        } finally {
+            RequestTrace.end();
+        }
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // Requête asynchrone : la suite se passe sur un autre thread, on ne la trace pas
+        RequestTrace.end();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String pathOrderId(HttpServletRequest request) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        return variables instanceof Map ? ((Map<String, String>) variables).get(ID_VARIABLE) : null;
+    }
+}
@@ -0,0 +1,198 @@
+package com.microcommerce.orderservice.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Garde les pires requêtes de l'OrderController, sans verrou
+ *
+ * Deux structures de taille fixe :
+ * - recent : anneau des dernières requêtes au-dessus de slow-requests.threshold-ms
+ *   (un getAndIncrement pour réserver la case, les plus anciennes sont écrasées)
+ * - top : les top-n requêtes les plus lentes de la fenêtre courante (top-n-window),
+ *   même sous le seuil ; remplacement de la plus rapide par CAS
+ *
+ * Une requête ni lente ni dans le top ne coûte qu'une comparaison et un parcours du top.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class SlowRequestRecorder {
+
+    // CAS perdus d'affilée avant d'abandonner l'entrée dans le top (forte contention)
+    private static final int MAX_TOP_ATTEMPTS = 4;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${slow-requests.threshold-ms:500}")
+    private long thresholdMs;
+
+    @Value("${slow-requests.capacity:128}")
+    private int capacity;
+
+    @Value("${slow-requests.top-n:10}")
+    private int topN;
+
+    @Value("${slow-requests.top-n-window:PT5M}")
+    private Duration topWindow;
+
+    private long thresholdNanos;
+    private long topWindowNanos;
+
+    private AtomicReferenceArray<SlowRequest> recent;
+    private final AtomicLong recentSequence = new AtomicLong();
+
+    private AtomicReferenceArray<SlowRequest> top;
+    private final AtomicLong topWindowStart = new AtomicLong(System.nanoTime());
+
+    private Counter slowCounter;
+
+    @PostConstruct
+    public void init() {
+        thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        topWindowNanos = topWindow.toNanos();
+        recent = new AtomicReferenceArray<>(capacity);
+        top = new AtomicReferenceArray<>(topN);
+        slowCounter = Counter.builder("order.requests.slow")
+            .description("Requêtes au-dessus du seuil slow-requests.threshold-ms")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Fin d'une requête tracée : retenue si lente ou dans le top-N
+     */
+    void complete(RequestTrace trace, String method, String route, int status) {
+        long totalNanos = System.nanoTime() - trace.startNanos;
+        boolean slow = totalNanos >= thresholdNanos;
+        rollTopWindow();
+        boolean topCandidate = qualifiesForTop(totalNanos);
+        if (!slow && !topCandidate) {
+            return;
+        }
+
+        SlowRequest request = new SlowRequest(trace, method, route, status, totalNanos);
+        if (slow) {
+            slowCounter.increment();
+            int index = (int) (recentSequence.getAndIncrement() % capacity);
+            recent.set(index, request);
+        }
+        if (topCandidate) {
+            offerTop(request);
+        }
+    }
+
+    /**
+     * Requêtes lentes récentes, de la plus récente à la plus ancienne
+     */
+    public List<SlowRequest> recent() {
+        List<SlowRequest> requests = new ArrayList<>(capacity);
+        long end = recentSequence.get();
+        for (long sequence = end - 1; sequence >= 0 && sequence >= end - capacity; sequence--) {
+            SlowRequest request = recent.get((int) (sequence % capacity));
+            if (request != null) {
+                requests.add(request);
+            }
+        }
+        return requests;
+    }
+
+    /**
+     * Top-N de la fenêtre courante, du plus lent au plus rapide
+     */
+    public List<SlowRequest> top() {
+        rollTopWindow();
+        List<SlowRequest> requests = new ArrayList<>(topN);
+        for (int i = 0; i < topN; i++) {
+            SlowRequest request = top.get(i);
+            if (request != null) {
+                requests.add(request);
+            }
+        }
+        requests.sort(Comparator.comparingLong(SlowRequest::totalNanos).reversed());
+        return requests;
+    }
+
+    public void reset() {
+        for (int i = 0; i < capacity; i++) {
+            recent.set(i, null);
+        }
+        clearTop();
+        topWindowStart.set(System.nanoTime());
+    }
+
+    public long getThresholdMs() {
+        return thresholdMs;
+    }
+
+    public Duration getTopWindow() {
+        return topWindow;
+    }
+
+    private boolean qualifiesForTop(long totalNanos) {
+        for (int i = 0; i < topN; i++) {
+            SlowRequest current = top.get(i);
+            if (current == null || current.totalNanos() < totalNanos) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Remplace la case vide ou la requête la plus rapide du top ; si un autre thread l'a prise entre-temps, on recommence
+     */
+    private void offerTop(SlowRequest request) {
+        for (int attempt = 0; attempt < MAX_TOP_ATTEMPTS; attempt++) {
+            int replaceIndex = -1;
+            SlowRequest replaced = null;
+            for (int i = 0; i < topN; i++) {
+                SlowRequest current = top.get(i);
+                if (current == null) {
+                    replaceIndex = i;
+                    replaced = null;
+                    break;
+                }
+                if (replaced == null || current.totalNanos() < replaced.totalNanos()) {
+                    replaceIndex = i;
+                    replaced = current;
+                }
+            }
+            if (replaceIndex < 0 || (replaced != null && replaced.totalNanos() >= request.totalNanos())) {
+                return;
+            }
+            if (top.compareAndSet(replaceIndex, replaced, request)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Nouvelle fenêtre : un seul thread gagne le CAS et vide le top
+     */
+    private void rollTopWindow() {
+        long windowStart = topWindowStart.get();
+        long now = System.nanoTime();
+        if (now - windowStart >= topWindowNanos && topWindowStart.compareAndSet(windowStart, now)) {
+            clearTop();
+        }
+    }
+
+    private void clearTop() {
+        for (int i = 0; i < topN; i++) {
+            top.set(i, null);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.microcommerce.orderservice.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Requêtes lentes de l'API commandes (/actuator/slowrequests, admin seulement)
+ *
+ * GET : seuil, requêtes lentes récentes et top-N de la fenêtre courante, avec pour chacune
+ * les phases de création, le temps Mongo, les publications RabbitMQ, les appels sortants
+ * et l'ID de commande. DELETE : remet les deux listes à zéro.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Endpoint(id = "slowrequests")
+public class SlowRequestsEndpoint {
+
+    // Chemin protégé par la config de sécurité (contient des IDs de commandes)
+    public static final String PATH = "/actuator/slowrequests";
+
+    @Autowired
+    private SlowRequestRecorder slowRequestRecorder;
+
+    @ReadOperation
+    public Map<String, Object> slowRequests() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("thresholdMs", slowRequestRecorder.getThresholdMs());
+        body.put("topWindow", slowRequestRecorder.getTopWindow());
+        body.put("recent", slowRequestRecorder.recent());
+        body.put("top", slowRequestRecorder.top());
+        return body;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        slowRequestRecorder.reset();
+    }
+}
@@ -0,0 +1,51 @@
+package com.microcommerce.orderservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.util.MimeType;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Encodeur JSON WebFlux qui applique le paramètre fields= ({@link OrderFieldSet})
+ *
+ * La valeur de fields= passe de la requête à l'écriture par les hints de l'encodeur :
+ * ça marche pour un Mono comme pour un Flux streamé en NDJSON, élément par élément.
+ */
+public class SparseFieldsJsonEncoder extends Jackson2JsonEncoder {
+
+    private static final String FIELDS_HINT = SparseFieldsJsonEncoder.class.getName() + ".fields";
+
+    public SparseFieldsJsonEncoder(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    public Map<String, Object> getEncodeHints(ResolvableType actualType, ResolvableType elementType,
+                                              MediaType mediaType, ServerHttpRequest request,
+                                              ServerHttpResponse response) {
+        Map<String, Object> hints = super.getEncodeHints(actualType, elementType, mediaType, request, response);
+        String fields = request.getQueryParams().getFirst(OrderFieldSet.PARAM);
+        if (fields == null || fields.isBlank()) {
+            return hints;
+        }
+        Map<String, Object> withFields = new HashMap<>(hints);
+        withFields.put(FIELDS_HINT, fields);
+        return withFields;
+    }
+
+    @Override
+    protected ObjectWriter customizeWriter(ObjectWriter writer, MimeType mimeType,
+                                           ResolvableType elementType, Map<String, Object> hints) {
+        ObjectWriter customized = super.customizeWriter(writer, mimeType, elementType, hints);
+        FilterProvider filters = hints != null ? OrderFieldSet.parse((String) hints.get(FIELDS_HINT)) : null;
+        return filters != null ? customized.with(filters) : customized;
+    }
+}
@@ -0,0 +1,37 @@
+package com.microcommerce.orderservice.config;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.microcommerce.orderservice.controller.OrderController;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Applique le paramètre fields= aux réponses de l'{@link OrderController} (stack servlet)
+ *
+ * Les contrôleurs renvoient toujours des Order complets, le filtre n'agit qu'à l'écriture JSON.
+ * Côté WebFlux, c'est {@link SparseFieldsJsonEncoder} qui s'en charge.
+ */
+@RestControllerAdvice(assignableTypes = OrderController.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class SparseFieldsResponseAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest) {
+            FilterProvider filters = OrderFieldSet.parse(
+                servletRequest.getServletRequest().getParameter(OrderFieldSet.PARAM));
+            if (filters != null) {
+                bodyContainer.setFilters(filters);
+            }
+        }
+    }
+}
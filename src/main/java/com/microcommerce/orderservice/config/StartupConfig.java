@@ -0,0 +1,83 @@
+package com.microcommerce.orderservice.config;
+
+import com.microcommerce.orderservice.jfr.FlightRecordingEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.repository.Repository;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.Arrays;
+
+/**
+ * Démarrage rapide (profil fast-startup, spring.main.lazy-initialization=true)
+ *
+ * En lazy-initialization les beans ne sont créés qu'à leur première utilisation : le pod est
+ * prêt plus tôt, c'est la première requête qui paie. Deux exceptions :
+ * - les beans qui doivent tourner sans qu'on les appelle restent créés au démarrage :
+ *   consommateurs @RabbitListener (sinon aucun message n'est lu) et enregistrement JFR continu
+ *   (lui-même démarré après coup si jfr.continuous.start-after-ready)
+ * - les repositories Mongo (dérivation des requêtes, mapping) sont initialisés en tâche de
+ *   fond juste après le démarrage, hors du chemin critique de la readiness
+ *
+ * Sans lazy-initialization cette classe ne change rien.
+ */
+@Configuration
+public class StartupConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupConfig.class);
+
+    @Autowired
+    private ListableBeanFactory beanFactory;
+
+    @Value("${spring.main.lazy-initialization:false}")
+    private boolean lazyInitialization;
+
+    @Value("${startup.deferred-repositories:true}")
+    private boolean deferredRepositories;
+
+    /**
+     * Static : lu par le post-processor qui marque les beans lazy, avant la création des configurations
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+            && (FlightRecordingEndpoint.class.isAssignableFrom(beanType) || hasRabbitListener(beanType));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeRepositoriesInBackground() {
+        if (!lazyInitialization || !deferredRepositories) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            long start = System.nanoTime();
+            try {
+                // Crée les repositories encore lazy ; une requête qui en a besoin entre-temps attend le même bean
+                int count = beanFactory.getBeansOfType(Repository.class).size();
+                logger.info("{} repositories Mongo initialisés en tâche de fond en {} ms",
+                    count, (System.nanoTime() - start) / 1_000_000);
+            } catch (RuntimeException e) {
+                // Pas bloquant : ils seront créés à leur première utilisation
+                logger.warn("Initialisation différée des repositories impossible: {}", e.getMessage());
+            }
+        }, "repository-bootstrap");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static boolean hasRabbitListener(Class<?> beanType) {
+        return AnnotatedElementUtils.hasAnnotation(beanType, RabbitListener.class)
+            || Arrays.stream(ReflectionUtils.getUniqueDeclaredMethods(beanType))
+                .anyMatch(method -> AnnotatedElementUtils.hasAnnotation(method, RabbitListener.class));
+    }
+}
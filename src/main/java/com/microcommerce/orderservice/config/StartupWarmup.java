@@ -0,0 +1,345 @@
+package com.microcommerce.orderservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microcommerce.orderservice.entity.Money;
+import com.microcommerce.orderservice.entity.Order;
+import com.microcommerce.orderservice.entity.OrderItem;
+import com.microcommerce.orderservice.event.OrderEvent;
+import com.microcommerce.orderservice.service.OrderEventPublisher;
+import com.microcommerce.orderservice.service.OrderService;
+import com.microcommerce.orderservice.service.ProductServiceClient;
+import com.microcommerce.orderservice.service.UserServiceClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.Validator;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.NativeDetector;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Chauffe du service avant que la readiness passe au vert
+ *
+ * Spring Boot ne publie ACCEPTING_TRAFFIC (/actuator/health/readiness) qu'après les
+ * ApplicationRunner : tant que la chauffe tourne, le pod est vivant mais ne reçoit pas de trafic.
+ * Étapes, en parallèle :
+ * - mongo : mongo-connections pings simultanés (autant de connexions ouvertes dans le pool), puis
+ *   lecture des recent-orders dernières commandes (mapping en lecture)
+ * - rabbitmq : connexion et premier channel
+ * - downstream : une fois les commandes récentes lues, les hot-products produits et hot-users
+ *   clients les plus fréquents sont demandés à product-service et user-service (pools HTTP ouverts,
+ *   désérialisation des DTO). Le service n'a pas de cache produit local : rien à précharger de plus
+ * - jit : jit-rounds tours synthétiques du chemin de createOrder sans effet de bord (JSON -> Order,
+ *   Bean Validation, validation des items, total, mapping Mongo en écriture, message RabbitMQ,
+ *   réponse JSON) pour que le JIT compile ces méthodes avant la première vraie commande.
+ *   OrderService est appelé sans son proxy @Timed : les tours synthétiques ne comptent pas dans
+ *   order.service
+ *
+ * Le tout est borné par warmup.budget : au-delà, les étapes en cours sont abandonnées (elles finissent
+ * en tâche de fond sur leurs timeouts, la boucle jit s'arrête au budget) et le service devient prêt
+ * quand même (une dépendance absente ne bloque pas le démarrage). Durées par étape
+ * dans les logs et en métrique (order.startup.warmup, tags step et outcome).
+ */
+@Component
+public class StartupWarmup implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupWarmup.class);
+
+    // Taille du catalogue des commandes synthétiques
+    private static final int SYNTHETIC_PRODUCTS = 64;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private MessageConverter messageConverter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductServiceClient productServiceClient;
+
+    @Autowired
+    private UserServiceClient userServiceClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${warmup.budget:PT20S}")
+    private Duration budget;
+
+    @Value("${warmup.mongo-connections:10}")
+    private int mongoConnections;
+
+    @Value("${warmup.recent-orders:2000}")
+    private int recentOrders;
+
+    @Value("${warmup.hot-products:50}")
+    private int hotProducts;
+
+    @Value("${warmup.hot-users:20}")
+    private int hotUsers;
+
+    @Value("${warmup.jit-rounds:10000}")
+    private int jitRounds;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + budget.toNanos();
+        // Un thread par ping simultané, plus un par étape
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(mongoConnections + 4, runnable -> {
+            Thread thread = new Thread(runnable, "startup-warmup-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Step mongo = new Step("mongo");
+        Step rabbit = new Step("rabbitmq");
+        Step downstream = new Step("downstream");
+        Step jit = new Step("jit");
+        List<Step> steps = List.of(mongo, rabbit, downstream, jit);
+        try {
+            CompletableFuture<List<Order>> recent = mongo.run(executor, () -> warmMongo(executor),
+                orders -> mongoConnections + " connexions, " + orders.size() + " commandes récentes");
+            rabbit.run(executor, this::warmRabbit, Function.identity());
+            // Après mongo : il faut les commandes récentes pour savoir quoi demander
+            downstream.future = recent.thenApplyAsync(orders -> downstream.measure(
+                () -> warmDownstream(orders != null ? orders : List.of()), Function.identity()), executor);
+            jit.run(executor, () -> warmJit(deadline), Function.identity());
+
+            CompletableFuture.allOf(steps.stream().map(step -> step.future).toArray(CompletableFuture[]::new))
+                .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Budget de chauffe ({}) dépassé, le service devient prêt sans attendre la fin", budget);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // Erreurs des étapes déjà relevées dans leur Step
+        } finally {
+            // Pas d'interruption : un thread interrompu pendant un chargement de classe depuis le jar
+            // peut le rendre illisible. Les étapes abandonnées finissent sur leurs propres timeouts
+            executor.shutdown();
+        }
+
+        long totalNanos = System.nanoTime() - start;
+        StringJoiner report = new StringJoiner(", ");
+        for (Step step : steps) {
+            step.record(meterRegistry, totalNanos);
+            report.add(step.toString());
+        }
+        Timer.builder("order.startup.warmup")
+            .description("Durée de la chauffe avant readiness")
+            .tag("step", "total")
+            .tag("outcome", steps.stream().allMatch(step -> "ok".equals(step.outcome)) ? "ok" : "partial")
+            .register(meterRegistry)
+            .record(totalNanos, TimeUnit.NANOSECONDS);
+        logger.info("Chauffe terminée en {} ms : {}", totalNanos / 1_000_000, report);
+    }
+
+    /**
+     * Pings simultanés (chacun réserve sa propre connexion, le pool en ouvre autant), puis les
+     * commandes les plus récentes
+     */
+    private List<Order> warmMongo(ExecutorService executor) {
+        List<CompletableFuture<Void>> pings = new ArrayList<>();
+        for (int i = 0; i < mongoConnections; i++) {
+            pings.add(CompletableFuture.runAsync(() -> mongoTemplate.executeCommand(new Document("ping", 1)), executor));
+        }
+        CompletableFuture.allOf(pings.toArray(CompletableFuture[]::new)).join();
+        return mongoTemplate.find(new Query().with(Sort.by(Sort.Direction.DESC, "createdAt")).limit(recentOrders),
+            Order.class);
+    }
+
+    private String warmRabbit() {
+        Boolean open = rabbitTemplate.execute(channel -> channel.isOpen());
+        return Boolean.TRUE.equals(open) ? "channel ouvert" : "channel fermé";
+    }
+
+    /**
+     * Les produits et clients qui reviennent le plus dans les commandes récentes
+     */
+    private String warmDownstream(List<Order> orders) {
+        List<String> products = mostFrequent(orders.stream()
+            .filter(order -> order.getItems() != null)
+            .flatMap(order -> order.getItems().stream())
+            .map(OrderItem::getProductId)
+            .toList(), hotProducts);
+        List<String> users = mostFrequent(orders.stream().map(Order::getUserId).toList(), hotUsers);
+
+        Long productsFound = productServiceClient.getProductsInfoReactive(products).count().block();
+        Long usersFound = Flux.fromIterable(users)
+            .flatMap(userServiceClient::userExistsReactive, 8)
+            .filter(Boolean::booleanValue)
+            .count()
+            .block();
+        return productsFound + "/" + products.size() + " produits, " + usersFound + "/" + users.size() + " clients";
+    }
+
+    private static List<String> mostFrequent(Collection<String> values, int limit) {
+        return values.stream()
+            .filter(value -> value != null)
+            .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
+            .entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+            .limit(limit)
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+
+    /**
+     * Chemin de createOrder sans appels externes ni écriture : ce que le JIT doit avoir compilé
+     */
+    private String warmJit(long deadline) throws Exception {
+        if (NativeDetector.inNativeImage()) {
+            return "image native, déjà compilée";
+        }
+        // Cible du proxy : pas d'échantillons synthétiques dans order.service{method=validateOrderItems}
+        Object target = AopProxyUtils.getSingletonTarget(orderService);
+        OrderService service = target instanceof OrderService unproxied ? unproxied : orderService;
+        SplittableRandom random = new SplittableRandom(42);
+        MessageProperties messageProperties = new MessageProperties();
+        int round = 0;
+        while (round < jitRounds && System.nanoTime() < deadline) {
+            byte[] request = objectMapper.writeValueAsBytes(syntheticOrder(random));
+            Order order = objectMapper.readValue(request, Order.class);
+            if (!validator.validate(order).isEmpty()) {
+                throw new IllegalStateException("Commande synthétique invalide");
+            }
+            service.validateOrderItems(order.getItems());
+            order.calculateTotal();
+            order.setId(String.format("%024x", round));
+            mongoTemplate.getConverter().write(order, new Document());
+            messageConverter.toMessage(OrderEventPublisher.createOrderEvent(order, OrderEvent.EventType.CREATED),
+                messageProperties);
+            objectMapper.writeValueAsBytes(order);
+            round++;
+        }
+        return round + " tours";
+    }
+
+    private static Order syntheticOrder(SplittableRandom random) {
+        int itemCount = 1 + random.nextInt(5);
+        List<OrderItem> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            int product = random.nextInt(SYNTHETIC_PRODUCTS);
+            items.add(new OrderItem(String.format("%024x", 0x7000_0000L + product), "Produit " + product,
+                1 + random.nextInt(3), Money.ofMinor(100 + random.nextInt(20_000), 2)));
+        }
+        Order order = new Order(String.format("%024x", 1 + random.nextInt(1000)), items);
+        order.setShippingAddress("1 rue du Test");
+        order.setShippingCity("Paris");
+        order.setShippingZipCode("75001");
+        order.setShippingCountry("France");
+        return order;
+    }
+
+    /**
+     * Une étape de la chauffe : durée, issue (ok, error, timeout) et résumé
+     */
+    private static final class Step {
+        private final String name;
+        private volatile CompletableFuture<?> future;
+        private volatile long nanos = -1;
+        private volatile String outcome = "timeout";
+        private volatile String detail = "";
+
+        private Step(String name) {
+            this.name = name;
+        }
+
+        <T> CompletableFuture<T> run(ExecutorService executor, Work<T> work, Function<T, String> describe) {
+            CompletableFuture<T> result = CompletableFuture.supplyAsync(() -> measure(work, describe), executor);
+            future = result;
+            return result;
+        }
+
+        /**
+         * Jamais d'exception : une étape en erreur rend null
+         */
+        <T> T measure(Work<T> work, Function<T, String> describe) {
+            long start = System.nanoTime();
+            try {
+                T value = work.call();
+                outcome = "ok";
+                detail = describe.apply(value);
+                return value;
+            } catch (Exception e) {
+                outcome = "error";
+                detail = e.getClass().getSimpleName() + ": " + e.getMessage();
+                return null;
+            } finally {
+                nanos = System.nanoTime() - start;
+            }
+        }
+
+        /**
+         * Une étape interrompue par le budget compte pour toute la chauffe
+         */
+        void record(MeterRegistry meterRegistry, long totalNanos) {
+            Timer.builder("order.startup.warmup")
+                .description("Durée de la chauffe avant readiness")
+                .tag("step", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(nanos >= 0 ? nanos : totalNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public String toString() {
+            return name + " " + (nanos >= 0 ? nanos / 1_000_000 + " ms" : "interrompue") + " (" + outcome
+                + (detail.isEmpty() ? "" : ", " + detail) + ")";
+        }
+    }
+
+    @FunctionalInterface
+    private interface Work<T> {
+        T call() throws Exception;
+    }
+}
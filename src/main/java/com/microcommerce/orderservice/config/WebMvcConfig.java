@@ -0,0 +1,32 @@
+package com.microcommerce.orderservice.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuration Spring MVC
+ * 
+ * Enregistre les intercepteurs appliqués aux APIs commandes
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class WebMvcConfig implements WebMvcConfigurer {
+    
+    @Autowired
+    private LoadSheddingInterceptor loadSheddingInterceptor;
+    
+    @Autowired
+    private SlowRequestInterceptor slowRequestInterceptor;
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(loadSheddingInterceptor)
+            .addPathPatterns("/api/orders/**");
+        // Après le load shedding : seules les requêtes admises sont tracées
+        registry.addInterceptor(slowRequestInterceptor)
+            .addPathPatterns("/api/orders/**");
+    }
+}
@@ -0,0 +1,76 @@
+package com.microcommerce.orderservice.controller;
+
+import com.microcommerce.orderservice.service.DeadLetterQueueService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contrôleur d'administration des événements consommés (admin seulement)
+ *
+ * Permet d'inspecter et de rejouer par lots les messages partis en DLQ
+ * après épuisement des retries. Sources possibles : product, user
+ */
+@RestController
+@RequestMapping("/api/orders/admin/events")
+public class EventAdminController {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventAdminController.class);
+
+    @Autowired
+    private DeadLetterQueueService deadLetterQueueService;
+
+    /**
+     * Consulte les messages en DLQ sans les retirer
+     * GET /api/orders/admin/events/dlq/{source}?limit=20
+     */
+    @GetMapping("/dlq/{source}")
+    public ResponseEntity<?> inspectDeadLetters(@PathVariable String source,
+                                                @RequestParam(defaultValue = "20") int limit) {
+        logger.info("Consultation de la DLQ {}", source);
+
+        try {
+            long total = deadLetterQueueService.countMessages(source);
+            List<Map<String, Object>> messages = deadLetterQueueService.peekMessages(source, limit);
+            return ResponseEntity.ok(Map.of("source", source, "total", total, "messages", messages));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Source invalide", "message", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Erreur lors de la consultation de la DLQ {}: {}", source, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "Erreur serveur", "message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Rejoue un lot de messages de la DLQ
+     * POST /api/orders/admin/events/dlq/{source}/replay?batchSize=100
+     */
+    @PostMapping("/dlq/{source}/replay")
+    public ResponseEntity<?> replayDeadLetters(@PathVariable String source,
+                                               @RequestParam(defaultValue = "100") int batchSize) {
+        logger.info("Rejeu de la DLQ {} (lot de {})", source, batchSize);
+
+        try {
+            int replayed = deadLetterQueueService.replayMessages(source, batchSize);
+            long remaining = deadLetterQueueService.countMessages(source);
+            return ResponseEntity.ok(Map.of("source", source, "replayed", replayed, "remaining", remaining));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Source invalide", "message", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Erreur lors du rejeu de la DLQ {}: {}", source, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "Erreur serveur", "message", e.getMessage()));
+        }
+    }
+}
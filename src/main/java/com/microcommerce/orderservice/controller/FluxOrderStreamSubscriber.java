@@ -0,0 +1,71 @@
+package com.microcommerce.orderservice.controller;
+
+import com.microcommerce.orderservice.event.OrderStreamEvent;
+import com.microcommerce.orderservice.service.OrderStreamSubscriber;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Abonné SSE côté WebFlux (profil reactive)
+ *
+ * Un sink unicast sur une file bornée : Netty consomme au rythme du client, et quand
+ * la file est pleine l'émission échoue et le hub coupe la connexion.
+ * Le sink n'accepte qu'un émetteur à la fois (listener RabbitMQ, heartbeat) : d'où le verrou.
+ */
+class FluxOrderStreamSubscriber implements OrderStreamSubscriber {
+
+    private final Sinks.Many<ServerSentEvent<Object>> sink;
+    // Coupe le flux tout de suite, sans attendre que le client vide la file
+    private final Sinks.Empty<Void> closeSignal = Sinks.empty();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    FluxOrderStreamSubscriber(int bufferSize) {
+        this.sink = Sinks.many().unicast()
+            .onBackpressureBuffer(Queues.<ServerSentEvent<Object>>get(bufferSize).get());
+    }
+
+    Flux<ServerSentEvent<Object>> flux() {
+        return sink.asFlux().takeUntilOther(closeSignal.asMono());
+    }
+
+    @Override
+    public boolean offer(OrderStreamEvent event) {
+        return emit(ServerSentEvent.<Object>builder(event)
+            .id(event.getId())
+            .event("status")
+            .build());
+    }
+
+    @Override
+    public boolean offerResync() {
+        return emit(ServerSentEvent.<Object>builder("resync")
+            .event("resync")
+            .build());
+    }
+
+    @Override
+    public void heartbeat() {
+        // File pleine : c'est le prochain offer() qui fera couper la connexion
+        emit(ServerSentEvent.<Object>builder()
+            .comment("heartbeat")
+            .build());
+    }
+
+    @Override
+    public void close() {
+        closeSignal.tryEmitEmpty();
+    }
+
+    private boolean emit(ServerSentEvent<Object> event) {
+        lock.lock();
+        try {
+            return sink.tryEmitNext(event) != Sinks.EmitResult.FAIL_OVERFLOW;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -1,16 +1,24 @@
 package com.microcommerce.orderservice.controller;
 
+import com.microcommerce.orderservice.config.RequestPriority;
 import com.microcommerce.orderservice.entity.Order;
 import com.microcommerce.orderservice.entity.OrderStatus;
+import com.microcommerce.orderservice.entity.OrderVersion;
+import com.microcommerce.orderservice.service.IdempotencyException;
+import com.microcommerce.orderservice.service.IdempotencyService;
 import com.microcommerce.orderservice.service.OrderService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -25,29 +33,68 @@ import java.util.Optional;
  * - Gestion des statuts
  * - Recherches et filtres
  * - Statistiques
+ * 
+ * Les endpoints sont classés par priorité ({@link RequestPriority}) pour le load shedding :
+ * le checkout et les transitions de statut passent avant les rapports.
+ * 
+ * Les lectures renvoient un ETag (version = updatedAt, voir {@link OrderVersion}) : un client
+ * qui poll avec If-None-Match reçoit un 304 sans corps. Pour une commande ou les commandes d'un
+ * utilisateur, le 304 est décidé sur une projection (id + updatedAt), sans charger les documents.
+ * 
+ * La création accepte un header Idempotency-Key : un retry renvoie la commande déjà créée
+ * ({@link IdempotencyService}).
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/orders")
 @CrossOrigin(origins = "*") // En prod, on spécifiera les domaines autorisés
 public class OrderController {
     
     private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
     
+    // Le client garde la réponse mais revalide à chaque fois (If-None-Match)
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    
     @Autowired
     private OrderService orderService;
     
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
     /**
      * Crée une nouvelle commande
      * POST /api/orders
+     * 
+     * Avec Idempotency-Key, un retry (même clé, même contenu) renvoie la commande déjà créée
+     * avec Idempotent-Replayed: true, sans rien refaire
      */
+    @RequestPriority(RequestPriority.Level.HIGH)
     @PostMapping
-    public ResponseEntity<?> createOrder(@Valid @RequestBody Order order) {
+    public ResponseEntity<?> createOrder(
+            @Valid @RequestBody Order order,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestAttribute(value = "userId", required = false) String authenticatedUserId) {
         logger.info("Demande de création de commande pour l'utilisateur: {}", order.getUserId());
         
         try {
-            Order createdOrder = orderService.createOrder(order);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdOrder);
+            if (idempotencyKey == null) {
+                Order createdOrder = orderService.createOrder(order);
+                return ResponseEntity.status(HttpStatus.CREATED).body(createdOrder);
+            }
+            if (!IdempotencyService.isValidKey(idempotencyKey)) {
+                return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Clé d'idempotence invalide", "message", "Le header Idempotency-Key doit faire entre 1 et 255 caractères"));
+            }
             
+            String scope = authenticatedUserId != null ? authenticatedUserId : order.getUserId();
+            IdempotencyService.Outcome outcome = idempotencyService.createOnce(
+                scope, idempotencyKey, order, () -> orderService.createOrder(order));
+            return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IdempotencyService.REPLAYED_HEADER, String.valueOf(outcome.isReplayed()))
+                .body(outcome.getOrder());
+            
+        } catch (IdempotencyException e) {
+            return idempotencyError(e);
         } catch (Exception e) {
             logger.error("Erreur lors de la création de la commande: {}", e.getMessage());
             return ResponseEntity.badRequest()
@@ -59,13 +106,17 @@ public class OrderController {
      * Récupère toutes les commandes
      * GET /api/orders
      */
+    @RequestPriority(RequestPriority.Level.LOW)
     @GetMapping
-    public ResponseEntity<List<Order>> getAllOrders() {
+    public ResponseEntity<List<Order>> getAllOrders(WebRequest webRequest) {
         logger.info("Récupération de toutes les commandes");
         
         try {
             List<Order> orders = orderService.getAllOrders();
-            return ResponseEntity.ok(orders);
+            if (checkNotModified(webRequest, orders)) {
+                return null; // 304 déjà positionné, pas de sérialisation
+            }
+            return listResponse(orders);
             
         } catch (Exception e) {
             logger.error("Erreur lors de la récupération des commandes: {}", e.getMessage());
@@ -78,14 +129,33 @@ public class OrderController {
      * GET /api/orders/{id}
      */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getOrderById(@PathVariable String id) {
+    public ResponseEntity<?> getOrderById(@PathVariable String id, WebRequest webRequest) {
         logger.info("Récupération de la commande: {}", id);
         
         try {
+            if (isConditional(webRequest)) {
+                // Poll : on compare d'abord la version, le document n'est chargé que s'il a changé
+                Optional<OrderVersion> version = orderService.getOrderVersion(id);
+                if (version.isEmpty()) {
+                    return ResponseEntity.notFound().build();
+                }
+                if (webRequest.checkNotModified(version.get().etag(), version.get().lastModifiedMillis())) {
+                    return null; // 304 déjà positionné (ETag et Last-Modified compris)
+                }
+            }
+            
             Optional<Order> order = orderService.getOrderById(id);
             
             if (order.isPresent()) {
-                return ResponseEntity.ok(order.get());
+                OrderVersion version = OrderVersion.of(order.get());
+                // Positionne ETag / Last-Modified ; si la commande a bougé entre la projection et la lecture
+                // et que le client a déjà cette nouvelle version, on répond quand même 304
+                if (webRequest.checkNotModified(version.etag(), version.lastModifiedMillis())) {
+                    return null; // 304 déjà positionné
+                }
+                return ResponseEntity.ok()
+                    .cacheControl(REVALIDATE)
+                    .body(order.get());
             } else {
                 return ResponseEntity.notFound().build();
             }
@@ -102,12 +172,23 @@ public class OrderController {
      * GET /api/orders/user/{userId}
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Order>> getOrdersByUserId(@PathVariable String userId) {
+    public ResponseEntity<List<Order>> getOrdersByUserId(@PathVariable String userId, WebRequest webRequest) {
         logger.info("Récupération des commandes pour l'utilisateur: {}", userId);
         
         try {
+            if (isConditional(webRequest)) {
+                // ETag de la liste calculé sur la projection (id + updatedAt) des commandes
+                String etag = OrderVersion.collectionEtag(orderService.getOrderVersionsByUserId(userId));
+                if (webRequest.checkNotModified(etag)) {
+                    return null; // 304 déjà positionné
+                }
+            }
+            
             List<Order> orders = orderService.getOrdersByUserId(userId);
-            return ResponseEntity.ok(orders);
+            if (checkNotModified(webRequest, orders)) {
+                return null; // 304 déjà positionné (liste modifiée entre la projection et la lecture)
+            }
+            return listResponse(orders);
             
         } catch (Exception e) {
             logger.error("Erreur lors de la récupération des commandes utilisateur: {}", e.getMessage());
@@ -119,14 +200,18 @@ public class OrderController {
      * Récupère les commandes par statut
      * GET /api/orders/status/{status}
      */
+    @RequestPriority(RequestPriority.Level.LOW)
     @GetMapping("/status/{status}")
-    public ResponseEntity<?> getOrdersByStatus(@PathVariable String status) {
+    public ResponseEntity<?> getOrdersByStatus(@PathVariable String status, WebRequest webRequest) {
         logger.info("Récupération des commandes avec le statut: {}", status);
         
         try {
             OrderStatus orderStatus = OrderStatus.valueOf(status.toUpperCase());
             List<Order> orders = orderService.getOrdersByStatus(orderStatus);
-            return ResponseEntity.ok(orders);
+            if (checkNotModified(webRequest, orders)) {
+                return null; // 304 déjà positionné
+            }
+            return listResponse(orders);
             
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest()
@@ -141,6 +226,7 @@ public class OrderController {
      * Met à jour le statut d'une commande
      * PUT /api/orders/{id}/status
      */
+    @RequestPriority(RequestPriority.Level.HIGH)
     @PutMapping("/{id}/status")
     public ResponseEntity<?> updateOrderStatus(
             @PathVariable String id, 
@@ -158,7 +244,10 @@ public class OrderController {
             OrderStatus newStatus = OrderStatus.valueOf(newStatusStr.toUpperCase());
             Order updatedOrder = orderService.updateOrderStatus(id, newStatus);
             
-            return ResponseEntity.ok(updatedOrder);
+            // Nouvel ETag tout de suite, le client peut reprendre son poll avec
+            return ResponseEntity.ok()
+                .eTag(OrderVersion.of(updatedOrder).etag())
+                .body(updatedOrder);
             
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest()
@@ -177,13 +266,16 @@ public class OrderController {
      * Annule une commande
      * PUT /api/orders/{id}/cancel
      */
+    @RequestPriority(RequestPriority.Level.HIGH)
     @PutMapping("/{id}/cancel")
     public ResponseEntity<?> cancelOrder(@PathVariable String id) {
         logger.info("Annulation de la commande: {}", id);
         
         try {
             Order cancelledOrder = orderService.cancelOrder(id);
-            return ResponseEntity.ok(cancelledOrder);
+            return ResponseEntity.ok()
+                .eTag(OrderVersion.of(cancelledOrder).etag())
+                .body(cancelledOrder);
             
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
@@ -221,16 +313,21 @@ public class OrderController {
      * Recherche les commandes dans une période donnée
      * GET /api/orders/search/period?start=...&end=...
      */
+    @RequestPriority(RequestPriority.Level.LOW)
     @GetMapping("/search/period")
     public ResponseEntity<?> getOrdersBetweenDates(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            WebRequest webRequest) {
         
         logger.info("Recherche des commandes entre {} et {}", start, end);
         
         try {
             List<Order> orders = orderService.getOrdersBetweenDates(start, end);
-            return ResponseEntity.ok(orders);
+            if (checkNotModified(webRequest, orders)) {
+                return null; // 304 déjà positionné
+            }
+            return listResponse(orders);
             
         } catch (Exception e) {
             logger.error("Erreur lors de la recherche par période: {}", e.getMessage());
@@ -243,6 +340,7 @@ public class OrderController {
      * Récupère les stats des commandes
      * GET /api/orders/stats
      */
+    @RequestPriority(RequestPriority.Level.LOW)
     @GetMapping("/stats")
     public ResponseEntity<?> getOrderStats() {
         logger.info("Récupération des statistiques des commandes");
@@ -262,13 +360,17 @@ public class OrderController {
      * Trouve les commandes qui contiennent un produit spécifique
      * GET /api/orders/product/{productId}
      */
+    @RequestPriority(RequestPriority.Level.LOW)
     @GetMapping("/product/{productId}")
-    public ResponseEntity<List<Order>> getOrdersByProductId(@PathVariable String productId) {
+    public ResponseEntity<List<Order>> getOrdersByProductId(@PathVariable String productId, WebRequest webRequest) {
         logger.info("Recherche des commandes contenant le produit: {}", productId);
         
         try {
             List<Order> orders = orderService.getOrdersByProductId(productId);
-            return ResponseEntity.ok(orders);
+            if (checkNotModified(webRequest, orders)) {
+                return null; // 304 déjà positionné
+            }
+            return listResponse(orders);
             
         } catch (Exception e) {
             logger.error("Erreur lors de la recherche par produit: {}", e.getMessage());
@@ -291,4 +393,41 @@ public class OrderController {
             "message", "Service de commandes opérationnel ! 🛒"
         ));
     }
-}
\ No newline at end of file
+    
+    /**
+     * Clé réutilisée pour une autre commande : 422, première requête encore en cours : 409
+     */
+    private ResponseEntity<?> idempotencyError(IdempotencyException e) {
+        if (e.getReason() == IdempotencyException.Reason.IN_PROGRESS) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", "Requête en cours", "message", e.getMessage()));
+        }
+        return ResponseEntity.unprocessableEntity()
+            .body(Map.of("error", "Clé d'idempotence réutilisée", "message", e.getMessage()));
+    }
+    
+    /**
+     * La requête porte-t-elle une condition (If-None-Match / If-Modified-Since) ?
+     */
+    private boolean isConditional(WebRequest webRequest) {
+        return webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+            || webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+    
+    /**
+     * Compare l'ETag de la liste à If-None-Match et positionne le header ETag
+     * 
+     * @return true si le client a déjà cette liste (304 positionné)
+     */
+    private boolean checkNotModified(WebRequest webRequest, List<Order> orders) {
+        List<OrderVersion> versions = orders.stream().map(OrderVersion::of).toList();
+        return webRequest.checkNotModified(OrderVersion.collectionEtag(versions));
+    }
+    
+    private ResponseEntity<List<Order>> listResponse(List<Order> orders) {
+        return ResponseEntity.ok()
+            .cacheControl(REVALIDATE)
+            .body(orders);
+    }
+}
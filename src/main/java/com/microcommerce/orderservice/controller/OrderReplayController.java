@@ -0,0 +1,116 @@
+package com.microcommerce.orderservice.controller;
+
+import com.microcommerce.orderservice.entity.OrderReplayJob;
+import com.microcommerce.orderservice.service.OrderReplayService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Contrôleur d'administration du rejeu des événements commandes (admin seulement)
+ *
+ * Un job parcourt les commandes en base (filtrées par période, statut ou utilisateur)
+ * et republie les événements vers order.replay.exchange ou order.exchange.
+ */
+@RestController
+@RequestMapping("/api/orders/admin/replay")
+public class OrderReplayController {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderReplayController.class);
+
+    @Autowired
+    private OrderReplayService orderReplayService;
+
+    /**
+     * Lance un nouveau job de rejeu
+     * POST /api/orders/admin/replay/jobs
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<?> startJob(@RequestBody OrderReplayJob request) {
+        logger.info("Demande de rejeu des événements commandes vers {}", request.getExchange());
+
+        try {
+            OrderReplayJob job = orderReplayService.startJob(request);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Requête de rejeu invalide", "message", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Erreur lors du lancement du rejeu: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "Erreur serveur", "message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Liste les jobs de rejeu
+     * GET /api/orders/admin/replay/jobs
+     */
+    @GetMapping("/jobs")
+    public ResponseEntity<List<OrderReplayJob>> getJobs() {
+        return ResponseEntity.ok(orderReplayService.getJobs());
+    }
+
+    /**
+     * Récupère l'avancement d'un job
+     * GET /api/orders/admin/replay/jobs/{id}
+     */
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<?> getJob(@PathVariable String id) {
+        Optional<OrderReplayJob> job = orderReplayService.getJob(id);
+
+        if (job.isPresent()) {
+            return ResponseEntity.ok(job.get());
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Met en pause un job (à la fin du lot en cours)
+     * POST /api/orders/admin/replay/jobs/{id}/pause
+     */
+    @PostMapping("/jobs/{id}/pause")
+    public ResponseEntity<?> pauseJob(@PathVariable String id) {
+        logger.info("Mise en pause du job de rejeu: {}", id);
+
+        try {
+            return ResponseEntity.ok(orderReplayService.pauseJob(id));
+
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", "Job non actif", "message", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Erreur de pause", "message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Reprend un job depuis son dernier checkpoint
+     * POST /api/orders/admin/replay/jobs/{id}/resume
+     */
+    @PostMapping("/jobs/{id}/resume")
+    public ResponseEntity<?> resumeJob(@PathVariable String id) {
+        logger.info("Reprise du job de rejeu: {}", id);
+
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(orderReplayService.resumeJob(id));
+
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", "Reprise impossible", "message", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Erreur de reprise", "message", e.getMessage()));
+        }
+    }
+}
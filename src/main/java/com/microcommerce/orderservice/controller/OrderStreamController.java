@@ -0,0 +1,133 @@
+package com.microcommerce.orderservice.controller;
+
+import com.microcommerce.orderservice.service.OrderService;
+import com.microcommerce.orderservice.service.OrderStreamHub;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams SSE des transitions de statut, à la place du polling de GET /api/orders/{id}
+ *
+ * - GET /api/orders/{id}/events : transitions d'une commande
+ * - GET /api/orders/user/{userId}/events : transitions de toutes les commandes d'un utilisateur
+ *
+ * Événements "status" (id = id SSE, à renvoyer dans Last-Event-ID à la reconnexion),
+ * "resync" si la reprise n'est plus possible (le client recharge via GET), et un
+ * commentaire heartbeat régulier. Les connexions sont asynchrones : aucun thread Tomcat
+ * n'est retenu par un abonné inactif.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/orders")
+@CrossOrigin(origins = "*") // En prod, on spécifiera les domaines autorisés
+public class OrderStreamController {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStreamController.class);
+
+    @Autowired
+    private OrderStreamHub orderStreamHub;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Value("${order-stream.timeout:PT30M}")
+    private Duration timeout;
+
+    @Value("${order-stream.buffer-size:32}")
+    private int bufferSize;
+
+    @Value("${order-stream.sender-threads:4}")
+    private int senderThreads;
+
+    // Pool d'écriture partagé par toutes les connexions SSE
+    private ExecutorService sender;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "order-stream-sender-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    /**
+     * Stream des transitions d'une commande
+     * GET /api/orders/{id}/events
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamOrderEvents(
+            @PathVariable String id,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+
+        logger.debug("Abonnement SSE à la commande: {} (Last-Event-ID: {})", id, lastEventId);
+
+        // Projection id + updatedAt : on vérifie l'existence sans charger la commande
+        if (orderService.getOrderVersion(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        SseOrderStreamSubscriber subscriber = new SseOrderStreamSubscriber(emitter, sender, bufferSize);
+        Runnable unsubscribe = () -> orderStreamHub.unsubscribeOrder(id, subscriber);
+        emitter.onCompletion(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+
+        if (!orderStreamHub.subscribeOrder(id, subscriber, lastEventId)) {
+            return tooManySubscribers();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * Stream des transitions de toutes les commandes d'un utilisateur
+     * GET /api/orders/user/{userId}/events
+     */
+    @GetMapping(value = "/user/{userId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamUserOrderEvents(
+            @PathVariable String userId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+
+        logger.debug("Abonnement SSE aux commandes de l'utilisateur: {} (Last-Event-ID: {})", userId, lastEventId);
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        SseOrderStreamSubscriber subscriber = new SseOrderStreamSubscriber(emitter, sender, bufferSize);
+        Runnable unsubscribe = () -> orderStreamHub.unsubscribeUser(userId, subscriber);
+        emitter.onCompletion(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+
+        if (!orderStreamHub.subscribeUser(userId, subscriber, lastEventId)) {
+            return tooManySubscribers();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    private ResponseEntity<SseEmitter> tooManySubscribers() {
+        logger.warn("Abonnement SSE refusé : {} connexions ouvertes", orderStreamHub.getSubscriberCount());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "5")
+            .build();
+    }
+}
@@ -0,0 +1,343 @@
+package com.microcommerce.orderservice.controller;
+
+import com.microcommerce.orderservice.entity.Order;
+import com.microcommerce.orderservice.entity.OrderStatus;
+import com.microcommerce.orderservice.entity.OrderVersion;
+import com.microcommerce.orderservice.service.IdempotencyException;
+import com.microcommerce.orderservice.service.IdempotencyService;
+import com.microcommerce.orderservice.service.ReactiveOrderService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Contrôleur WebFlux des commandes (profil reactive)
+ *
+ * Mêmes routes et mêmes réponses que {@link OrderController}. Les listes sont des Flux :
+ * avec Accept: application/x-ndjson, chaque commande est écrite dès qu'elle sort du curseur
+ * MongoDB, et un client lent ralentit la lecture au lieu de faire grossir la mémoire (backpressure).
+ *
+ * GET conditionnels comme côté servlet pour une commande et les commandes d'un utilisateur
+ * (304 décidé sur la projection id + updatedAt). Les autres listes sont streamées sans ETag :
+ * il faudrait attendre la fin du flux pour le calculer.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/orders")
+@CrossOrigin(origins = "*") // En prod, on spécifiera les domaines autorisés
+public class ReactiveOrderController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveOrderController.class);
+
+    // Le client garde la réponse mais revalide à chaque fois (If-None-Match)
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    @Autowired
+    private ReactiveOrderService orderService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    /**
+     * Crée une nouvelle commande
+     * POST /api/orders
+     *
+     * Avec Idempotency-Key, un retry renvoie la commande déjà créée (Idempotent-Replayed: true).
+     * Le contrôle d'idempotence est bloquant (attente du résultat en cours, Mongo) : il tourne
+     * sur boundedElastic, jamais sur l'event loop.
+     */
+    @PostMapping
+    public Mono<ResponseEntity<?>> createOrder(
+            @Valid @RequestBody Order order,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestAttribute(value = "userId", required = false) String authenticatedUserId) {
+        logger.info("Demande de création de commande pour l'utilisateur: {}", order.getUserId());
+
+        Mono<ResponseEntity<?>> response;
+        if (idempotencyKey == null) {
+            response = orderService.createOrder(order)
+                .map(createdOrder -> ResponseEntity.status(HttpStatus.CREATED).body(createdOrder));
+        } else if (!IdempotencyService.isValidKey(idempotencyKey)) {
+            return Mono.just(ResponseEntity.badRequest()
+                .body(Map.of("error", "Clé d'idempotence invalide", "message", "Le header Idempotency-Key doit faire entre 1 et 255 caractères")));
+        } else {
+            String scope = authenticatedUserId != null ? authenticatedUserId : order.getUserId();
+            response = Mono.fromCallable(() -> idempotencyService.createOnce(
+                    scope, idempotencyKey, order, () -> orderService.createOrder(order).block()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(outcome -> ResponseEntity.status(HttpStatus.CREATED)
+                    .header(IdempotencyService.REPLAYED_HEADER, String.valueOf(outcome.isReplayed()))
+                    .body(outcome.getOrder()));
+        }
+
+        return response
+            .onErrorResume(IdempotencyException.class, e -> Mono.just(idempotencyError(e)))
+            .onErrorResume(e -> {
+                logger.error("Erreur lors de la création de la commande: {}", e.getMessage());
+                return Mono.just(ResponseEntity.badRequest()
+                    .body(Map.of("error", "Erreur de création", "message", String.valueOf(e.getMessage()))));
+            });
+    }
+
+    /**
+     * Récupère toutes les commandes
+     * GET /api/orders
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Order> getAllOrders() {
+        logger.info("Récupération de toutes les commandes");
+        return orderService.getAllOrders()
+            .doOnError(e -> logger.error("Erreur lors de la récupération des commandes: {}", e.getMessage()));
+    }
+
+    /**
+     * Chope une commande par son ID
+     * GET /api/orders/{id}
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<?>> getOrderById(@PathVariable String id, ServerWebExchange exchange) {
+        logger.info("Récupération de la commande: {}", id);
+
+        // ETag / Last-Modified posés ici, le 304 éventuel est géré par WebFlux
+        Mono<ResponseEntity<?>> fullResponse = orderService.getOrderById(id)
+            .map(order -> {
+                OrderVersion version = OrderVersion.of(order);
+                return ResponseEntity.ok()
+                    .cacheControl(REVALIDATE)
+                    .eTag(version.etag())
+                    .lastModified(version.lastModifiedMillis())
+                    .body(order);
+            });
+
+        Mono<ResponseEntity<?>> response = fullResponse;
+        if (isConditional(exchange)) {
+            // Poll : on compare d'abord la version, le document n'est chargé que s'il a changé
+            response = orderService.getOrderVersion(id)
+                .flatMap(version -> exchange.checkNotModified(version.etag(),
+                        Instant.ofEpochMilli(version.lastModifiedMillis()))
+                    ? Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(version.etag()).build())
+                    : fullResponse);
+        }
+
+        return response
+            .defaultIfEmpty(ResponseEntity.notFound().build())
+            .onErrorResume(e -> {
+                logger.error("Erreur lors de la récupération de la commande {}: {}", id, e.getMessage());
+                return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Erreur serveur", "message", String.valueOf(e.getMessage()))));
+            });
+    }
+
+    /**
+     * Récupère les commandes d'un utilisateur
+     * GET /api/orders/user/{userId}
+     */
+    @GetMapping(value = "/user/{userId}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<Flux<Order>>> getOrdersByUserId(@PathVariable String userId, ServerWebExchange exchange) {
+        logger.info("Récupération des commandes pour l'utilisateur: {}", userId);
+
+        Flux<Order> orders = orderService.getOrdersByUserId(userId)
+            .doOnError(e -> logger.error("Erreur lors de la récupération des commandes utilisateur: {}",
+                e.getMessage()));
+
+        if (!exchange.getRequest().getHeaders().containsKey(HttpHeaders.IF_NONE_MATCH)) {
+            // Pas de If-None-Match : une seule requête, l'ETag est calculé sur les commandes lues
+            return orders.collectList()
+                .map(list -> ResponseEntity.ok()
+                    .cacheControl(REVALIDATE)
+                    .eTag(OrderVersion.collectionEtag(list.stream().map(OrderVersion::of).toList()))
+                    .body(Flux.fromIterable(list)));
+        }
+
+        // Poll : ETag de la liste calculé sur la projection, les commandes ne sont lues que si elle a changé
+        return orderService.getOrderVersionsByUserId(userId)
+            .collectList()
+            .map(OrderVersion::collectionEtag)
+            .map(etag -> exchange.checkNotModified(etag)
+                ? ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).<Flux<Order>>build()
+                : ResponseEntity.ok()
+                    .cacheControl(REVALIDATE)
+                    .eTag(etag)
+                    .body(orders));
+    }
+
+    /**
+     * Récupère les commandes par statut
+     * GET /api/orders/status/{status}
+     */
+    @GetMapping(value = "/status/{status}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<Flux<Order>>> getOrdersByStatus(@PathVariable String status) {
+        logger.info("Récupération des commandes avec le statut: {}", status);
+
+        OrderStatus orderStatus;
+        try {
+            orderStatus = OrderStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            // Statut non reconnu : réponse vide plutôt qu'un corps d'erreur dans un flux de commandes
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        return Mono.just(ResponseEntity.ok(orderService.getOrdersByStatus(orderStatus)));
+    }
+
+    /**
+     * Met à jour le statut d'une commande
+     * PUT /api/orders/{id}/status
+     */
+    @PutMapping("/{id}/status")
+    public Mono<ResponseEntity<?>> updateOrderStatus(
+            @PathVariable String id,
+            @RequestBody Map<String, String> statusUpdate) {
+
+        logger.info("Mise à jour du statut de la commande: {}", id);
+
+        String newStatusStr = statusUpdate.get("status");
+        if (newStatusStr == null) {
+            return Mono.just(ResponseEntity.badRequest()
+                .body(Map.of("error", "Statut manquant", "message", "Le champ 'status' est requis")));
+        }
+
+        OrderStatus newStatus;
+        try {
+            newStatus = OrderStatus.valueOf(newStatusStr.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest()
+                .body(Map.of("error", "Statut invalide", "message", e.getMessage())));
+        }
+
+        return orderService.updateOrderStatus(id, newStatus)
+            .<ResponseEntity<?>>map(updatedOrder -> ResponseEntity.ok()
+                .eTag(OrderVersion.of(updatedOrder).etag())
+                .body(updatedOrder))
+            .onErrorResume(e -> Mono.just(ResponseEntity.badRequest()
+                .body(Map.of("error", "Erreur de mise à jour", "message", String.valueOf(e.getMessage())))));
+    }
+
+    /**
+     * Annule une commande
+     * PUT /api/orders/{id}/cancel
+     */
+    @PutMapping("/{id}/cancel")
+    public Mono<ResponseEntity<?>> cancelOrder(@PathVariable String id) {
+        logger.info("Annulation de la commande: {}", id);
+
+        return orderService.cancelOrder(id)
+            .<ResponseEntity<?>>map(cancelledOrder -> ResponseEntity.ok()
+                .eTag(OrderVersion.of(cancelledOrder).etag())
+                .body(cancelledOrder))
+            .onErrorResume(e -> Mono.just(ResponseEntity.badRequest()
+                .body(Map.of("error", "Erreur d'annulation", "message", String.valueOf(e.getMessage())))));
+    }
+
+    /**
+     * Supprime une commande (admin seulement)
+     * DELETE /api/orders/{id}
+     */
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<?>> deleteOrder(@PathVariable String id) {
+        logger.info("Suppression de la commande: {}", id);
+
+        return orderService.deleteOrder(id)
+            .then(Mono.<ResponseEntity<?>>fromSupplier(() ->
+                ResponseEntity.ok(Map.of("message", "Commande supprimée avec succès"))))
+            .onErrorResume(e -> Mono.just(ResponseEntity.badRequest()
+                .body(Map.of("error", "Erreur de suppression", "message", String.valueOf(e.getMessage())))));
+    }
+
+    /**
+     * Recherche les commandes dans une période donnée
+     * GET /api/orders/search/period?start=...&end=...
+     */
+    @GetMapping(value = "/search/period", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Order> getOrdersBetweenDates(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+
+        logger.info("Recherche des commandes entre {} et {}", start, end);
+        return orderService.getOrdersBetweenDates(start, end)
+            .doOnError(e -> logger.error("Erreur lors de la recherche par période: {}", e.getMessage()));
+    }
+
+    /**
+     * Récupère les stats des commandes
+     * GET /api/orders/stats
+     */
+    @GetMapping("/stats")
+    public Mono<ResponseEntity<?>> getOrderStats() {
+        logger.info("Récupération des statistiques des commandes");
+
+        return orderService.getOrderStats()
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .onErrorResume(e -> {
+                logger.error("Erreur lors du calcul des statistiques: {}", e.getMessage());
+                return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Erreur de calcul", "message", String.valueOf(e.getMessage()))));
+            });
+    }
+
+    /**
+     * Trouve les commandes qui contiennent un produit spécifique
+     * GET /api/orders/product/{productId}
+     */
+    @GetMapping(value = "/product/{productId}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Order> getOrdersByProductId(@PathVariable String productId) {
+        logger.info("Recherche des commandes contenant le produit: {}", productId);
+        return orderService.getOrdersByProductId(productId)
+            .doOnError(e -> logger.error("Erreur lors de la recherche par produit: {}", e.getMessage()));
+    }
+
+    /**
+     * Endpoint de test pour vérifier que le service tourne bien
+     * GET /api/orders/test
+     */
+    @GetMapping("/test")
+    public Mono<Map<String, Object>> testEndpoint() {
+        logger.info("Test de l'API Order Service (reactive)");
+
+        return Mono.just(Map.of(
+            "service", "Order Service",
+            "status", "OK",
+            "stack", "reactive",
+            "timestamp", LocalDateTime.now(),
+            "message", "Service de commandes opérationnel ! 🛒"
+        ));
+    }
+
+    /**
+     * Clé réutilisée pour une autre commande : 422, première requête encore en cours : 409
+     */
+    private ResponseEntity<?> idempotencyError(IdempotencyException e) {
+        if (e.getReason() == IdempotencyException.Reason.IN_PROGRESS) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", "Requête en cours", "message", e.getMessage()));
+        }
+        return ResponseEntity.unprocessableEntity()
+            .body(Map.of("error", "Clé d'idempotence réutilisée", "message", e.getMessage()));
+    }
+
+    /**
+     * La requête porte-t-elle une condition (If-None-Match / If-Modified-Since) ?
+     */
+    private boolean isConditional(ServerWebExchange exchange) {
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        return headers.containsKey(HttpHeaders.IF_NONE_MATCH) || headers.containsKey(HttpHeaders.IF_MODIFIED_SINCE);
+    }
+}
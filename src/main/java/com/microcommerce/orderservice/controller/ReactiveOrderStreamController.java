@@ -0,0 +1,96 @@
+package com.microcommerce.orderservice.controller;
+
+import com.microcommerce.orderservice.service.OrderStreamHub;
+import com.microcommerce.orderservice.service.ReactiveOrderService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Streams SSE des transitions de statut, variante WebFlux (profil reactive)
+ *
+ * Mêmes routes et mêmes événements que {@link OrderStreamController}.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/orders")
+@CrossOrigin(origins = "*") // En prod, on spécifiera les domaines autorisés
+public class ReactiveOrderStreamController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveOrderStreamController.class);
+
+    @Autowired
+    private OrderStreamHub orderStreamHub;
+
+    @Autowired
+    private ReactiveOrderService orderService;
+
+    @Value("${order-stream.timeout:PT30M}")
+    private Duration timeout;
+
+    @Value("${order-stream.buffer-size:32}")
+    private int bufferSize;
+
+    /**
+     * Stream des transitions d'une commande
+     * GET /api/orders/{id}/events
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Mono<ResponseEntity<Flux<ServerSentEvent<Object>>>> streamOrderEvents(
+            @PathVariable String id,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+
+        logger.debug("Abonnement SSE à la commande: {} (Last-Event-ID: {})", id, lastEventId);
+
+        return orderService.getOrderVersion(id)
+            .map(version -> {
+                FluxOrderStreamSubscriber subscriber = new FluxOrderStreamSubscriber(bufferSize);
+                if (!orderStreamHub.subscribeOrder(id, subscriber, lastEventId)) {
+                    return tooManySubscribers();
+                }
+                return ResponseEntity.ok(subscriber.flux()
+                    .take(timeout)
+                    .doFinally(signal -> orderStreamHub.unsubscribeOrder(id, subscriber)));
+            })
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Stream des transitions de toutes les commandes d'un utilisateur
+     * GET /api/orders/user/{userId}/events
+     */
+    @GetMapping(value = "/user/{userId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Mono<ResponseEntity<Flux<ServerSentEvent<Object>>>> streamUserOrderEvents(
+            @PathVariable String userId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+
+        logger.debug("Abonnement SSE aux commandes de l'utilisateur: {} (Last-Event-ID: {})", userId, lastEventId);
+
+        FluxOrderStreamSubscriber subscriber = new FluxOrderStreamSubscriber(bufferSize);
+        if (!orderStreamHub.subscribeUser(userId, subscriber, lastEventId)) {
+            return Mono.just(tooManySubscribers());
+        }
+        return Mono.just(ResponseEntity.ok(subscriber.flux()
+            .take(timeout)
+            .doFinally(signal -> orderStreamHub.unsubscribeUser(userId, subscriber))));
+    }
+
+    private ResponseEntity<Flux<ServerSentEvent<Object>>> tooManySubscribers() {
+        logger.warn("Abonnement SSE refusé : {} connexions ouvertes", orderStreamHub.getSubscriberCount());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "5")
+            .build();
+    }
+}
@@ -0,0 +1,126 @@
+package com.microcommerce.orderservice.controller;
+
+import com.microcommerce.orderservice.event.OrderStreamEvent;
+import com.microcommerce.orderservice.service.OrderStreamSubscriber;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Abonné SSE côté servlet, adossé à un {@link SseEmitter}
+ *
+ * Les événements sont déposés dans un buffer borné puis écrits par le pool d'envoi,
+ * jamais par le thread du listener RabbitMQ. Le buffer n'existe que s'il y a quelque chose
+ * à envoyer : une connexion inactive ne coûte que cet objet et l'emitter.
+ */
+class SseOrderStreamSubscriber implements OrderStreamSubscriber {
+
+    private static final Object HEARTBEAT = new Object();
+    private static final Object RESYNC = new Object();
+
+    private final SseEmitter emitter;
+    private final Executor sender;
+    private final int bufferSize;
+
+    private final Queue<Object> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    SseOrderStreamSubscriber(SseEmitter emitter, Executor sender, int bufferSize) {
+        this.emitter = emitter;
+        this.sender = sender;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public boolean offer(OrderStreamEvent event) {
+        return enqueue(event);
+    }
+
+    @Override
+    public boolean offerResync() {
+        return enqueue(RESYNC);
+    }
+
+    @Override
+    public void heartbeat() {
+        if (pendingCount.get() == 0) {
+            enqueue(HEARTBEAT);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            pending.clear();
+            // Sans effet si un envoi a déjà échoué (le conteneur s'en charge)
+            emitter.complete();
+        }
+    }
+
+    private boolean enqueue(Object item) {
+        if (closed.get()) {
+            return true;
+        }
+        if (pendingCount.incrementAndGet() > bufferSize) {
+            pendingCount.decrementAndGet();
+            return false;
+        }
+        pending.add(item);
+        scheduleDrain();
+        return true;
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Pool arrêté (shutdown en cours)
+                draining.set(false);
+                close();
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            Object item;
+            while (!closed.get() && (item = pending.poll()) != null) {
+                pendingCount.decrementAndGet();
+                emitter.send(toSseEvent(item));
+            }
+        } catch (Exception e) {
+            // Client parti : la fin de connexion désabonne du hub
+            close();
+        } finally {
+            draining.set(false);
+        }
+
+        // Un événement a pu arriver entre le dernier poll et la remise à false
+        if (!closed.get() && !pending.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    private SseEmitter.SseEventBuilder toSseEvent(Object item) {
+        if (item == HEARTBEAT) {
+            return SseEmitter.event().comment("heartbeat");
+        }
+        if (item == RESYNC) {
+            return SseEmitter.event().name("resync").data("resync");
+        }
+        OrderStreamEvent event = (OrderStreamEvent) item;
+        return SseEmitter.event()
+            .id(event.getId())
+            .name("status")
+            .data(event, MediaType.APPLICATION_JSON);
+    }
+}
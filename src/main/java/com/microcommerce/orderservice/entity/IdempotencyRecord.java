@@ -0,0 +1,98 @@
+package com.microcommerce.orderservice.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Clé d'idempotence d'une création de commande (header Idempotency-Key)
+ *
+ * Contient :
+ * - L'empreinte de la requête, pour refuser une clé réutilisée avec un autre contenu
+ * - L'ID de la commande créée, renvoyée telle quelle aux retries
+ *
+ * La collection a un index TTL sur createdAt : les clés disparaissent toutes seules.
+ */
+@Document(collection = "idempotency_keys")
+public class IdempotencyRecord {
+
+    // Clé du client préfixée par l'utilisateur : deux clients ne peuvent pas entrer en collision
+    @Id
+    private String id;
+
+    private String fingerprint;
+    private String orderId;
+    private Status status;
+    private LocalDateTime createdAt;
+
+    /**
+     * États d'une clé
+     */
+    public enum Status {
+        IN_PROGRESS,  // Première requête en cours
+        COMPLETED     // Commande créée, orderId renseigné
+    }
+
+    // Constructeurs
+    public IdempotencyRecord() {
+    }
+
+    public IdempotencyRecord(String id, String fingerprint) {
+        this.id = id;
+        this.fingerprint = fingerprint;
+        this.status = Status.IN_PROGRESS;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters et setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "IdempotencyRecord{" +
+                "id='" + id + '\'' +
+                ", orderId='" + orderId + '\'' +
+                ", status=" + status +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
@@ -0,0 +1,177 @@
+package com.microcommerce.orderservice.entity;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Montant en unités mineures : un long et une échelle (nombre de décimales)
+ *
+ * 25.50 € c'est 2550 et l'échelle 2. Les totaux se calculent sur des long, sans allocation, avec
+ * Math.multiplyExact / addExact : un dépassement lève une ArithmeticException au lieu de donner
+ * un total faux.
+ *
+ * Même valeur ET même échelle que le BigDecimal d'avant (10.0 reste 10.0, 25.50 reste 25.50,
+ * un total a l'échelle du prix le plus précis), donc mêmes formats partout :
+ * - JSON : un nombre (toBigDecimal en @JsonValue, of en @JsonCreator)
+ * - BSON : la chaîne que Spring Data écrivait pour un BigDecimal (convertisseurs de MongoConfig),
+ *   les montants numériques (double des données d'init-mongo.js) se relisent aussi
+ *
+ * Immuable : un même Money peut être partagé entre commandes.
+ */
+public final class Money implements Comparable<Money> {
+
+    // Au-delà, 10^échelle ne tient plus dans un long
+    public static final int MAX_SCALE = 18;
+
+    public static final Money ZERO = new Money(0, 0);
+
+    private static final long[] POWERS_OF_TEN = new long[MAX_SCALE + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i <= MAX_SCALE; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final long minorUnits;
+    private final int scale;
+
+    private Money(long minorUnits, int scale) {
+        this.minorUnits = minorUnits;
+        this.scale = scale;
+    }
+
+    public static Money ofMinor(long minorUnits, int scale) {
+        if (scale < 0 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("Échelle hors limites (0 à " + MAX_SCALE + "): " + scale);
+        }
+        return minorUnits == 0 && scale == 0 ? ZERO : new Money(minorUnits, scale);
+    }
+
+    /**
+     * Conversion exacte : ArithmeticException si le montant ne tient pas dans un long d'unités mineures
+     */
+    @JsonCreator
+    public static Money of(BigDecimal amount) {
+        BigDecimal exact = amount;
+        if (exact.scale() > MAX_SCALE) {
+            // 1.500000000000000000000 : zéros en trop, la valeur tient
+            exact = exact.stripTrailingZeros();
+        }
+        if (exact.scale() < 0) {
+            // 1E+3 -> 1000
+            exact = exact.setScale(0);
+        }
+        if (exact.scale() > MAX_SCALE) {
+            throw new ArithmeticException("Trop de décimales pour un montant: " + amount);
+        }
+        return ofMinor(exact.unscaledValue().longValueExact(), exact.scale());
+    }
+
+    public static Money of(String amount) {
+        return of(new BigDecimal(amount));
+    }
+
+    /**
+     * Somme des sous-totaux (prix x quantité) des articles, sans allocation.
+     * Si previous vaut déjà ce total il est renvoyé tel quel (recalcul d'une commande inchangée).
+     */
+    public static Money total(List<OrderItem> items, Money previous) {
+        long total = 0;
+        int totalScale = 0;
+        if (items != null) {
+            for (int i = 0, size = items.size(); i < size; i++) {
+                OrderItem item = items.get(i);
+                Money price = item.getPrice();
+                long line = Math.multiplyExact(price.minorUnits, item.getQuantity());
+                if (price.scale > totalScale) {
+                    total = rescale(total, totalScale, price.scale);
+                    totalScale = price.scale;
+                } else if (price.scale < totalScale) {
+                    line = rescale(line, price.scale, totalScale);
+                }
+                total = Math.addExact(total, line);
+            }
+        }
+        if (previous != null && previous.minorUnits == total && previous.scale == totalScale) {
+            return previous;
+        }
+        return ofMinor(total, totalScale);
+    }
+
+    private static long rescale(long minorUnits, int fromScale, int toScale) {
+        return Math.multiplyExact(minorUnits, POWERS_OF_TEN[toScale - fromScale]);
+    }
+
+    public Money times(int quantity) {
+        return ofMinor(Math.multiplyExact(minorUnits, quantity), scale);
+    }
+
+    public Money plus(Money other) {
+        if (scale >= other.scale) {
+            return ofMinor(Math.addExact(minorUnits, rescale(other.minorUnits, other.scale, scale)), scale);
+        }
+        return ofMinor(Math.addExact(rescale(minorUnits, scale, other.scale), other.minorUnits), other.scale);
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, scale);
+    }
+
+    public String toPlainString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        if (scale == other.scale) {
+            return Long.compare(minorUnits, other.minorUnits);
+        }
+        return toBigDecimal().compareTo(other.toBigDecimal());
+    }
+
+    /**
+     * Comme BigDecimal.equals : 10.0 et 10.00 sont différents (utiliser compareTo pour la valeur)
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Money)) {
+            return false;
+        }
+        Money other = (Money) o;
+        return minorUnits == other.minorUnits && scale == other.scale;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(minorUnits) + scale;
+    }
+
+    /**
+     * Même texte que BigDecimal.toString (c'est aussi la valeur écrite en base)
+     */
+    @Override
+    public String toString() {
+        return toBigDecimal().toString();
+    }
+}
@@ -0,0 +1,34 @@
+package com.microcommerce.orderservice.entity;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.constraints.DecimalMin;
+
+import java.math.BigDecimal;
+
+/**
+ * @DecimalMin sur un {@link Money} (prix et total gardent leurs annotations et leurs messages)
+ *
+ * Hibernate Validator ne connaît que les types numériques : ce validateur lui est déclaré par
+ * ServiceLoader (META-INF/services/jakarta.validation.ConstraintValidator).
+ */
+public class MoneyDecimalMinValidator implements ConstraintValidator<DecimalMin, Money> {
+
+    private Money min;
+    private boolean inclusive;
+
+    @Override
+    public void initialize(DecimalMin constraint) {
+        this.min = Money.of(new BigDecimal(constraint.value()));
+        this.inclusive = constraint.inclusive();
+    }
+
+    @Override
+    public boolean isValid(Money value, ConstraintValidatorContext context) {
+        if (value == null) {
+            return true;
+        }
+        int comparison = value.compareTo(min);
+        return inclusive ? comparison >= 0 : comparison > 0;
+    }
+}
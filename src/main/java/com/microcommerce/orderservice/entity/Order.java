@@ -6,7 +6,6 @@ import jakarta.validation.constraints.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.math.BigDecimal;
 
 /**
  * Entité qui représente une commande dans le système
@@ -33,7 +32,7 @@ public class Order {
     private OrderStatus status;
     
     @DecimalMin(value = "0.0", message = "Le total ne peut pas être négatif")
-    private BigDecimal totalAmount;
+    private Money totalAmount;
     
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -62,14 +61,9 @@ public class Order {
     }
     
     // Méthode qui calcule le total automatiquement
+    // (sur des long, sans allocation si le total n'a pas changé : appelée à chaque setItems)
     public void calculateTotal() {
-        if (items != null && !items.isEmpty()) {
-            this.totalAmount = items.stream()
-                .map(item -> item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        } else {
-            this.totalAmount = BigDecimal.ZERO;
-        }
+        this.totalAmount = Money.total(items, totalAmount);
         this.updatedAt = LocalDateTime.now();
     }
     
@@ -108,11 +102,11 @@ public class Order {
         this.updatedAt = LocalDateTime.now();
     }
     
-    public BigDecimal getTotalAmount() {
+    public Money getTotalAmount() {
         return totalAmount;
     }
     
-    public void setTotalAmount(BigDecimal totalAmount) {
+    public void setTotalAmount(Money totalAmount) {
         this.totalAmount = totalAmount;
     }
     
@@ -1,7 +1,6 @@
 package com.microcommerce.orderservice.entity;
 
 import jakarta.validation.constraints.*;
-import java.math.BigDecimal;
 
 /**
  * Représente un item dans une commande
@@ -10,7 +9,7 @@ import java.math.BigDecimal;
  * - L'ID du produit (référence vers le Product Service)
  * - Le nom du produit (copie pour éviter les appels)
  * - La quantité commandée
- * - Le prix unitaire au moment de la commande
+ * - Le prix unitaire au moment de la commande ({@link Money}, centimes sur un long)
  */
 public class OrderItem {
     
@@ -25,7 +24,7 @@ public class OrderItem {
     
     @DecimalMin(value = "0.0", message = "Le prix ne peut pas être négatif")
     @NotNull(message = "Le prix est obligatoire")
-    private BigDecimal price;
+    private Money price;
     
     // Infos optionnelles du produit (snapshot au moment de la commande)
     private String productDescription;
@@ -34,7 +33,7 @@ public class OrderItem {
     // Constructeurs
     public OrderItem() {}
     
-    public OrderItem(String productId, String productName, int quantity, BigDecimal price) {
+    public OrderItem(String productId, String productName, int quantity, Money price) {
         this.productId = productId;
         this.productName = productName;
         this.quantity = quantity;
@@ -42,8 +41,8 @@ public class OrderItem {
     }
     
     // Méthode utilitaire pour calculer le sous-total de cet item
-    public BigDecimal getSubTotal() {
-        return price.multiply(BigDecimal.valueOf(quantity));
+    public Money getSubTotal() {
+        return price.times(quantity);
     }
     
     // Getters et Setters
@@ -71,11 +70,11 @@ public class OrderItem {
         this.quantity = quantity;
     }
     
-    public BigDecimal getPrice() {
+    public Money getPrice() {
         return price;
     }
     
-    public void setPrice(BigDecimal price) {
+    public void setPrice(Money price) {
         this.price = price;
     }
     
@@ -0,0 +1,184 @@
+package com.microcommerce.orderservice.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Job de rejeu des événements commandes depuis MongoDB
+ *
+ * Contient :
+ * - Les filtres du rejeu (période, statut, utilisateur)
+ * - La destination (exchange et routing key)
+ * - Le checkpoint (dernier ID publié) pour pouvoir reprendre
+ * - L'avancement et le statut du job
+ */
+@Document(collection = "order_replay_jobs")
+public class OrderReplayJob {
+
+    @Id
+    private String id;
+
+    // Filtres
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private OrderStatus status;
+    private String userId;
+
+    // Destination : routing key imposée, sinon celle d'origine du type d'événement
+    private String exchange;
+    private String routingKey;
+
+    // Réglages de débit
+    private int ratePerSecond;
+    private int batchSize;
+
+    // Checkpoint : les commandes sont parcourues par _id croissant
+    private String lastOrderId;
+    private long publishedCount;
+
+    private JobStatus jobStatus;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    /**
+     * États possibles d'un job de rejeu
+     */
+    public enum JobStatus {
+        RUNNING,    // En cours sur une instance
+        PAUSED,     // Arrêté, peut reprendre depuis le checkpoint
+        COMPLETED,  // Toutes les commandes ont été rejouées
+        FAILED      // Erreur, peut reprendre depuis le checkpoint
+    }
+
+    // Constructeurs
+    public OrderReplayJob() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = LocalDateTime.now();
+        this.jobStatus = JobStatus.PAUSED;
+    }
+
+    // Getters et Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getExchange() {
+        return exchange;
+    }
+
+    public void setExchange(String exchange) {
+        this.exchange = exchange;
+    }
+
+    public String getRoutingKey() {
+        return routingKey;
+    }
+
+    public void setRoutingKey(String routingKey) {
+        this.routingKey = routingKey;
+    }
+
+    public int getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    public void setRatePerSecond(int ratePerSecond) {
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public String getLastOrderId() {
+        return lastOrderId;
+    }
+
+    public void setLastOrderId(String lastOrderId) {
+        this.lastOrderId = lastOrderId;
+    }
+
+    public long getPublishedCount() {
+        return publishedCount;
+    }
+
+    public void setPublishedCount(long publishedCount) {
+        this.publishedCount = publishedCount;
+    }
+
+    public JobStatus getJobStatus() {
+        return jobStatus;
+    }
+
+    public void setJobStatus(JobStatus jobStatus) {
+        this.jobStatus = jobStatus;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,66 @@
+package com.microcommerce.orderservice.entity;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Projection minimale d'une commande (id + updatedAt) pour les GET conditionnels
+ *
+ * Toutes les modifications d'une commande passent par setStatus / calculateTotal qui
+ * mettent updatedAt à jour : il sert de numéro de version. MongoDB ne garde que les
+ * millisecondes, on tronque donc pareil pour que l'ETag d'une réponse PUT et celui
+ * d'un GET ultérieur soient identiques.
+ */
+public class OrderVersion {
+
+    private final String id;
+    private final LocalDateTime updatedAt;
+
+    public OrderVersion(String id, LocalDateTime updatedAt) {
+        this.id = id;
+        this.updatedAt = updatedAt;
+    }
+
+    public static OrderVersion of(Order order) {
+        return new OrderVersion(order.getId(), order.getUpdatedAt());
+    }
+
+    /**
+     * Date de dernière modification en millisecondes epoch (0 si inconnue)
+     */
+    public long lastModifiedMillis() {
+        return updatedAt != null ? updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0L;
+    }
+
+    /**
+     * ETag faible d'une commande : W/"id-updatedAt"
+     * Faible car la même version peut partir en JSON brut, gzip ou filtrée par fields= : Tomcat ne
+     * compresse pas une réponse qui porte un ETag fort. If-None-Match compare de toute façon en faible.
+     */
+    public String etag() {
+        return "W/\"" + id + "-" + Long.toHexString(lastModifiedMillis()) + "\"";
+    }
+
+    /**
+     * ETag (faible, comme {@link #etag()}) d'une liste de commandes : nombre + empreinte des couples (id, updatedAt)
+     * L'empreinte dépend de l'ordre, comme la représentation JSON de la liste.
+     * Pas de Last-Modified pour une liste : une suppression ne ferait pas avancer la date max.
+     */
+    public static String collectionEtag(List<OrderVersion> versions) {
+        long hash = 0xcbf29ce484222325L; // FNV-1a 64 bits
+        for (OrderVersion version : versions) {
+            hash = (hash ^ (version.id != null ? version.id.hashCode() : 0)) * 0x100000001b3L;
+            hash = (hash ^ version.lastModifiedMillis()) * 0x100000001b3L;
+        }
+        return "W/\"" + versions.size() + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
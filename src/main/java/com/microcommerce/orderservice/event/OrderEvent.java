@@ -1,7 +1,7 @@
 package com.microcommerce.orderservice.event;
 
+import com.microcommerce.orderservice.entity.Money;
 import com.microcommerce.orderservice.entity.OrderStatus;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -16,7 +16,7 @@ public class OrderEvent {
     private String orderId;
     private String userId;
     private OrderStatus status;
-    private BigDecimal totalAmount;
+    private Money totalAmount;
     private List<OrderItemEvent> items;
     private EventType eventType;
     private LocalDateTime timestamp;
@@ -34,11 +34,11 @@ public class OrderEvent {
         private String productId;
         private String productName;
         private Integer quantity;
-        private BigDecimal unitPrice;
+        private Money unitPrice;
         
         public OrderItemEvent() {}
         
-        public OrderItemEvent(String productId, String productName, Integer quantity, BigDecimal unitPrice) {
+        public OrderItemEvent(String productId, String productName, Integer quantity, Money unitPrice) {
             this.productId = productId;
             this.productName = productName;
             this.quantity = quantity;
@@ -55,8 +55,8 @@ public class OrderEvent {
         public Integer getQuantity() { return quantity; }
         public void setQuantity(Integer quantity) { this.quantity = quantity; }
         
-        public BigDecimal getUnitPrice() { return unitPrice; }
-        public void setUnitPrice(BigDecimal unitPrice) { this.unitPrice = unitPrice; }
+        public Money getUnitPrice() { return unitPrice; }
+        public void setUnitPrice(Money unitPrice) { this.unitPrice = unitPrice; }
     }
     
     // Constructeur par défaut pour Jackson
@@ -64,7 +64,7 @@ public class OrderEvent {
     }
     
     public OrderEvent(String orderId, String userId, OrderStatus status, 
-                     BigDecimal totalAmount, List<OrderItemEvent> items, EventType eventType) {
+                     Money totalAmount, List<OrderItemEvent> items, EventType eventType) {
         this.orderId = orderId;
         this.userId = userId;
         this.status = status;
@@ -99,11 +99,11 @@ public class OrderEvent {
         this.status = status;
     }
     
-    public BigDecimal getTotalAmount() {
+    public Money getTotalAmount() {
         return totalAmount;
     }
     
-    public void setTotalAmount(BigDecimal totalAmount) {
+    public void setTotalAmount(Money totalAmount) {
         this.totalAmount = totalAmount;
     }
     
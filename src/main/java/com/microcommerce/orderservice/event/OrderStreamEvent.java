@@ -0,0 +1,95 @@
+package com.microcommerce.orderservice.event;
+
+import com.microcommerce.orderservice.entity.OrderStatus;
+import java.time.LocalDateTime;
+
+/**
+ * Transition de statut poussée aux clients SSE (/api/orders/{id}/events, /user/{userId}/events)
+ *
+ * Version allégée d'un {@link OrderEvent} (pas d'items ni de montants) diffusée entre les
+ * instances du order-service via l'exchange fanout order.stream.exchange.
+ * L'id (ObjectId, croissant dans le temps) sert d'id SSE pour la reprise via Last-Event-ID.
+ */
+public class OrderStreamEvent {
+
+    private String id;
+    private String orderId;
+    private String userId;
+    private OrderStatus status;
+    private OrderEvent.EventType eventType;
+    private LocalDateTime timestamp;
+
+    // Constructeur par défaut pour Jackson
+    public OrderStreamEvent() {
+    }
+
+    public OrderStreamEvent(String id, String orderId, String userId, OrderStatus status,
+                            OrderEvent.EventType eventType) {
+        this.id = id;
+        this.orderId = orderId;
+        this.userId = userId;
+        this.status = status;
+        this.eventType = eventType;
+        this.timestamp = LocalDateTime.now();
+    }
+
+    // Getters et setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+
+    public OrderEvent.EventType getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(OrderEvent.EventType eventType) {
+        this.eventType = eventType;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderStreamEvent{" +
+                "id='" + id + '\'' +
+                ", orderId='" + orderId + '\'' +
+                ", userId='" + userId + '\'' +
+                ", status=" + status +
+                ", eventType=" + eventType +
+                '}';
+    }
+}
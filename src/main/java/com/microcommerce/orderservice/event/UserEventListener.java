@@ -1,19 +1,87 @@
 package com.microcommerce.orderservice.event;
 
+import com.microcommerce.orderservice.config.RabbitMQConfig;
+import com.microcommerce.orderservice.jfr.EventConsumptionEvent;
+import com.microcommerce.orderservice.listener.EventDeduplicator;
+import com.microcommerce.orderservice.listener.EventRetryHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 @Component
 public class UserEventListener {
     
     private static final Logger logger = LoggerFactory.getLogger(UserEventListener.class);
     
+    // Types connus : tout le reste est compté sous "other" (le type vient du producteur)
+    private static final Set<String> KNOWN_EVENT_TYPES = Set.of("USER_CREATED", "USER_UPDATED", "USER_DELETED");
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    // Un timer par type d'événement et par résultat, construit une fois (types en nombre borné)
+    private final Map<String, Timer> successTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> failureTimers = new ConcurrentHashMap<>();
+    
+    @Autowired
+    private EventDeduplicator eventDeduplicator;
+    
+    @Autowired
+    private EventRetryHandler eventRetryHandler;
+    
     @RabbitListener(queues = "order-service.user.queue")
-    public void handleUserEvent(UserEvent userEvent) {
+    public void handleUserEvent(UserEvent userEvent,
+                                @Header(name = AmqpHeaders.MESSAGE_ID, required = false) String messageId) {
         logger.info("Événement utilisateur reçu dans order-service: {}", userEvent);
         
+        String dedupKey = EventDeduplicator.keyOf(messageId, "user", userEvent.getUserId(),
+                                                  userEvent.getEventType(), userEvent.getTimestamp());
+        if (!eventDeduplicator.markIfFirst(dedupKey)) {
+            logger.info("Événement utilisateur déjà traité, ignoré: {}", userEvent);
+            return;
+        }
+        
+        try {
+            process(userEvent, 1);
+        } catch (RuntimeException e) {
+            // Message relivré par RabbitMQ : il ne doit pas passer pour un doublon
+            eventDeduplicator.forget(dedupKey);
+            throw e;
+        }
+    }
+    
+    /**
+     * Rejoue les événements utilisateurs en échec (consommateur séparé, concurrence 1)
+     */
+    @RabbitListener(queues = RabbitMQConfig.ORDER_SERVICE_USER_RETRY_QUEUE,
+                    containerFactory = "retryListenerContainerFactory")
+    public void handleUserEventRetry(UserEvent userEvent,
+                                     @Header(name = EventRetryHandler.ATTEMPT_HEADER, required = false) Integer attempt) {
+        int currentAttempt = attempt != null ? attempt : 2;
+        logger.info("Nouvelle tentative {} pour l'événement utilisateur: {}", currentAttempt, userEvent);
+        process(userEvent, currentAttempt);
+    }
+    
+    private void process(UserEvent userEvent, int attempt) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        // Set.of(...).contains(null) lève une NPE : un événement sans type doit passer par le retry, pas boucler
+        String eventType = userEvent.getEventType() != null && KNOWN_EVENT_TYPES.contains(userEvent.getEventType())
+            ? userEvent.getEventType() : "other";
+        EventConsumptionEvent jfrEvent = new EventConsumptionEvent();
+        jfrEvent.begin();
+        jfrEvent.listener = "user";
+        jfrEvent.eventType = eventType;
+        jfrEvent.attempt = attempt;
         try {
             switch (userEvent.getEventType()) {
                 case "USER_CREATED":
@@ -28,9 +96,31 @@ public class UserEventListener {
                 default:
                     logger.warn("Type d'événement utilisateur non géré: {}", userEvent.getEventType());
             }
+            jfrEvent.success = true;
+            sample.stop(processingTimer(eventType, true));
         } catch (Exception e) {
+            sample.stop(processingTimer(eventType, false));
             logger.error("Erreur lors du traitement de l'événement utilisateur: {}", userEvent, e);
+            eventRetryHandler.retryOrDeadLetter(userEvent, RabbitMQConfig.ORDER_SERVICE_USER_QUEUE, attempt, e);
+        } finally {
+            jfrEvent.commit();
+        }
+    }
+    
+    private Timer processingTimer(String eventType, boolean success) {
+        Map<String, Timer> timers = success ? successTimers : failureTimers;
+        Timer timer = timers.get(eventType);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(eventType, type -> Timer.builder("order.events.processing")
+                .description("Durée de traitement des événements reçus")
+                .tag("listener", "user")
+                .tag("event_type", type)
+                .tag("outcome", success ? "success" : "failure")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
         }
+        return timer;
     }
     
     private void handleUserCreated(UserEvent userEvent) {
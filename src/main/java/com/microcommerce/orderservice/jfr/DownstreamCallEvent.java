@@ -0,0 +1,29 @@
+package com.microcommerce.orderservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement JFR : appel HTTP à user-service ou product-service
+ *
+ * Mêmes valeurs de service / operation / outcome que le timer order.downstream.requests.
+ */
+@Name("microcommerce.order.DownstreamCall")
+@Label("Downstream Call")
+@Category({"Micro Commerce", "Order Service"})
+@Description("Appel HTTP vers un autre service")
+@StackTrace(false)
+public class DownstreamCallEvent extends jdk.jfr.Event {
+
+    @Label("Service")
+    public String service;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Outcome")
+    public String outcome;
+}
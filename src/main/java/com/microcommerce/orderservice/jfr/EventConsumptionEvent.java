@@ -0,0 +1,30 @@
+package com.microcommerce.orderservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement JFR : traitement d'un événement RabbitMQ reçu (produit ou utilisateur)
+ */
+@Name("microcommerce.order.EventConsumption")
+@Label("Event Consumption")
+@Category({"Micro Commerce", "Order Service"})
+@Description("Traitement d'un événement reçu d'un autre service")
+@StackTrace(false)
+public class EventConsumptionEvent extends jdk.jfr.Event {
+
+    @Label("Listener")
+    public String listener;
+
+    @Label("Event Type")
+    public String eventType;
+
+    @Label("Attempt")
+    public int attempt;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,248 @@
+package com.microcommerce.orderservice.jfr;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Enregistrements JFR pilotables à chaud (/actuator/flightrecording, admin seulement)
+ *
+ * - continuous : tourne dès le démarrage avec les réglages "default" du JDK (~1 % de surcoût),
+ *   bornée en âge et en taille, on récupère les dernières minutes après un pic de latence.
+ *   Démarrer JFR prend quelques secondes : en fast-startup c'est fait en tâche de fond une
+ *   fois l'application prête (start-after-ready)
+ * - on-demand : lancée via POST, réglages "profile" (plus détaillés), durée plafonnée
+ *
+ * GET /actuator/flightrecording            état des enregistrements
+ * POST /actuator/flightrecording           {"durationSeconds": 60, "settings": "profile"}
+ * GET /actuator/flightrecording/{name}     télécharge le .jfr (continuous ou on-demand)
+ *
+ * Les fichiers s'ouvrent dans JDK Mission Control ou avec `jfr print --events microcommerce.* dump.jfr`.
+ */
+@Component
+@Endpoint(id = "flightrecording")
+public class FlightRecordingEndpoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecordingEndpoint.class);
+
+    // Chemin protégé par les configs de sécurité (le dump contient l'environnement du process)
+    public static final String PATH = "/actuator/flightrecording";
+
+    private static final String CONTINUOUS = "continuous";
+    private static final String ON_DEMAND = "on-demand";
+
+    @Value("${jfr.continuous.enabled:true}")
+    private boolean continuousEnabled;
+
+    @Value("${jfr.continuous.max-age:PT15M}")
+    private Duration continuousMaxAge;
+
+    @Value("${jfr.continuous.max-size-mb:64}")
+    private long continuousMaxSizeMb;
+
+    @Value("${jfr.continuous.start-after-ready:false}")
+    private boolean continuousStartAfterReady;
+
+    @Value("${jfr.on-demand.max-duration:PT5M}")
+    private Duration onDemandMaxDuration;
+
+    @Value("${jfr.on-demand.max-size-mb:128}")
+    private long onDemandMaxSizeMb;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private Recording continuous;
+    private Recording onDemand;
+    private Path lastDump;
+
+    @PostConstruct
+    public void init() {
+        if (!continuousStartAfterReady) {
+            startContinuous();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startAfterReady() {
+        if (continuousStartAfterReady) {
+            Thread thread = new Thread(this::startContinuous, "jfr-continuous-start");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    private void startContinuous() {
+        if (!continuousEnabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            continuous = new Recording(Configuration.getConfiguration("default"));
+            continuous.setName("order-service-" + CONTINUOUS);
+            continuous.setMaxAge(continuousMaxAge);
+            continuous.setMaxSize(continuousMaxSizeMb * 1024 * 1024);
+            continuous.setToDisk(true);
+            continuous.start();
+            logger.info("Enregistrement JFR continu démarré ({} max, {} Mo max)", continuousMaxAge, continuousMaxSizeMb);
+        } catch (IOException | ParseException | IllegalStateException e) {
+            // JFR absent ou désactivé sur cette JVM : le service tourne quand même
+            logger.warn("Impossible de démarrer l'enregistrement JFR continu: {}", e.getMessage());
+            continuous = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lock.lock();
+        try {
+            closeQuietly(continuous);
+            closeQuietly(onDemand);
+            deleteLastDump();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        lock.lock();
+        try {
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put(CONTINUOUS, describe(continuous));
+            status.put(ON_DEMAND, describe(onDemand));
+            return status;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Lance un enregistrement ponctuel ; il s'arrête tout seul au bout de la durée demandée
+     */
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> start(@Nullable Integer durationSeconds, @Nullable String settings) {
+        String configurationName = settings != null ? settings : "profile";
+        if (!configurationName.equals("profile") && !configurationName.equals("default")) {
+            return error(WebEndpointResponse.STATUS_BAD_REQUEST, "Réglages invalides", "settings doit valoir profile ou default");
+        }
+        Duration duration = durationSeconds != null && durationSeconds > 0
+            ? Duration.ofSeconds(durationSeconds) : Duration.ofSeconds(60);
+        if (duration.compareTo(onDemandMaxDuration) > 0) {
+            duration = onDemandMaxDuration;
+        }
+
+        lock.lock();
+        try {
+            if (onDemand != null && onDemand.getState() == RecordingState.RUNNING) {
+                return error(409, "Enregistrement déjà en cours", "Attendre la fin de l'enregistrement on-demand");
+            }
+            closeQuietly(onDemand);
+
+            Recording recording = new Recording(Configuration.getConfiguration(configurationName));
+            recording.setName("order-service-" + ON_DEMAND);
+            recording.setDuration(duration);
+            recording.setMaxSize(onDemandMaxSizeMb * 1024 * 1024);
+            recording.setToDisk(true);
+            recording.start();
+            onDemand = recording;
+
+            logger.info("Enregistrement JFR on-demand démarré pour {} (réglages {})", duration, configurationName);
+            return new WebEndpointResponse<>(describe(recording), WebEndpointResponse.STATUS_OK);
+        } catch (IOException | ParseException | IllegalStateException e) {
+            logger.error("Impossible de démarrer l'enregistrement JFR: {}", e.getMessage());
+            return error(WebEndpointResponse.STATUS_INTERNAL_SERVER_ERROR, "Erreur JFR", e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Copie l'enregistrement demandé dans un fichier temporaire et le renvoie
+     * Seul le dernier dump est gardé sur disque
+     */
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> dump(@Selector String name) {
+        lock.lock();
+        try {
+            Recording recording = CONTINUOUS.equals(name) ? continuous : ON_DEMAND.equals(name) ? onDemand : null;
+            if (recording == null || recording.getState() == RecordingState.NEW
+                    || recording.getState() == RecordingState.CLOSED) {
+                return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+            }
+
+            deleteLastDump();
+            Path file = Files.createTempFile("order-service-" + name + "-", ".jfr");
+            recording.dump(file);
+            lastDump = file;
+            return new WebEndpointResponse<>(new FileSystemResource(file), WebEndpointResponse.STATUS_OK);
+        } catch (IOException e) {
+            logger.error("Impossible d'écrire le dump JFR {}: {}", name, e.getMessage());
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_INTERNAL_SERVER_ERROR);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Map<String, Object> describe(Recording recording) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        if (recording == null) {
+            description.put("state", "NONE");
+            return description;
+        }
+        description.put("state", recording.getState().name());
+        description.put("startTime", recording.getStartTime());
+        description.put("duration", recording.getDuration());
+        description.put("maxAge", recording.getMaxAge());
+        description.put("maxSize", recording.getMaxSize());
+        description.put("size", recording.getSize());
+        return description;
+    }
+
+    private static WebEndpointResponse<Map<String, Object>> error(int status, String error, String message) {
+        return new WebEndpointResponse<>(Map.of("error", error, "message", message), status);
+    }
+
+    private void deleteLastDump() {
+        if (lastDump == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(lastDump);
+        } catch (IOException e) {
+            logger.warn("Dump JFR {} non supprimé: {}", lastDump, e.getMessage());
+        }
+        lastDump = null;
+    }
+
+    private static void closeQuietly(Recording recording) {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.microcommerce.orderservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Événement JFR : création d'une commande, avec le temps passé dans chaque phase
+ *
+ * La durée de l'événement couvre toute la création. Les phases sont additives
+ * sur la stack servlet ; en réactif la vérification utilisateur et les lookups
+ * produits tournent en parallèle, leur somme peut dépasser la durée totale.
+ */
+@Name("microcommerce.order.Creation")
+@Label("Order Creation")
+@Category({"Micro Commerce", "Order Service"})
+@Description("Création d'une commande, découpée par phase")
+@StackTrace(false)
+public class OrderCreationEvent extends jdk.jfr.Event {
+
+    @Label("User ID")
+    public String userId;
+
+    @Label("Order ID")
+    public String orderId;
+
+    @Label("Item Count")
+    public int itemCount;
+
+    @Label("Success")
+    public boolean success;
+
+    @Label("User Check")
+    @Timespan(Timespan.NANOSECONDS)
+    public long userCheckTime;
+
+    @Label("Product Lookups")
+    @Description("Toutes les recherches produits (détail dans les événements Product Lookup)")
+    @Timespan(Timespan.NANOSECONDS)
+    public long productLookupTime;
+
+    @Label("Total Calculation")
+    @Timespan(Timespan.NANOSECONDS)
+    public long totalCalculationTime;
+
+    @Label("Save")
+    @Timespan(Timespan.NANOSECONDS)
+    public long saveTime;
+
+    @Label("Publish")
+    @Timespan(Timespan.NANOSECONDS)
+    public long publishTime;
+}
@@ -0,0 +1,33 @@
+package com.microcommerce.orderservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement JFR : changement de statut d'une commande (mise à jour ou annulation)
+ *
+ * Durée : lecture de la commande, sauvegarde et publication de l'événement RabbitMQ.
+ * Les transitions refusées sont aussi enregistrées (accepted = false).
+ */
+@Name("microcommerce.order.StatusTransition")
+@Label("Order Status Transition")
+@Category({"Micro Commerce", "Order Service"})
+@Description("Changement de statut d'une commande")
+@StackTrace(false)
+public class OrderStatusTransitionEvent extends jdk.jfr.Event {
+
+    @Label("Order ID")
+    public String orderId;
+
+    @Label("From")
+    public String fromStatus;
+
+    @Label("To")
+    public String toStatus;
+
+    @Label("Accepted")
+    public boolean accepted;
+}
@@ -0,0 +1,24 @@
+package com.microcommerce.orderservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement JFR : recherche d'un produit pendant une création de commande
+ */
+@Name("microcommerce.order.ProductLookup")
+@Label("Product Lookup")
+@Category({"Micro Commerce", "Order Service"})
+@Description("Vérification et enrichissement d'un article de commande")
+@StackTrace(false)
+public class ProductLookupEvent extends jdk.jfr.Event {
+
+    @Label("Product ID")
+    public String productId;
+
+    @Label("Found")
+    public boolean found;
+}
@@ -0,0 +1,217 @@
+package com.microcommerce.orderservice.listener;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Détection des doublons pour les événements consommés depuis RabbitMQ
+ *
+ * RabbitMQ redélivre les messages lors des redémarrages ou des coupures réseau.
+ * On garde une fenêtre glissante des clés déjà traitées :
+ * - en mémoire, bornée en nombre d'entrées et en durée
+ * - optionnellement dans une collection Mongo avec index TTL,
+ *   pour rester protégé après un redémarrage du service
+ */
+@Component
+public class EventDeduplicator {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventDeduplicator.class);
+
+    static final String PROCESSED_EVENTS_COLLECTION = "processed_events";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${events.dedup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${events.dedup.window:PT10M}")
+    private Duration window;
+
+    @Value("${events.dedup.max-entries:100000}")
+    private int maxEntries;
+
+    @Value("${events.dedup.persistent:false}")
+    private boolean persistent;
+
+    // Clé -> instant d'expiration (ms), dans l'ordre d'insertion pour évincer les plus anciennes
+    private final LinkedHashMap<String, Long> seen = new LinkedHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private Counter checksCounter;
+    private Counter hitsCounter;
+
+    @PostConstruct
+    public void init() {
+        checksCounter = Counter.builder("order.events.dedup.checks")
+            .description("Événements passés au filtre anti-doublons")
+            .register(meterRegistry);
+        hitsCounter = Counter.builder("order.events.dedup.hits")
+            .description("Événements ignorés car déjà traités")
+            .register(meterRegistry);
+        Gauge.builder("order.events.dedup.hit.ratio", this, EventDeduplicator::hitRatio)
+            .description("Proportion d'événements détectés comme doublons")
+            .register(meterRegistry);
+        Gauge.builder("order.events.dedup.entries", this, d -> d.size())
+            .description("Clés gardées en mémoire dans la fenêtre anti-doublons")
+            .register(meterRegistry);
+
+        if (enabled && persistent) {
+            try {
+                mongoTemplate.indexOps(PROCESSED_EVENTS_COLLECTION)
+                    .ensureIndex(new Index().on("processedAt", Sort.Direction.ASC)
+                        .expire(window.getSeconds(), TimeUnit.SECONDS));
+            } catch (Exception e) {
+                logger.error("Impossible de créer l'index TTL sur {}: {}", PROCESSED_EVENTS_COLLECTION, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Marque la clé comme traitée
+     *
+     * @param key la clé de l'événement (null = pas de déduplication possible)
+     * @return true si c'est la première fois qu'on la voit, false si c'est un doublon
+     */
+    public boolean markIfFirst(String key) {
+        if (!enabled || key == null) {
+            return true;
+        }
+
+        checksCounter.increment();
+        long now = System.currentTimeMillis();
+
+        boolean first;
+        lock.lock();
+        try {
+            evictExpired(now);
+            Long expiresAt = seen.get(key);
+            first = expiresAt == null || expiresAt <= now;
+            if (first) {
+                seen.remove(key);
+                seen.put(key, now + window.toMillis());
+                if (seen.size() > maxEntries) {
+                    Iterator<String> eldest = seen.keySet().iterator();
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // Pas vu en mémoire : on demande à Mongo (redémarrage, autre instance)
+        if (first && persistent) {
+            first = markInMongo(key, now);
+        }
+
+        if (!first) {
+            hitsCounter.increment();
+        }
+        return first;
+    }
+
+    /**
+     * Oublie une clé quand le traitement a échoué et que le message n'est pas acquitté
+     * (passage en retry impossible) : la redélivrance doit être traitée normalement.
+     * Appelé par les listeners ; les événements déjà confiés au coalescing sont acquittés,
+     * sans redélivrance possible (au plus une fois si l'instance tombe avant le flush)
+     */
+    public void forget(String key) {
+        if (!enabled || key == null) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            seen.remove(key);
+        } finally {
+            lock.unlock();
+        }
+
+        if (persistent) {
+            try {
+                mongoTemplate.remove(Query.query(Criteria.where("_id").is(key)), PROCESSED_EVENTS_COLLECTION);
+            } catch (Exception e) {
+                logger.error("Impossible de supprimer la clé de déduplication {}: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    private boolean markInMongo(String key, long now) {
+        try {
+            mongoTemplate.insert(Map.of("_id", key, "processedAt", new Date(now)), PROCESSED_EVENTS_COLLECTION);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        } catch (Exception e) {
+            // Mongo indisponible : on préfère traiter que perdre un événement
+            logger.warn("Déduplication persistante indisponible pour {}: {}", key, e.getMessage());
+            return true;
+        }
+    }
+
+    // Les entrées sont dans l'ordre d'insertion avec la même durée, donc expirées en tête
+    private void evictExpired(long now) {
+        Iterator<Map.Entry<String, Long>> iterator = seen.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getValue() > now) {
+                break;
+            }
+            iterator.remove();
+        }
+    }
+
+    private int size() {
+        lock.lock();
+        try {
+            return seen.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private double hitRatio() {
+        double checks = checksCounter.count();
+        return checks == 0 ? 0.0 : hitsCounter.count() / checks;
+    }
+
+    /**
+     * Construit une clé de déduplication
+     * On préfère l'ID du message AMQP, sinon (type d'entité, ID, type d'événement, timestamp)
+     */
+    public static String keyOf(String messageId, String entityType, Object entityId,
+                               Object eventType, Object timestamp) {
+        if (messageId != null) {
+            return entityType + ":msg:" + messageId;
+        }
+        if (entityId == null || timestamp == null) {
+            return null;
+        }
+        return entityType + ":" + entityId + ":" + eventType + ":" + timestamp;
+    }
+}
@@ -0,0 +1,81 @@
+package com.microcommerce.orderservice.listener;
+
+import com.microcommerce.orderservice.config.RabbitMQConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gère l'échec du traitement d'un événement consommé
+ *
+ * Au lieu de perdre le message (ack) ou de le rejeter en boucle (requeue),
+ * on le republie dans la queue d'attente correspondant à la tentative suivante.
+ * Le TTL de cette queue fait office de backoff, puis le message revient
+ * dans la queue .retry. Après le nombre max de tentatives, direction la DLQ.
+ *
+ * Si la republication échoue, l'exception remonte au listener : le message d'origine n'est pas
+ * acquitté et RabbitMQ le relivre, plutôt que de l'acquitter et de perdre l'événement.
+ */
+@Component
+public class EventRetryHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventRetryHandler.class);
+
+    // Headers posés sur les messages republiés
+    public static final String ATTEMPT_HEADER = "x-retry-attempt";
+    public static final String ERROR_HEADER = "x-last-error";
+    public static final String ORIGINAL_QUEUE_HEADER = "x-original-queue";
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private RabbitMQConfig rabbitMQConfig;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Planifie une nouvelle tentative ou envoie l'événement en DLQ
+     *
+     * @param event l'événement qui a échoué
+     * @param sourceQueue la queue principale d'où vient l'événement
+     * @param failedAttempt numéro de la tentative qui vient d'échouer (1 = première livraison)
+     * @param error l'erreur rencontrée
+     * @throws AmqpException si la republication échoue (le message doit être relivré)
+     */
+    public void retryOrDeadLetter(Object event, String sourceQueue, int failedAttempt, Exception error) {
+        String target;
+        String outcome;
+        if (failedAttempt < rabbitMQConfig.getRetryMaxAttempts()) {
+            target = RabbitMQConfig.retryDelayQueue(sourceQueue, failedAttempt);
+            outcome = "retried";
+            logger.warn("Échec de la tentative {} pour {}, nouvel essai dans {} ms",
+                       failedAttempt, event, rabbitMQConfig.retryDelayMs(failedAttempt));
+        } else {
+            target = RabbitMQConfig.deadLetterQueue(sourceQueue);
+            outcome = "dead-lettered";
+            logger.error("Abandon après {} tentatives, envoi en DLQ: {}", failedAttempt, event);
+        }
+
+        try {
+            // Exchange par défaut : le nom de la queue sert de routing key
+            rabbitTemplate.convertAndSend("", target, event, message -> {
+                message.getMessageProperties().setHeader(ATTEMPT_HEADER, failedAttempt + 1);
+                message.getMessageProperties().setHeader(ORIGINAL_QUEUE_HEADER, sourceQueue);
+                message.getMessageProperties().setHeader(ERROR_HEADER, String.valueOf(error.getMessage()));
+                return message;
+            });
+            meterRegistry.counter("order.events.retry", "queue", sourceQueue, "outcome", outcome).increment();
+        } catch (AmqpException e) {
+            logger.error("Impossible de republier l'événement {} vers {}, message relivré: {}",
+                        event, target, e.getMessage());
+            meterRegistry.counter("order.events.retry", "queue", sourceQueue, "outcome", "requeued").increment();
+            throw e;
+        }
+    }
+}
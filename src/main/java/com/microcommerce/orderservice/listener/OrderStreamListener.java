@@ -0,0 +1,30 @@
+package com.microcommerce.orderservice.listener;
+
+import com.microcommerce.orderservice.event.OrderStreamEvent;
+import com.microcommerce.orderservice.service.OrderStreamHub;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reçoit les transitions de statut diffusées par toutes les instances (exchange fanout)
+ * et les passe à l'{@link OrderStreamHub} pour les clients SSE connectés ici
+ *
+ * Pas de dédoublonnage ni de retry : un événement perdu se rattrape par un resync côté client.
+ */
+@Component
+public class OrderStreamListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStreamListener.class);
+
+    @Autowired
+    private OrderStreamHub orderStreamHub;
+
+    @RabbitListener(queues = "#{orderStreamQueue.name}")
+    public void handleOrderStreamEvent(OrderStreamEvent event) {
+        logger.debug("Transition reçue pour les streams SSE: {}", event);
+        orderStreamHub.dispatch(event);
+    }
+}
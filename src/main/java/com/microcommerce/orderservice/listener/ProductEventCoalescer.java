@@ -0,0 +1,182 @@
+package com.microcommerce.orderservice.listener;
+
+import com.microcommerce.orderservice.event.ProductEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Étage de coalescing devant les handlers d'événements produits
+ *
+ * Quand le product-service sauvegarde un produit plusieurs fois d'affilée,
+ * on ne garde que le dernier état par productId sur une petite fenêtre
+ * (ou jusqu'à ce que le lot soit vidé), et on applique juste celui-là.
+ *
+ * Règles de fusion pour un même productId :
+ * - un événement plus ancien (timestamp) que celui en attente est ignoré
+ * - DELETED remplace toujours ce qui est en attente, et rien ne le remplace dans la fenêtre
+ *   (un UPDATED en retard ou redélivré ne doit pas ressusciter le produit)
+ * - UPDATED après CREATED reste un CREATED, avec l'état le plus récent
+ * - sinon le dernier arrivé gagne
+ */
+public class ProductEventCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductEventCoalescer.class);
+
+    private final Consumer<ProductEvent> downstream;
+    private final long windowMs;
+    private final int maxPending;
+
+    // Un seul événement en attente par productId
+    private final Map<String, ProductEvent> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    // Un seul flush immédiat en file quand le lot est plein, pas un par message
+    private final AtomicBoolean immediateFlushQueued = new AtomicBoolean(false);
+    private final ScheduledExecutorService scheduler;
+
+    private final Counter receivedCounter;
+    private final Counter appliedCounter;
+    private final Counter collapsedCounter;
+
+    public ProductEventCoalescer(Consumer<ProductEvent> downstream, long windowMs, int maxPending,
+                                 MeterRegistry meterRegistry) {
+        this.downstream = downstream;
+        this.windowMs = windowMs;
+        this.maxPending = maxPending;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-event-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.receivedCounter = Counter.builder("order.events.product.coalescing")
+            .tag("outcome", "received")
+            .description("Événements produits reçus par l'étage de coalescing")
+            .register(meterRegistry);
+        this.appliedCounter = Counter.builder("order.events.product.coalescing")
+            .tag("outcome", "applied")
+            .description("Événements produits réellement appliqués")
+            .register(meterRegistry);
+        this.collapsedCounter = Counter.builder("order.events.product.coalescing")
+            .tag("outcome", "collapsed")
+            .description("Événements produits écrasés par un état plus récent")
+            .register(meterRegistry);
+        Gauge.builder("order.events.product.coalescing.pending", pending, Map::size)
+            .description("Produits en attente dans la fenêtre de coalescing")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Ajoute un événement dans la fenêtre courante
+     */
+    public void submit(ProductEvent event) {
+        receivedCounter.increment();
+
+        // Sans productId on ne peut rien fusionner, on applique direct
+        if (event.getProductId() == null) {
+            apply(event);
+            return;
+        }
+
+        pending.merge(event.getProductId(), event, this::mergeEvents);
+
+        if (pending.size() >= maxPending) {
+            // Le lot est plein, on le vide tout de suite
+            if (immediateFlushQueued.compareAndSet(false, true)) {
+                scheduler.execute(this::immediateFlush);
+            }
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::flush, windowMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Fusionne l'événement en attente avec le nouvel arrivé
+     * Chaque appel écrase exactement un des deux événements
+     */
+    private ProductEvent mergeEvents(ProductEvent current, ProductEvent incoming) {
+        collapsedCounter.increment();
+
+        // Événement arrivé dans le désordre : on garde l'état le plus récent
+        if (isOlder(incoming, current)) {
+            return current;
+        }
+
+        // Produit supprimé : état final, même si les timestamps manquent
+        if (current.getEventType() == ProductEvent.EventType.DELETED) {
+            return current;
+        }
+
+        if (current.getEventType() == ProductEvent.EventType.CREATED
+                && incoming.getEventType() == ProductEvent.EventType.UPDATED) {
+            // Le produit n'a pas encore été vu : ça reste une création, avec le dernier état
+            incoming.setEventType(ProductEvent.EventType.CREATED);
+        }
+
+        return incoming;
+    }
+
+    private boolean isOlder(ProductEvent candidate, ProductEvent reference) {
+        return candidate.getTimestamp() != null
+            && reference.getTimestamp() != null
+            && candidate.getTimestamp().isBefore(reference.getTimestamp());
+    }
+
+    private void immediateFlush() {
+        // Remis à false avant de vider : un message arrivé pendant le flush peut en redemander un
+        immediateFlushQueued.set(false);
+        flush();
+    }
+
+    /**
+     * Vide la fenêtre et applique le dernier état de chaque produit
+     */
+    public void flush() {
+        flushScheduled.set(false);
+
+        for (String productId : pending.keySet()) {
+            ProductEvent event = pending.remove(productId);
+            if (event != null) {
+                apply(event);
+            }
+        }
+
+        // Des événements arrivés pendant le flush n'ont peut-être pas déclenché de fenêtre
+        if (!pending.isEmpty() && flushScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::flush, windowMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void apply(ProductEvent event) {
+        appliedCounter.increment();
+        try {
+            downstream.accept(event);
+        } catch (Exception e) {
+            // Message d'origine déjà acquitté : si même le passage en retry a échoué, l'événement est perdu
+            logger.error("Erreur lors de l'application de l'événement produit coalescé: {}", event, e);
+        }
+    }
+
+    /**
+     * Vide ce qui reste et arrête le scheduler (arrêt du service)
+     */
+    public void shutdown() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(windowMs * 2, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+}
@@ -2,11 +2,23 @@ package com.microcommerce.orderservice.listener;
 
 import com.microcommerce.orderservice.config.RabbitMQConfig;
 import com.microcommerce.orderservice.event.ProductEvent;
+import com.microcommerce.orderservice.jfr.EventConsumptionEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Listener pour les événements produits dans le Order Service
  * 
@@ -14,36 +26,157 @@ import org.springframework.stereotype.Component;
  * - Valider la disponibilité lors des commandes
  * - Mettre à jour les prix en cache
  * - Gérer les stocks et les réservations
+ * 
+ * Les rafales de mises à jour d'un même produit passent par un
+ * {@link ProductEventCoalescer} : seul le dernier état est appliqué.
+ * Les redélivrances RabbitMQ sont filtrées par l'{@link EventDeduplicator}, sauf celles d'un
+ * message en échec (clé oubliée avant de relancer l'exception).
+ * En cas d'échec, l'{@link EventRetryHandler} replanifie avec backoff puis envoie en DLQ.
+ * Durée de traitement : order.events.processing (listener=product).
  */
 @Component
 public class ProductEventListener {
     
     private static final Logger logger = LoggerFactory.getLogger(ProductEventListener.class);
     
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    // Un timer par type d'événement et par résultat, construit une fois (types en nombre borné)
+    private final Map<String, Timer> successTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> failureTimers = new ConcurrentHashMap<>();
+    
+    @Autowired
+    private EventDeduplicator eventDeduplicator;
+    
+    @Autowired
+    private EventRetryHandler eventRetryHandler;
+    
+    @Value("${events.product.coalescing.enabled:true}")
+    private boolean coalescingEnabled;
+    
+    @Value("${events.product.coalescing.window-ms:200}")
+    private long coalescingWindowMs;
+    
+    @Value("${events.product.coalescing.max-pending:1000}")
+    private int coalescingMaxPending;
+    
+    private ProductEventCoalescer coalescer;
+    
+    @PostConstruct
+    public void initCoalescer() {
+        if (coalescingEnabled) {
+            coalescer = new ProductEventCoalescer(event -> process(event, 1), coalescingWindowMs, 
+                                                  coalescingMaxPending, meterRegistry);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdownCoalescer() {
+        if (coalescer != null) {
+            coalescer.shutdown();
+        }
+    }
+    
     /**
      * Écoute tous les événements produits sur la queue order-service.product.queue
      */
     @RabbitListener(queues = RabbitMQConfig.ORDER_SERVICE_PRODUCT_QUEUE)
-    public void handleProductEvent(ProductEvent productEvent) {
+    public void handleProductEvent(ProductEvent productEvent,
+                                   @Header(name = AmqpHeaders.MESSAGE_ID, required = false) String messageId) {
         logger.info("Événement produit reçu dans Order Service: {}", productEvent);
         
+        String dedupKey = EventDeduplicator.keyOf(messageId, "product", productEvent.getProductId(),
+                                                  productEvent.getEventType(), productEvent.getTimestamp());
+        if (!eventDeduplicator.markIfFirst(dedupKey)) {
+            logger.info("Événement produit déjà traité, ignoré: {}", productEvent);
+            return;
+        }
+        
         try {
-            switch (productEvent.getEventType()) {
-                case CREATED:
-                    handleProductCreated(productEvent);
-                    break;
-                case UPDATED:
-                    handleProductUpdated(productEvent);
-                    break;
-                case DELETED:
-                    handleProductDeleted(productEvent);
-                    break;
-                default:
-                    logger.warn("Type d'événement produit non géré: {}", productEvent.getEventType());
+            if (coalescer != null) {
+                coalescer.submit(productEvent);
+            } else {
+                process(productEvent, 1);
             }
+        } catch (RuntimeException e) {
+            // Message relivré par RabbitMQ : il ne doit pas passer pour un doublon
+            eventDeduplicator.forget(dedupKey);
+            throw e;
+        }
+    }
+    
+    /**
+     * Rejoue les événements produits dont le traitement a échoué
+     * Consommateur séparé (concurrence 1) pour ne pas concurrencer la queue principale
+     */
+    @RabbitListener(queues = RabbitMQConfig.ORDER_SERVICE_PRODUCT_RETRY_QUEUE,
+                    containerFactory = "retryListenerContainerFactory")
+    public void handleProductEventRetry(ProductEvent productEvent,
+                                        @Header(name = EventRetryHandler.ATTEMPT_HEADER, required = false) Integer attempt) {
+        int currentAttempt = attempt != null ? attempt : 2;
+        logger.info("Nouvelle tentative {} pour l'événement produit: {}", currentAttempt, productEvent);
+        
+        // Pas de coalescing ni de déduplication ici : l'événement a déjà passé ces étapes
+        process(productEvent, currentAttempt);
+    }
+    
+    /**
+     * Applique un événement et délègue les échecs au mécanisme de retry
+     */
+    private void process(ProductEvent productEvent, int attempt) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String eventType = productEvent.getEventType() != null ? productEvent.getEventType().name() : "other";
+        EventConsumptionEvent jfrEvent = new EventConsumptionEvent();
+        jfrEvent.begin();
+        jfrEvent.listener = "product";
+        jfrEvent.eventType = eventType;
+        jfrEvent.attempt = attempt;
+        try {
+            dispatch(productEvent);
+            jfrEvent.success = true;
+            sample.stop(processingTimer(eventType, true));
         } catch (Exception e) {
+            sample.stop(processingTimer(eventType, false));
             logger.error("Erreur lors du traitement de l'événement produit: {}", productEvent, e);
-            // En production, on pourrait implémenter un retry ou envoyer vers une DLQ
+            eventRetryHandler.retryOrDeadLetter(productEvent, RabbitMQConfig.ORDER_SERVICE_PRODUCT_QUEUE, attempt, e);
+        } finally {
+            jfrEvent.commit();
+        }
+    }
+    
+    private Timer processingTimer(String eventType, boolean success) {
+        Map<String, Timer> timers = success ? successTimers : failureTimers;
+        Timer timer = timers.get(eventType);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(eventType, type -> Timer.builder("order.events.processing")
+                .description("Durée de traitement des événements reçus")
+                .tag("listener", "product")
+                .tag("event_type", type)
+                .tag("outcome", success ? "success" : "failure")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        }
+        return timer;
+    }
+    
+    /**
+     * Applique un événement produit (après coalescing le cas échéant)
+     */
+    void dispatch(ProductEvent productEvent) {
+        switch (productEvent.getEventType()) {
+            case CREATED:
+                handleProductCreated(productEvent);
+                break;
+            case UPDATED:
+                handleProductUpdated(productEvent);
+                break;
+            case DELETED:
+                handleProductDeleted(productEvent);
+                break;
+            default:
+                logger.warn("Type d'événement produit non géré: {}", productEvent.getEventType());
         }
     }
     
@@ -0,0 +1,20 @@
+package com.microcommerce.orderservice.repository;
+
+import com.microcommerce.orderservice.entity.OrderReplayJob;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository pour les jobs de rejeu d'événements commandes
+ * Sert aussi de stockage des checkpoints
+ */
+@Repository
+public interface OrderReplayJobRepository extends MongoRepository<OrderReplayJob, String> {
+
+    /**
+     * Les jobs les plus récents en premier
+     */
+    List<OrderReplayJob> findAllByOrderByCreatedAtDesc();
+}
@@ -2,12 +2,14 @@ package com.microcommerce.orderservice.repository;
 
 import com.microcommerce.orderservice.entity.Order;
 import com.microcommerce.orderservice.entity.OrderStatus;
+import com.microcommerce.orderservice.entity.OrderVersion;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository pour les opérations CRUD sur les commandes
@@ -24,6 +26,18 @@ public interface OrderRepository extends MongoRepository<Order, String> {
      */
     List<Order> findByUserIdOrderByCreatedAtDesc(String userId);
     
+    /**
+     * Version (id + updatedAt) d'une commande, sans charger le document
+     * Sert à répondre 304 aux GET conditionnels
+     */
+    Optional<OrderVersion> findVersionById(String id);
+    
+    /**
+     * Versions des commandes d'un utilisateur, dans le même ordre que la liste complète
+     * Sert à calculer l'ETag de la liste sans charger les commandes
+     */
+    List<OrderVersion> findVersionsByUserIdOrderByCreatedAtDesc(String userId);
+    
     /**
      * Trouve les commandes par statut
      * Utile pour les tableaux de bord admin
@@ -0,0 +1,92 @@
+package com.microcommerce.orderservice.repository;
+
+import com.microcommerce.orderservice.entity.Order;
+import com.microcommerce.orderservice.entity.OrderStatus;
+import com.microcommerce.orderservice.entity.OrderVersion;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Miroir réactif de {@link OrderRepository} pour la variante WebFlux (profil reactive)
+ *
+ * Les Flux sont alimentés par un curseur MongoDB avec backpressure :
+ * les documents ne sont lus qu'au rythme où le client les consomme.
+ */
+@Repository
+public interface ReactiveOrderRepository extends ReactiveMongoRepository<Order, String> {
+
+    /**
+     * Trouve toutes les commandes d'un utilisateur
+     * Triées par date de création décroissante (plus récentes en premier)
+     */
+    Flux<Order> findByUserIdOrderByCreatedAtDesc(String userId);
+
+    /**
+     * Version (id + updatedAt) d'une commande, sans charger le document
+     */
+    Mono<OrderVersion> findVersionById(String id);
+
+    /**
+     * Versions des commandes d'un utilisateur, dans le même ordre que la liste complète
+     */
+    Flux<OrderVersion> findVersionsByUserIdOrderByCreatedAtDesc(String userId);
+
+    /**
+     * Trouve les commandes par statut
+     */
+    Flux<Order> findByStatusOrderByCreatedAtDesc(OrderStatus status);
+
+    /**
+     * Trouve les commandes d'un utilisateur avec un statut spécifique
+     */
+    Flux<Order> findByUserIdAndStatus(String userId, OrderStatus status);
+
+    /**
+     * Trouve les commandes créées dans une période donnée
+     */
+    Flux<Order> findByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * Trouve les commandes d'un utilisateur dans une période
+     */
+    Flux<Order> findByUserIdAndCreatedAtBetween(String userId, LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * Compte le nombre de commandes par statut
+     */
+    Mono<Long> countByStatus(OrderStatus status);
+
+    /**
+     * Compte les commandes d'un utilisateur
+     */
+    Mono<Long> countByUserId(String userId);
+
+    /**
+     * Trouve les commandes contenant un produit spécifique
+     */
+    @Query("{'items.productId': ?0}")
+    Flux<Order> findByProductId(String productId);
+
+    /**
+     * Trouve les commandes récentes
+     */
+    @Query("{'createdAt': {$gte: ?0}}")
+    Flux<Order> findRecentOrders(LocalDateTime since);
+
+    /**
+     * Trouve les commandes avec un montant minimum
+     */
+    @Query("{'totalAmount': {$gte: ?0}}")
+    Flux<Order> findOrdersWithMinAmount(double minAmount);
+
+    /**
+     * Trouve les commandes en attente depuis plus de X heures
+     */
+    @Query("{'status': 'PENDING', 'createdAt': {$lt: ?0}}")
+    Flux<Order> findPendingOrdersOlderThan(LocalDateTime cutoffDate);
+}
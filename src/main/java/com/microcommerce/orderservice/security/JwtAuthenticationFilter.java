@@ -1,10 +1,13 @@
 package com.microcommerce.orderservice.security;
 
+import com.microcommerce.orderservice.config.SlowRequestsEndpoint;
+import com.microcommerce.orderservice.jfr.FlightRecordingEndpoint;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -20,6 +23,7 @@ import java.util.Collections;
  * Intercepte les requêtes et valide les tokens JWT
  */
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     @Autowired
@@ -31,47 +35,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         final String authorizationHeader = request.getHeader("Authorization");
         
-        String username = null;
-        String jwt = null;
+        JwtUtil.VerifiedToken token = null;
         
         // Vérifier si le header Authorization contient un token Bearer
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7); // Enlever "Bearer "
-            try {
-                username = jwtUtil.extractUsername(jwt);
-            } catch (Exception e) {
-                logger.error("Erreur lors de l'extraction du username du token JWT", e);
-            }
+            String jwt = authorizationHeader.substring(7); // Enlever "Bearer "
+            // Une seule vérification (signature + expiration), en cache ensuite
+            token = jwtUtil.verify(jwt);
         }
         
-        // Si on a un username et qu'aucune authentification n'est déjà en place
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        // Si le token est valide et qu'aucune authentification n'est déjà en place
+        if (token != null && token.getUsername() != null 
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
             
-            // Valider le token
-            if (jwtUtil.validateToken(jwt)) {
-                // Extraire les informations du token
-                String userId = jwtUtil.extractUserId(jwt);
-                String role = jwtUtil.extractRole(jwt);
-                
-                // Créer l'authentification
-                UsernamePasswordAuthenticationToken authToken = 
-                    new UsernamePasswordAuthenticationToken(
-                        username, 
-                        null, 
-                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))
-                    );
-                
-                // Ajouter les détails de la requête
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                
-                // Définir l'authentification dans le contexte de sécurité
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-                
-                // Ajouter les informations utilisateur dans les attributs de la requête
-                request.setAttribute("userId", userId);
-                request.setAttribute("userRole", role);
-                request.setAttribute("username", username);
-            }
+            // Créer l'authentification
+            UsernamePasswordAuthenticationToken authToken = 
+                new UsernamePasswordAuthenticationToken(
+                    token.getUsername(), 
+                    null, 
+                    Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + token.getRole()))
+                );
+            
+            // Ajouter les détails de la requête
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            
+            // Définir l'authentification dans le contexte de sécurité
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+            
+            // Ajouter les informations utilisateur dans les attributs de la requête
+            request.setAttribute("userId", token.getUserId());
+            request.setAttribute("userRole", token.getRole());
+            request.setAttribute("username", token.getUsername());
         }
         
         filterChain.doFilter(request, response);
@@ -80,8 +74,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
         String path = request.getRequestURI();
-        // Ne pas filtrer les endpoints publics
-        return path.startsWith("/actuator/") ||
+        // Ne pas filtrer les endpoints publics (JFR et requêtes lentes sont réservés aux admins)
+        return (path.startsWith("/actuator/") && !path.startsWith(FlightRecordingEndpoint.PATH)
+                    && !path.startsWith(SlowRequestsEndpoint.PATH)) ||
                path.equals("/api/orders/health");
     }
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.microcommerce.orderservice.security;
+
+import com.microcommerce.orderservice.jfr.FlightRecordingEndpoint;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+
+/**
+ * Équivalent WebFlux du {@link JwtAuthenticationFilter} (profil reactive)
+ *
+ * Même vérification unique du token via {@link JwtUtil#verify}, mais l'authentification
+ * est propagée dans le contexte Reactor et les infos utilisateur dans les attributs de l'échange.
+ * Pas un @Component : WebFlux enregistrerait sinon le filtre une deuxième fois hors de la chaîne de sécurité.
+ */
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private final JwtUtil jwtUtil;
+
+    public JwtAuthenticationWebFilter(JwtUtil jwtUtil) {
+        this.jwtUtil = jwtUtil;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().value();
+        // Ne pas filtrer les endpoints publics (l'endpoint JFR est réservé aux admins)
+        if ((path.startsWith("/actuator/") && !path.startsWith(FlightRecordingEndpoint.PATH))
+                || path.equals("/api/orders/health")) {
+            return chain.filter(exchange);
+        }
+
+        String authorizationHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            return chain.filter(exchange);
+        }
+
+        // Vérification en mémoire (cache), pas d'I/O : on peut rester sur l'event loop
+        JwtUtil.VerifiedToken token = jwtUtil.verify(authorizationHeader.substring(7));
+        if (token == null || token.getUsername() == null) {
+            return chain.filter(exchange);
+        }
+
+        UsernamePasswordAuthenticationToken authToken =
+            new UsernamePasswordAuthenticationToken(
+                token.getUsername(),
+                null,
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + token.getRole()))
+            );
+
+        // Mêmes attributs que la version servlet (utilisés par le rate limiting)
+        // Les attributs de l'échange refusent les valeurs nulles
+        putIfNotNull(exchange, "userId", token.getUserId());
+        putIfNotNull(exchange, "userRole", token.getRole());
+        putIfNotNull(exchange, "username", token.getUsername());
+
+        return chain.filter(exchange)
+            .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authToken));
+    }
+
+    private void putIfNotNull(ServerWebExchange exchange, String name, Object value) {
+        if (value != null) {
+            exchange.getAttributes().put(name, value);
+        }
+    }
+}
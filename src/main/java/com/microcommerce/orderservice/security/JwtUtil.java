@@ -2,16 +2,28 @@ package com.microcommerce.orderservice.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 /**
  * Utilitaire JWT pour le Order Service
  * Valide les tokens JWT reçus du User Service
+ *
+ * La clé et le parser sont construits une seule fois, et un token n'est vérifié
+ * (HMAC + parsing) qu'une fois : le résultat est gardé en cache jusqu'à son expiration.
  */
 @Component
 public class JwtUtil {
@@ -19,8 +31,96 @@ public class JwtUtil {
     @Value("${jwt.secret:mySecretKey123456789012345678901234567890}")
     private String secret;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @Value("${jwt.cache.max-entries:10000}")
+    private int cacheMaxEntries;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // Empreinte SHA-256 du token -> token déjà vérifié (on ne garde pas les tokens en clair)
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
+    // Ordre d'insertion des clés, pour évincer la plus ancienne quand le cache est plein
+    // (les tokens ont tous la même durée de vie : le plus ancien est celui qui expire le premier)
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger insertionCount = new AtomicInteger();
+
+    @PostConstruct
+    public void init() {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
+    /**
+     * Vérifie le token une seule fois et retourne ses infos
+     *
+     * @param token le JWT reçu
+     * @return le token vérifié, ou null s'il est invalide ou expiré
+     */
+    public VerifiedToken verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        String cacheKey = hash(token);
+        long now = System.currentTimeMillis();
+
+        VerifiedToken cached = verifiedTokens.get(cacheKey);
+        if (cached != null) {
+            if (cached.expiresAtMillis > now) {
+                return cached;
+            }
+            verifiedTokens.remove(cacheKey, cached);
+            return null;
+        }
+
+        VerifiedToken verified;
+        try {
+            Claims claims = extractAllClaims(token);
+            Date expiration = claims.getExpiration();
+            verified = new VerifiedToken(
+                    claims.getSubject(),
+                    claims.get("userId", String.class),
+                    claims.get("role", String.class),
+                    expiration != null ? expiration.getTime() : Long.MAX_VALUE);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+
+        cache(cacheKey, verified);
+        return verified;
+    }
+
+    /**
+     * Met le token en cache sans dépasser la taille max : au-delà, la clé la plus ancienne sort
+     * O(1) par insertion, pas de parcours du cache sur le chemin des requêtes
+     */
+    private void cache(String cacheKey, VerifiedToken verified) {
+        if (verifiedTokens.putIfAbsent(cacheKey, verified) != null) {
+            // Vérifié en parallèle par une autre requête, déjà en cache
+            return;
+        }
+        insertionOrder.offer(cacheKey);
+        // Une entrée de plus, au plus une de moins : la file (et donc le cache) reste bornée.
+        // Les clés déjà retirées (expirées) y restent jusqu'à leur tour, sans effet
+        if (insertionCount.incrementAndGet() > cacheMaxEntries) {
+            String oldest = insertionOrder.poll();
+            if (oldest != null) {
+                insertionCount.decrementAndGet();
+                verifiedTokens.remove(oldest);
+            }
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return new String(digest, StandardCharsets.ISO_8859_1);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
     }
 
     /**
@@ -47,32 +147,17 @@ public class JwtUtil {
 
     /**
      * Extrait toutes les claims du token
+     * Le parser rejette déjà les tokens expirés (ExpiredJwtException)
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    /**
-     * Vérifie si le token est expiré
-     */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return parser.parseClaimsJws(token).getBody();
     }
 
     /**
      * Valide le token
      */
     public Boolean validateToken(String token) {
-        try {
-            extractAllClaims(token);
-            return !isTokenExpired(token);
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
-        }
+        return verify(token) != null;
     }
 
     /**
@@ -88,4 +173,26 @@ public class JwtUtil {
     public String extractRole(String token) {
         return extractClaim(token, claims -> claims.get("role", String.class));
     }
-}
\ No newline at end of file
+
+    /**
+     * Infos d'un token dont la signature et l'expiration ont été vérifiées
+     */
+    public static final class VerifiedToken {
+        private final String username;
+        private final String userId;
+        private final String role;
+        private final long expiresAtMillis;
+
+        public VerifiedToken(String username, String userId, String role, long expiresAtMillis) {
+            this.username = username;
+            this.userId = userId;
+            this.role = role;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        public String getUsername() { return username; }
+        public String getUserId() { return userId; }
+        public String getRole() { return role; }
+        public long getExpiresAtMillis() { return expiresAtMillis; }
+    }
+}
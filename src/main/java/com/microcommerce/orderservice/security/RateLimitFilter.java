@@ -0,0 +1,188 @@
+package com.microcommerce.orderservice.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limitation de débit par utilisateur et par groupe d'endpoints
+ *
+ * Placé juste après le JwtAuthenticationFilter : la clé est l'attribut userId
+ * posé par ce filtre, ou l'adresse IP du client si la requête n'est pas authentifiée.
+ * Au-delà du débit autorisé, on répond 429 avec un header Retry-After.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    /**
+     * Groupes d'endpoints, chacun avec son propre débit
+     */
+    public enum EndpointGroup {
+        CREATE, // POST /api/orders
+        WRITE,  // PUT / DELETE /api/orders/**
+        READ    // GET /api/orders/**
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate-limit.max-tracked-keys:100000}")
+    private int maxTrackedKeys;
+
+    @Value("${rate-limit.exempt-roles:ADMIN}")
+    private Set<String> exemptRoles;
+
+    @Value("${rate-limit.create.rate-per-second:2}")
+    private double createRate;
+
+    @Value("${rate-limit.create.burst:10}")
+    private int createBurst;
+
+    @Value("${rate-limit.write.rate-per-second:5}")
+    private double writeRate;
+
+    @Value("${rate-limit.write.burst:20}")
+    private int writeBurst;
+
+    @Value("${rate-limit.read.rate-per-second:20}")
+    private double readRate;
+
+    @Value("${rate-limit.read.burst:50}")
+    private int readBurst;
+
+    private final Map<EndpointGroup, TokenBucketRateLimiter> limiters = new EnumMap<>(EndpointGroup.class);
+    private final Map<EndpointGroup, Counter> rejectedCounters = new EnumMap<>(EndpointGroup.class);
+
+    private final ScheduledExecutorService evictionScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rate-limit-eviction");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void init() {
+        limiters.put(EndpointGroup.CREATE, new TokenBucketRateLimiter(createRate, createBurst, maxTrackedKeys));
+        limiters.put(EndpointGroup.WRITE, new TokenBucketRateLimiter(writeRate, writeBurst, maxTrackedKeys));
+        limiters.put(EndpointGroup.READ, new TokenBucketRateLimiter(readRate, readBurst, maxTrackedKeys));
+
+        for (Map.Entry<EndpointGroup, TokenBucketRateLimiter> entry : limiters.entrySet()) {
+            String group = entry.getKey().name().toLowerCase();
+            rejectedCounters.put(entry.getKey(), Counter.builder("order.ratelimit.rejected")
+                .tag("group", group)
+                .description("Requêtes refusées (429) par le rate limiter")
+                .register(meterRegistry));
+            Gauge.builder("order.ratelimit.tracked.keys", entry.getValue(), TokenBucketRateLimiter::trackedKeys)
+                .tag("group", group)
+                .description("Clés suivies individuellement par le rate limiter")
+                .register(meterRegistry);
+        }
+
+        // Purge des buckets inactifs pour borner la mémoire
+        evictionScheduler.scheduleWithFixedDelay(
+            () -> limiters.values().forEach(TokenBucketRateLimiter::evictIdle), 30, 30, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        evictionScheduler.shutdownNow();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        long waitNanos = tryAcquire(request.getMethod(), request.getAttribute("userId"),
+            request.getAttribute("userRole"), request.getRemoteAddr());
+        if (waitNanos > 0) {
+            reject(response, waitNanos);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Décision du rate limiter, partagée avec la variante réactive (ReactiveSecurityConfig)
+     *
+     * @return 0 si la requête passe, sinon l'attente en nanosecondes avant le prochain jeton
+     */
+    public long tryAcquire(String method, Object userId, Object role, String remoteAddr) {
+        if (role != null && exemptRoles.contains(role.toString())) {
+            return 0;
+        }
+
+        EndpointGroup group = resolveGroup(method);
+        String key = userId != null ? userId.toString() : remoteAddr;
+
+        long waitNanos = limiters.get(group).tryAcquire(key);
+        if (waitNanos > 0) {
+            rejectedCounters.get(group).increment();
+        }
+        return waitNanos;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private EndpointGroup resolveGroup(String method) {
+        switch (method) {
+            case "POST":
+                return EndpointGroup.CREATE;
+            case "PUT":
+            case "DELETE":
+            case "PATCH":
+                return EndpointGroup.WRITE;
+            default:
+                return EndpointGroup.READ;
+        }
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = retryAfterSeconds(waitNanos);
+
+        response.setStatus(429);
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(rejectionBody(retryAfterSeconds));
+    }
+
+    public static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+    }
+
+    public static String rejectionBody(long retryAfterSeconds) {
+        return "{\"status\":429,\"error\":\"Too Many Requests\","
+            + "\"message\":\"Trop de requêtes, réessayez dans " + retryAfterSeconds + " s\","
+            + "\"service\":\"order-service\"}";
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
+        // Seules les APIs commandes sont limitées
+        return !enabled || !request.getRequestURI().startsWith("/api/orders");
+    }
+}
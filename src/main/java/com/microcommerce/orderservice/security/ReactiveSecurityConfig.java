@@ -0,0 +1,136 @@
+package com.microcommerce.orderservice.security;
+
+import com.microcommerce.orderservice.jfr.FlightRecordingEndpoint;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Configuration de sécurité de la variante réactive (profil reactive)
+ *
+ * Mêmes règles que {@link SecurityConfig} : JWT sans session, admin réservé au rôle ADMIN,
+ * rate limiting par utilisateur juste après l'authentification.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+public class ReactiveSecurityConfig {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    /**
+     * Configuration de la chaîne de filtres de sécurité
+     */
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        http.csrf(ServerHttpSecurity.CsrfSpec::disable)
+            .cors(cors -> cors.configurationSource(reactiveCorsConfigurationSource()))
+            .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+            .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+            .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+            .authorizeExchange(exchanges -> exchanges
+                // Enregistrements JFR : contiennent l'environnement du process
+                .pathMatchers(FlightRecordingEndpoint.PATH, FlightRecordingEndpoint.PATH + "/**").hasRole("ADMIN")
+                // Endpoints publics
+                .pathMatchers("/actuator/**").permitAll()
+                .pathMatchers("/api/orders/health").permitAll()
+                // Endpoints protégés
+                .pathMatchers("/api/orders/admin/**").hasRole("ADMIN")
+                .pathMatchers("/api/orders/**").authenticated()
+                .anyExchange().authenticated()
+            )
+            .exceptionHandling(ex -> ex.authenticationEntryPoint(
+                (exchange, e) -> writeJson(exchange.getResponse(), HttpStatus.UNAUTHORIZED,
+                    unauthorizedBody(exchange))))
+            .addFilterAt(new JwtAuthenticationWebFilter(jwtUtil), SecurityWebFiltersOrder.AUTHENTICATION)
+            // Le rate limiting a besoin des attributs userId / userRole posés par le filtre JWT
+            .addFilterAfter(rateLimitWebFilter(), SecurityWebFiltersOrder.AUTHENTICATION);
+
+        return http.build();
+    }
+
+    /**
+     * Configuration CORS
+     */
+    @Bean
+    public CorsConfigurationSource reactiveCorsConfigurationSource() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.setAllowedOriginPatterns(List.of("*"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setAllowCredentials(true);
+
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", configuration);
+        return source;
+    }
+
+    private WebFilter rateLimitWebFilter() {
+        return (exchange, chain) -> {
+            // Seules les APIs commandes sont limitées
+            if (!rateLimitFilter.isEnabled()
+                    || !exchange.getRequest().getPath().value().startsWith("/api/orders")) {
+                return chain.filter(exchange);
+            }
+
+            long waitNanos = rateLimitFilter.tryAcquire(exchange.getRequest().getMethod().name(),
+                exchange.getAttribute("userId"), exchange.getAttribute("userRole"), remoteAddr(exchange));
+            if (waitNanos <= 0) {
+                return chain.filter(exchange);
+            }
+
+            long retryAfterSeconds = RateLimitFilter.retryAfterSeconds(waitNanos);
+            ServerHttpResponse response = exchange.getResponse();
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            return writeJson(response, HttpStatus.TOO_MANY_REQUESTS, RateLimitFilter.rejectionBody(retryAfterSeconds));
+        };
+    }
+
+    private String remoteAddr(ServerWebExchange exchange) {
+        InetSocketAddress address = exchange.getRequest().getRemoteAddress();
+        return address != null ? address.getHostString() : "unknown";
+    }
+
+    private String unauthorizedBody(ServerWebExchange exchange) {
+        return "{\"timestamp\":\"" + LocalDateTime.now() + "\",\"status\":401,\"error\":\"Unauthorized\","
+            + "\"message\":\"Accès non autorisé au Order Service. Token JWT requis.\","
+            + "\"path\":\"" + exchange.getRequest().getPath().value() + "\","
+            + "\"service\":\"order-service\"}";
+    }
+
+    private Mono<Void> writeJson(ServerHttpResponse response, HttpStatus status, String body) {
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBuffer buffer = response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(buffer));
+    }
+}
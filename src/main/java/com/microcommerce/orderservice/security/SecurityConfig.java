@@ -1,6 +1,9 @@
 package com.microcommerce.orderservice.security;
 
+import com.microcommerce.orderservice.config.SlowRequestsEndpoint;
+import com.microcommerce.orderservice.jfr.FlightRecordingEndpoint;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -21,6 +24,7 @@ import java.util.List;
  * Protège les endpoints avec JWT
  */
 @Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
 public class SecurityConfig {
@@ -31,6 +35,9 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
 
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
     /**
      * Configuration de la chaîne de filtres de sécurité
      */
@@ -40,6 +47,10 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
+                // Enregistrements JFR : contiennent l'environnement du process
+                .requestMatchers(FlightRecordingEndpoint.PATH, FlightRecordingEndpoint.PATH + "/**").hasRole("ADMIN")
+                // Requêtes lentes : contiennent des IDs de commandes
+                .requestMatchers(SlowRequestsEndpoint.PATH).hasRole("ADMIN")
                 // Endpoints publics
                 .requestMatchers("/actuator/**").permitAll()
                 .requestMatchers("/api/orders/health").permitAll()
@@ -49,7 +60,9 @@ public class SecurityConfig {
                 .anyRequest().authenticated()
             )
             .exceptionHandling(ex -> ex.authenticationEntryPoint(jwtAuthenticationEntryPoint))
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            // Le rate limiting a besoin des attributs userId / userRole posés par le filtre JWT
+            .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
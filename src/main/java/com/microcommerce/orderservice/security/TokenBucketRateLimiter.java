@@ -0,0 +1,98 @@
+package com.microcommerce.orderservice.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Token bucket sans verrou, une instance par groupe d'endpoints
+ *
+ * Chaque bucket est un seul AtomicLong (algorithme GCRA) : on y stocke l'instant
+ * théorique où le bucket sera de nouveau plein. Une requête = un CAS, pas de lock,
+ * pas d'allocation une fois le bucket créé.
+ *
+ * Mémoire bornée : les buckets pleins (clé inactive) sont purgés par {@link #evictIdle},
+ * et au-delà de maxKeys les nouvelles clés partagent des buckets "stripés" par hash.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final int STRIPES = 4096; // puissance de 2
+
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final int maxKeys;
+    
+    // Les instants sont relatifs à la création, donc toujours positifs (nanoTime peut être négatif)
+    private final long baseNanos = System.nanoTime();
+
+    // Clé -> instant théorique (nanoTime) où le bucket sera plein
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLongArray overflowStripes = new AtomicLongArray(STRIPES);
+
+    /**
+     * @param ratePerSecond jetons rechargés par seconde
+     * @param burst taille du bucket (requêtes acceptées d'un coup)
+     * @param maxKeys nombre max de clés suivies individuellement
+     */
+    public TokenBucketRateLimiter(double ratePerSecond, int burst, int maxKeys) {
+        this.emissionIntervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        this.burstNanos = emissionIntervalNanos * Math.max(1, burst);
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Tente de consommer un jeton
+     *
+     * @return 0 si la requête passe, sinon le temps d'attente en nanosecondes
+     */
+    public long tryAcquire(String key) {
+        long nowNanos = System.nanoTime() - baseNanos;
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() < maxKeys) {
+                bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(nowNanos));
+            } else {
+                return tryAcquireStripe(key.hashCode() & (STRIPES - 1), nowNanos);
+            }
+        }
+
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, nowNanos) + emissionIntervalNanos;
+            long waitNanos = next - nowNanos - burstNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private long tryAcquireStripe(int stripe, long nowNanos) {
+        while (true) {
+            long fullAt = overflowStripes.get(stripe);
+            long next = Math.max(fullAt, nowNanos) + emissionIntervalNanos;
+            long waitNanos = next - nowNanos - burstNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (overflowStripes.compareAndSet(stripe, fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Supprime les buckets redevenus pleins : les recréer plus tard donne le même résultat
+     */
+    public void evictIdle() {
+        long nowNanos = System.nanoTime() - baseNanos;
+        buckets.values().removeIf(bucket -> bucket.get() <= nowNanos);
+    }
+
+    public int trackedKeys() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,145 @@
+package com.microcommerce.orderservice.service;
+
+import com.microcommerce.orderservice.config.RabbitMQConfig;
+import com.microcommerce.orderservice.listener.EventRetryHandler;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.GetResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service d'administration des DLQ des événements consommés
+ *
+ * Permet de consulter les messages en DLQ sans les consommer,
+ * et de les rejouer par lots. Les messages rejoués passent par la queue .retry
+ * (consommateur à concurrence 1) pour ne pas concurrencer le trafic normal.
+ */
+@Service
+public class DeadLetterQueueService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeadLetterQueueService.class);
+
+    // Borne les lots pour ne pas garder trop de messages non acquittés sur un channel
+    public static final int MAX_BATCH_SIZE = 500;
+
+    private static final Map<String, String> SOURCE_QUEUES = Map.of(
+        "product", RabbitMQConfig.ORDER_SERVICE_PRODUCT_QUEUE,
+        "user", RabbitMQConfig.ORDER_SERVICE_USER_QUEUE
+    );
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private AmqpAdmin amqpAdmin;
+
+    /**
+     * Nombre de messages en attente dans la DLQ d'une source
+     */
+    public long countMessages(String source) {
+        QueueInformation info = amqpAdmin.getQueueInfo(RabbitMQConfig.deadLetterQueue(resolveQueue(source)));
+        return info != null ? info.getMessageCount() : 0;
+    }
+
+    /**
+     * Consulte les premiers messages de la DLQ sans les retirer
+     */
+    public List<Map<String, Object>> peekMessages(String source, int limit) {
+        String dlq = RabbitMQConfig.deadLetterQueue(resolveQueue(source));
+        int batchSize = boundedBatchSize(limit);
+
+        return rabbitTemplate.execute(channel -> {
+            List<Map<String, Object>> messages = new ArrayList<>();
+            long lastDeliveryTag = -1;
+
+            for (int i = 0; i < batchSize; i++) {
+                GetResponse response = channel.basicGet(dlq, false);
+                if (response == null) {
+                    break;
+                }
+                messages.add(describe(response));
+                lastDeliveryTag = response.getEnvelope().getDeliveryTag();
+            }
+
+            // On remet tout dans la DLQ
+            if (lastDeliveryTag >= 0) {
+                channel.basicNack(lastDeliveryTag, true, true);
+            }
+            return messages;
+        });
+    }
+
+    /**
+     * Rejoue un lot de messages de la DLQ
+     * Chaque message repart avec un compteur de tentatives remis à zéro
+     *
+     * @return le nombre de messages rejoués
+     */
+    public int replayMessages(String source, int batchSize) {
+        String queue = resolveQueue(source);
+        String dlq = RabbitMQConfig.deadLetterQueue(queue);
+        String retryQueue = RabbitMQConfig.retryQueue(queue);
+        int boundedSize = boundedBatchSize(batchSize);
+
+        Integer replayed = rabbitTemplate.execute(channel -> {
+            int count = 0;
+            for (int i = 0; i < boundedSize; i++) {
+                GetResponse response = channel.basicGet(dlq, false);
+                if (response == null) {
+                    break;
+                }
+
+                Map<String, Object> headers = new HashMap<>();
+                if (response.getProps().getHeaders() != null) {
+                    headers.putAll(response.getProps().getHeaders());
+                }
+                headers.put(EventRetryHandler.ATTEMPT_HEADER, 1);
+                AMQP.BasicProperties properties = response.getProps().builder().headers(headers).build();
+
+                // Republication avant l'ack : au pire un doublon, jamais une perte
+                channel.basicPublish("", retryQueue, properties, response.getBody());
+                channel.basicAck(response.getEnvelope().getDeliveryTag(), false);
+                count++;
+            }
+            return count;
+        });
+
+        logger.info("{} message(s) rejoué(s) depuis la DLQ {}", replayed, dlq);
+        return replayed != null ? replayed : 0;
+    }
+
+    private Map<String, Object> describe(GetResponse response) {
+        Map<String, Object> message = new LinkedHashMap<>();
+        Map<String, Object> headers = response.getProps().getHeaders();
+        if (headers != null) {
+            message.put("attempts", headers.get(EventRetryHandler.ATTEMPT_HEADER));
+            message.put("lastError", String.valueOf(headers.get(EventRetryHandler.ERROR_HEADER)));
+        }
+        message.put("body", new String(response.getBody(), StandardCharsets.UTF_8));
+        return message;
+    }
+
+    private String resolveQueue(String source) {
+        String queue = SOURCE_QUEUES.get(source);
+        if (queue == null) {
+            throw new IllegalArgumentException("Source inconnue: " + source + " (attendu: " + SOURCE_QUEUES.keySet() + ")");
+        }
+        return queue;
+    }
+
+    private int boundedBatchSize(int requested) {
+        return Math.max(1, Math.min(requested, MAX_BATCH_SIZE));
+    }
+}
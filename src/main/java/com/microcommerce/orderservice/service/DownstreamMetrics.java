@@ -0,0 +1,99 @@
+package com.microcommerce.orderservice.service;
+
+import com.microcommerce.orderservice.config.RequestTrace;
+import com.microcommerce.orderservice.jfr.DownstreamCallEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Latence et résultat des appels aux autres services (order.downstream.requests)
+ *
+ * Tags : service (product, user), operation (nom de la méthode du client) et outcome :
+ * success, not_found, client_error, server_error, timeout, connect_error, error, cancelled.
+ * À poser avant le onErrorResume du client, sinon les erreurs sont vues comme des réponses vides.
+ * Chaque appel émet aussi un événement JFR {@link DownstreamCallEvent} et s'ajoute à la
+ * {@link RequestTrace} de la requête servlet qui l'a lancé (requêtes lentes).
+ */
+@Component
+public class DownstreamMetrics {
+
+    private static final String TIMER_NAME = "order.downstream.requests";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // service -> operation -> outcome -> timer : construits une fois, lus sans allocation
+    private final Map<String, Map<String, Map<String, Timer>>> timers = new ConcurrentHashMap<>();
+
+    /**
+     * Chronomètre l'appel à chaque souscription
+     */
+    public <T> Mono<T> record(String service, String operation, Mono<T> call) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            DownstreamCallEvent jfrEvent = new DownstreamCallEvent();
+            jfrEvent.begin();
+            // Souscription faite sur le thread de la requête (block() côté servlet)
+            RequestTrace.Downstream trace = RequestTrace.downstream();
+            long startNanos = System.nanoTime();
+            return call
+                .doOnSuccess(value -> stop(sample, jfrEvent, trace, startNanos, service, operation, "success"))
+                .doOnError(e -> stop(sample, jfrEvent, trace, startNanos, service, operation, outcomeOf(e)))
+                .doOnCancel(() -> stop(sample, jfrEvent, trace, startNanos, service, operation, "cancelled"));
+        });
+    }
+
+    private void stop(Timer.Sample sample, DownstreamCallEvent jfrEvent, RequestTrace.Downstream trace,
+                      long startNanos, String service, String operation, String outcome) {
+        if (trace != null) {
+            trace.complete(service, operation, outcome, System.nanoTime() - startNanos);
+        }
+        jfrEvent.service = service;
+        jfrEvent.operation = operation;
+        jfrEvent.outcome = outcome;
+        jfrEvent.commit();
+        sample.stop(timer(service, operation, outcome));
+    }
+
+    private Timer timer(String service, String operation, String outcome) {
+        Map<String, Timer> byOutcome = timers.computeIfAbsent(service, key -> new ConcurrentHashMap<>())
+            .computeIfAbsent(operation, key -> new ConcurrentHashMap<>());
+        Timer timer = byOutcome.get(outcome);
+        if (timer == null) {
+            timer = byOutcome.computeIfAbsent(outcome, key -> Timer.builder(TIMER_NAME)
+                .description("Appels aux services product et user")
+                .tag("service", service)
+                .tag("operation", operation)
+                .tag("outcome", key)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        }
+        return timer;
+    }
+
+    private static String outcomeOf(Throwable e) {
+        if (e instanceof WebClientResponseException.NotFound) {
+            return "not_found";
+        }
+        if (e instanceof WebClientResponseException response) {
+            return response.getStatusCode().is4xxClientError() ? "client_error" : "server_error";
+        }
+        if (e instanceof TimeoutException) {
+            return "timeout";
+        }
+        if (e instanceof WebClientRequestException) {
+            return "connect_error";
+        }
+        return "error";
+    }
+}
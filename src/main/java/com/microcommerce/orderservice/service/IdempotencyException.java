@@ -0,0 +1,26 @@
+package com.microcommerce.orderservice.service;
+
+/**
+ * Requête refusée par le contrôle d'idempotence ({@link IdempotencyService})
+ */
+public class IdempotencyException extends RuntimeException {
+
+    /**
+     * Raisons possibles du refus
+     */
+    public enum Reason {
+        KEY_REUSED,   // Même clé, contenu différent : erreur du client
+        IN_PROGRESS   // La première requête tourne encore (autre instance), le client réessaie plus tard
+    }
+
+    private final Reason reason;
+
+    public IdempotencyException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,403 @@
+package com.microcommerce.orderservice.service;
+
+import com.microcommerce.orderservice.entity.IdempotencyRecord;
+import com.microcommerce.orderservice.entity.Order;
+import com.microcommerce.orderservice.entity.OrderItem;
+import com.microcommerce.orderservice.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Idempotence des créations de commande (header Idempotency-Key)
+ *
+ * Les clients mobiles rejouent le POST quand il part en timeout. Avec une clé :
+ * - la première requête réserve la clé dans Mongo (collection idempotency_keys, index TTL)
+ *   puis y enregistre l'ID de la commande créée
+ * - un doublon concurrent sur la même instance attend le résultat de la première requête
+ * - un doublon arrivé après coup récupère la commande déjà créée : pas d'appel user/product,
+ *   pas de save, pas d'événement
+ *
+ * Un cache mémoire borné évite d'aller dans Mongo pour les retries rapprochés. Mongo reste
+ * la référence entre instances et après un redémarrage.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long IN_FLIGHT_POLL_MS = 100;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${idempotency.ttl:PT24H}")
+    private Duration ttl;
+
+    @Value("${idempotency.in-flight-timeout:PT10S}")
+    private Duration inFlightTimeout;
+
+    @Value("${idempotency.stale-after:PT1M}")
+    private Duration staleAfter;
+
+    @Value("${idempotency.cache.max-entries:10000}")
+    private int cacheMaxEntries;
+
+    @Value("${idempotency.cache.ttl:PT10M}")
+    private Duration cacheTtl;
+
+    // Clé -> résultat (en cours ou terminé), dans l'ordre d'insertion pour évincer les plus anciennes
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private Counter createdCounter;
+    private Counter replayedCounter;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    public void init() {
+        createdCounter = Counter.builder("order.idempotency.requests")
+            .tag("outcome", "created")
+            .description("Créations de commande avec Idempotency-Key")
+            .register(meterRegistry);
+        replayedCounter = Counter.builder("order.idempotency.requests")
+            .tag("outcome", "replayed")
+            .description("Créations de commande avec Idempotency-Key")
+            .register(meterRegistry);
+        rejectedCounter = Counter.builder("order.idempotency.requests")
+            .tag("outcome", "rejected")
+            .description("Créations de commande avec Idempotency-Key")
+            .register(meterRegistry);
+
+        // En tâche de fond : si Mongo n'est pas encore joignable, le démarrage n'attend pas le timeout
+        CompletableFuture.runAsync(this::ensureTtlIndex);
+    }
+
+    private void ensureTtlIndex() {
+        try {
+            mongoTemplate.indexOps(IdempotencyRecord.class)
+                .ensureIndex(new Index().on("createdAt", Sort.Direction.ASC)
+                    .expire(ttl.getSeconds(), TimeUnit.SECONDS));
+        } catch (Exception e) {
+            logger.error("Impossible de créer l'index TTL des clés d'idempotence: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Vérifie le format d'une clé (non vide, 255 caractères max)
+     */
+    public static boolean isValidKey(String key) {
+        return key != null && !key.isBlank() && key.length() <= MAX_KEY_LENGTH;
+    }
+
+    /**
+     * Crée la commande une seule fois pour une clé donnée
+     *
+     * @param scope  l'utilisateur authentifié, les clés sont propres à chaque utilisateur
+     * @param key    la valeur du header Idempotency-Key
+     * @param order  la commande reçue (avant enrichissement), pour l'empreinte
+     * @param create la création réelle, appelée seulement pour la première requête
+     * @throws IdempotencyException clé réutilisée avec un autre contenu, ou requête encore en cours
+     */
+    public Outcome createOnce(String scope, String key, Order order, Supplier<Order> create) {
+        String id = scope + ":" + key;
+        String fingerprint = fingerprint(order);
+        CompletableFuture<String> result = new CompletableFuture<>();
+
+        Entry entry = getOrRegister(id, fingerprint, result);
+        if (entry.result != result) {
+            // Doublon vu par cette instance : on attend (ou on reprend) le résultat de la première requête
+            checkFingerprint(entry.fingerprint, fingerprint, key);
+            return replay(await(entry.result, key));
+        }
+
+        String existingOrderId;
+        try {
+            existingOrderId = claim(id, fingerprint, key);
+        } catch (RuntimeException e) {
+            // La clé appartient à une autre requête (ou Mongo est indisponible) : rien à libérer
+            forget(id, result);
+            result.completeExceptionally(e);
+            throw e;
+        }
+        if (existingOrderId != null) {
+            result.complete(existingOrderId);
+            return replay(existingOrderId);
+        }
+
+        Order created;
+        try {
+            created = create.get();
+        } catch (RuntimeException e) {
+            // Échec de la création : la clé est libérée, un retry repassera normalement
+            release(id);
+            forget(id, result);
+            result.completeExceptionally(e);
+            throw e;
+        }
+
+        complete(id, created.getId());
+        result.complete(created.getId());
+        createdCounter.increment();
+        return new Outcome(created, false);
+    }
+
+    /**
+     * Réserve la clé dans Mongo
+     *
+     * @return l'ID de la commande si la clé a déjà été traitée, null si c'est à nous de créer
+     */
+    private String claim(String id, String fingerprint, String key) {
+        long deadline = System.nanoTime() + inFlightTimeout.toNanos();
+        while (true) {
+            try {
+                mongoTemplate.insert(new IdempotencyRecord(id, fingerprint));
+                return null;
+            } catch (DuplicateKeyException e) {
+                // Déjà connue : autre instance, ou avant un redémarrage
+            }
+
+            IdempotencyRecord existing = mongoTemplate.findById(id, IdempotencyRecord.class);
+            if (existing == null) {
+                continue; // Libérée entre-temps, on retente l'insert
+            }
+            checkFingerprint(existing.getFingerprint(), fingerprint, key);
+            if (existing.getStatus() == IdempotencyRecord.Status.COMPLETED) {
+                return existing.getOrderId();
+            }
+            if (existing.getCreatedAt().isBefore(LocalDateTime.now().minus(staleAfter)) && takeOver(existing)) {
+                // L'instance qui l'avait réservée est tombée en cours de route
+                logger.warn("Clé d'idempotence {} abandonnée, reprise", id);
+                return null;
+            }
+            if (System.nanoTime() > deadline) {
+                rejectedCounter.increment();
+                throw new IdempotencyException(IdempotencyException.Reason.IN_PROGRESS,
+                    "Requête avec la clé " + key + " toujours en cours");
+            }
+            sleep();
+        }
+    }
+
+    private boolean takeOver(IdempotencyRecord existing) {
+        Query query = Query.query(Criteria.where("_id").is(existing.getId())
+            .and("status").is(IdempotencyRecord.Status.IN_PROGRESS)
+            .and("createdAt").is(existing.getCreatedAt()));
+        return mongoTemplate.updateFirst(query, Update.update("createdAt", LocalDateTime.now()),
+            IdempotencyRecord.class).getModifiedCount() == 1;
+    }
+
+    private void complete(String id, String orderId) {
+        try {
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id)),
+                Update.update("status", IdempotencyRecord.Status.COMPLETED).set("orderId", orderId),
+                IdempotencyRecord.class);
+        } catch (Exception e) {
+            // La commande existe : le cache mémoire couvre encore les retries sur cette instance
+            logger.error("Impossible d'enregistrer la commande {} pour la clé {}: {}", orderId, id, e.getMessage());
+        }
+    }
+
+    private void release(String id) {
+        try {
+            mongoTemplate.remove(Query.query(Criteria.where("_id").is(id)
+                .and("status").is(IdempotencyRecord.Status.IN_PROGRESS)), IdempotencyRecord.class);
+        } catch (Exception e) {
+            logger.error("Impossible de libérer la clé d'idempotence {}: {}", id, e.getMessage());
+        }
+    }
+
+    private String await(CompletableFuture<String> result, String key) {
+        try {
+            return result.get(inFlightTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // Même erreur que la première requête
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (TimeoutException e) {
+            rejectedCounter.increment();
+            throw new IdempotencyException(IdempotencyException.Reason.IN_PROGRESS,
+                "Requête avec la clé " + key + " toujours en cours");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyException(IdempotencyException.Reason.IN_PROGRESS,
+                "Requête avec la clé " + key + " toujours en cours");
+        }
+    }
+
+    private Outcome replay(String orderId) {
+        replayedCounter.increment();
+        logger.info("Création rejouée, commande déjà créée: {}", orderId);
+        return new Outcome(loadOrder(orderId), true);
+    }
+
+    private Order loadOrder(String orderId) {
+        return orderRepository.findById(orderId)
+            .orElseThrow(() -> new RuntimeException("Commande introuvable: " + orderId));
+    }
+
+    private void checkFingerprint(String expected, String actual, String key) {
+        if (!expected.equals(actual)) {
+            rejectedCounter.increment();
+            throw new IdempotencyException(IdempotencyException.Reason.KEY_REUSED,
+                "La clé " + key + " a déjà servi pour une autre commande");
+        }
+    }
+
+    private Entry getOrRegister(String id, String fingerprint, CompletableFuture<String> result) {
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            evictExpired(now);
+            Entry existing = entries.get(id);
+            if (existing != null) {
+                return existing;
+            }
+            Entry entry = new Entry(fingerprint, result, now + cacheTtl.toMillis());
+            entries.put(id, entry);
+            if (entries.size() > cacheMaxEntries) {
+                Iterator<String> eldest = entries.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+            return entry;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void forget(String id, CompletableFuture<String> result) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(id);
+            if (entry != null && entry.result == result) {
+                entries.remove(id);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Les entrées sont dans l'ordre d'insertion avec la même durée, donc expirées en tête
+    private void evictExpired(long now) {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getValue().expiresAt > now) {
+                break;
+            }
+            iterator.remove();
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(IN_FLIGHT_POLL_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyException(IdempotencyException.Reason.IN_PROGRESS, "Attente interrompue");
+        }
+    }
+
+    /**
+     * Empreinte SHA-256 de ce que le client a envoyé
+     * Sans les champs posés par le serveur (dates, statut, total, infos produit)
+     */
+    static String fingerprint(Order order) {
+        StringBuilder canonical = new StringBuilder()
+            .append(order.getUserId()).append('\u001F')
+            .append(order.getShippingAddress()).append('\u001F')
+            .append(order.getShippingCity()).append('\u001F')
+            .append(order.getShippingZipCode()).append('\u001F')
+            .append(order.getShippingCountry()).append('\u001F')
+            .append(order.getNotes());
+        if (order.getItems() != null) {
+            for (OrderItem item : order.getItems()) {
+                canonical.append('\u001E')
+                    .append(item.getProductId()).append('\u001F')
+                    .append(item.getQuantity()).append('\u001F')
+                    .append(item.getPrice() != null ? item.getPrice().toPlainString() : null);
+            }
+        }
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    private static final class Entry {
+        final String fingerprint;
+        final CompletableFuture<String> result;
+        final long expiresAt;
+
+        Entry(String fingerprint, CompletableFuture<String> result, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.result = result;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Résultat d'une création idempotente
+     */
+    public static class Outcome {
+        private final Order order;
+        private final boolean replayed;
+
+        public Outcome(Order order, boolean replayed) {
+            this.order = order;
+            this.replayed = replayed;
+        }
+
+        public Order getOrder() {
+            return order;
+        }
+
+        // true si la commande existait déjà (retry), rien n'a été refait
+        public boolean isReplayed() {
+            return replayed;
+        }
+    }
+}
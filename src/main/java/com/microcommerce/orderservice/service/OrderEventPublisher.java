@@ -2,14 +2,28 @@ package com.microcommerce.orderservice.service;
 
 import com.microcommerce.orderservice.entity.Order;
 import com.microcommerce.orderservice.entity.OrderItem;
+import com.microcommerce.orderservice.entity.OrderStatus;
+import com.microcommerce.orderservice.config.RabbitMQConfig;
+import com.microcommerce.orderservice.config.RequestTrace;
 import com.microcommerce.orderservice.event.OrderEvent;
+import com.microcommerce.orderservice.event.OrderStreamEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.MessageDeliveryMode;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -17,6 +31,9 @@ import java.util.stream.Collectors;
  * 
  * Chaque fois qu'une commande est créée, modifiée ou supprimée,
  * on envoie un event pour que les autres services se synchronisent.
+ * 
+ * Métriques : order.events.publish (latence, tags routing_key/outcome)
+ * et order.events.publish.failures (tag routing_key).
  */
 @Service
 public class OrderEventPublisher {
@@ -30,9 +47,26 @@ public class OrderEventPublisher {
     public static final String ORDER_CANCELLED_ROUTING_KEY = "order.cancelled";
     public static final String ORDER_DELETED_ROUTING_KEY = "order.deleted";
     
+    // Header posé sur les événements rejoués
+    public static final String REPLAY_JOB_HEADER = "x-replay-job";
+    
+    // Les diffusions SSE partent sur le fanout sans routing key
+    private static final String STREAM_ROUTING_KEY_TAG = "order.stream";
+    
     @Autowired
     private RabbitTemplate rabbitTemplate;
     
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${replay.confirm-timeout:PT30S}")
+    private Duration replayConfirmTimeout;
+    
+    // Métriques par routing key, construites une fois
+    private final Map<String, Timer> publishSuccessTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> publishFailureTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> publishFailureCounters = new ConcurrentHashMap<>();
+    
     /**
      * Publie un événement de création de commande
      */
@@ -50,6 +84,7 @@ public class OrderEventPublisher {
         publishEvent(event, ORDER_STATUS_UPDATED_ROUTING_KEY);
         logger.info("Événement ORDER_STATUS_UPDATED publié pour la commande: {} (nouveau statut: {})", 
                    order.getId(), order.getStatus());
+        publishStreamEvent(order, OrderEvent.EventType.STATUS_UPDATED);
     }
     
     /**
@@ -59,6 +94,7 @@ public class OrderEventPublisher {
         OrderEvent event = createOrderEvent(order, OrderEvent.EventType.CANCELLED);
         publishEvent(event, ORDER_CANCELLED_ROUTING_KEY);
         logger.info("Événement ORDER_CANCELLED publié pour la commande: {}", order.getId());
+        publishStreamEvent(order, OrderEvent.EventType.CANCELLED);
     }
     
     /**
@@ -72,13 +108,67 @@ public class OrderEventPublisher {
         logger.info("Événement ORDER_DELETED publié pour la commande: {}", orderId);
     }
     
+    /**
+     * Republie un lot de commandes existantes (rejeu)
+     * Tout le lot part sur le même channel pour limiter les allers-retours, puis on attend les
+     * publisher confirms du broker : au retour, tout le lot est accepté (sinon AmqpException)
+     * 
+     * @param orders les commandes à rejouer
+     * @param exchange l'exchange de destination
+     * @param routingKeyOverride routing key imposée, ou null pour celle du type d'événement
+     * @param replayJobId l'ID du job, ajouté en header pour que les consommateurs reconnaissent un rejeu
+     */
+    public void publishReplayBatch(List<Order> orders, String exchange, String routingKeyOverride, String replayJobId) {
+        rabbitTemplate.invoke(operations -> {
+            for (Order order : orders) {
+                OrderEvent.EventType eventType = replayEventType(order);
+                String routingKey = routingKeyOverride != null ? routingKeyOverride : routingKeyFor(eventType);
+                operations.convertAndSend(exchange, routingKey, createOrderEvent(order, eventType), message -> {
+                    message.getMessageProperties().setHeader(REPLAY_JOB_HEADER, replayJobId);
+                    return message;
+                });
+            }
+            // Confirms "simple" (spring.rabbitmq.publisher-confirm-type) : nack ou timeout = exception
+            operations.waitForConfirmsOrDie(replayConfirmTimeout.toMillis());
+            return null;
+        });
+        logger.debug("Lot de {} événements rejoués vers {}", orders.size(), exchange);
+    }
+    
+    /**
+     * Type d'événement qui reflète l'état actuel d'une commande rejouée
+     */
+    private OrderEvent.EventType replayEventType(Order order) {
+        if (order.getStatus() == OrderStatus.CANCELLED) {
+            return OrderEvent.EventType.CANCELLED;
+        }
+        if (order.getStatus() == OrderStatus.PENDING) {
+            return OrderEvent.EventType.CREATED;
+        }
+        return OrderEvent.EventType.STATUS_UPDATED;
+    }
+    
+    private String routingKeyFor(OrderEvent.EventType eventType) {
+        switch (eventType) {
+            case CREATED:
+                return ORDER_CREATED_ROUTING_KEY;
+            case CANCELLED:
+                return ORDER_CANCELLED_ROUTING_KEY;
+            case DELETED:
+                return ORDER_DELETED_ROUTING_KEY;
+            default:
+                return ORDER_STATUS_UPDATED_ROUTING_KEY;
+        }
+    }
+    
     /**
      * Crée un événement commande à partir d'un objet Order
+     * Statique et public : mesurée telle quelle par OrderDomainBenchmark
      */
-    private OrderEvent createOrderEvent(Order order, OrderEvent.EventType eventType) {
+    public static OrderEvent createOrderEvent(Order order, OrderEvent.EventType eventType) {
         // Conversion des items de commande
         List<OrderEvent.OrderItemEvent> itemEvents = order.getItems().stream()
-            .map(this::convertToOrderItemEvent)
+            .map(OrderEventPublisher::convertToOrderItemEvent)
             .collect(Collectors.toList());
         
         return new OrderEvent(
@@ -94,7 +184,7 @@ public class OrderEventPublisher {
     /**
      * Convertit un OrderItem en OrderItemEvent
      */
-    private OrderEvent.OrderItemEvent convertToOrderItemEvent(OrderItem item) {
+    private static OrderEvent.OrderItemEvent convertToOrderItemEvent(OrderItem item) {
         return new OrderEvent.OrderItemEvent(
             item.getProductId(),
             item.getProductName(),
@@ -103,20 +193,79 @@ public class OrderEventPublisher {
         );
     }
     
+    /**
+     * Diffuse la transition à toutes les instances pour les clients SSE
+     * Message non persistant : perdu si le broker redémarre, les clients feront un resync
+     */
+    private void publishStreamEvent(Order order, OrderEvent.EventType eventType) {
+        OrderStreamEvent event = new OrderStreamEvent(new ObjectId().toHexString(), order.getId(),
+            order.getUserId(), order.getStatus(), eventType);
+        long start = System.nanoTime();
+        try {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.ORDER_STREAM_EXCHANGE, "", event, message -> {
+                message.getMessageProperties().setDeliveryMode(MessageDeliveryMode.NON_PERSISTENT);
+                return message;
+            });
+            recordPublish(STREAM_ROUTING_KEY_TAG, start, true);
+        } catch (Exception e) {
+            recordPublish(STREAM_ROUTING_KEY_TAG, start, false);
+            logger.error("Erreur lors de la diffusion SSE de la commande {}: {}", order.getId(), e.getMessage());
+        }
+    }
+    
     /**
      * Envoie l'événement vers RabbitMQ
      */
     private void publishEvent(OrderEvent event, String routingKey) {
+        long start = System.nanoTime();
         try {
             rabbitTemplate.convertAndSend(
                 ORDER_EXCHANGE,
                 routingKey,
                 event
             );
+            recordPublish(routingKey, start, true);
             logger.debug("Événement commande envoyé avec succès: {}", event);
         } catch (Exception e) {
+            recordPublish(routingKey, start, false);
             logger.error("Erreur lors de l'envoi de l'événement commande: {}", event, e);
             // En production, on pourrait implémenter un retry ou stocker l'event pour retry plus tard
         }
     }
+    
+    /**
+     * Latence d'envoi au broker, et compteur d'échecs
+     * Les routing keys sont les constantes de cette classe : cardinalité bornée
+     */
+    private void recordPublish(String routingKey, long startNanos, boolean success) {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        RequestTrace.publish(elapsedNanos);
+        publishTimer(routingKey, success).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (!success) {
+            Counter counter = publishFailureCounters.get(routingKey);
+            if (counter == null) {
+                counter = publishFailureCounters.computeIfAbsent(routingKey, key ->
+                    Counter.builder("order.events.publish.failures")
+                        .description("Événements commandes non publiés (broker indisponible...)")
+                        .tag("routing_key", key)
+                        .register(meterRegistry));
+            }
+            counter.increment();
+        }
+    }
+    
+    private Timer publishTimer(String routingKey, boolean success) {
+        Map<String, Timer> timers = success ? publishSuccessTimers : publishFailureTimers;
+        Timer timer = timers.get(routingKey);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(routingKey, key -> Timer.builder("order.events.publish")
+                .description("Latence de publication des événements commandes vers RabbitMQ")
+                .tag("routing_key", key)
+                .tag("outcome", success ? "success" : "failure")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        }
+        return timer;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,301 @@
+package com.microcommerce.orderservice.service;
+
+import com.microcommerce.orderservice.entity.Order;
+import com.microcommerce.orderservice.repository.OrderRepository;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Group commit des insertions de commandes (optionnel, order-insert.group-commit.enabled)
+ *
+ * Sans lui, chaque création fait son propre aller-retour Mongo et son propre commit journal.
+ * Ici les insertions concurrentes sont regroupées pendant quelques centaines de microsecondes
+ * (ou jusqu'à max-batch-size) puis écrites en un seul bulk insert non ordonné :
+ * - les IDs sont attribués avant l'envoi, chaque appelant récupère sa commande sauvegardée
+ * - une erreur sur un document (doublon...) n'échoue que l'appelant concerné
+ * - file pleine : on repasse par un save classique plutôt que de refuser la commande
+ *
+ * Le temps d'attente ajouté est borné par linger-micros, à comparer au commit journal économisé.
+ */
+@Service
+public class OrderInsertBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderInsertBatcher.class);
+
+    private static final int DUPLICATE_KEY_CODE = 11000;
+    private static final long IDLE_POLL_MS = 100;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${order-insert.group-commit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${order-insert.group-commit.max-batch-size:64}")
+    private int maxBatchSize;
+
+    @Value("${order-insert.group-commit.linger-micros:300}")
+    private long lingerMicros;
+
+    @Value("${order-insert.group-commit.max-pending:10000}")
+    private int maxPending;
+
+    @Value("${order-insert.group-commit.writer-threads:2}")
+    private int writerThreads;
+
+    private BlockingQueue<PendingInsert> queue;
+    private ExecutorService writers;
+    private volatile boolean running;
+
+    private DistributionSummary batchSizeSummary;
+    private Timer waitTimer;
+    private Timer writeTimer;
+    private Counter fallbackCounter;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+
+        queue = new LinkedBlockingQueue<>(maxPending);
+        batchSizeSummary = DistributionSummary.builder("order.insert.batch.size")
+            .description("Commandes écrites par bulk insert")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        waitTimer = Timer.builder("order.insert.batch.wait")
+            .description("Attente d'une commande avant le départ de son lot")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        writeTimer = Timer.builder("order.insert.batch.write")
+            .description("Durée d'écriture d'un lot (aller-retour Mongo)")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        fallbackCounter = Counter.builder("order.insert.batch.fallback")
+            .description("Insertions passées en save direct (file pleine ou arrêt en cours)")
+            .register(meterRegistry);
+        Gauge.builder("order.insert.batch.pending", queue, BlockingQueue::size)
+            .description("Commandes en attente d'écriture")
+            .register(meterRegistry);
+
+        running = true;
+        AtomicInteger threadIndex = new AtomicInteger();
+        writers = Executors.newFixedThreadPool(writerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "order-insert-writer-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < writerThreads; i++) {
+            writers.execute(this::writeLoop);
+        }
+        logger.info("Group commit des commandes activé (lots de {} max, attente {} µs max)", maxBatchSize, lingerMicros);
+    }
+
+    /**
+     * Les writers finissent la file avant de s'arrêter
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        writers.shutdown();
+        try {
+            if (!writers.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warn("Group commit : {} commandes non écrites à l'arrêt", queue.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Arrivées après la sortie des writers : personne ne les écrira
+        List<PendingInsert> leftovers = new ArrayList<>();
+        queue.drainTo(leftovers);
+        leftovers.forEach(pending -> pending.future.completeExceptionally(
+            new IllegalStateException("Service en cours d'arrêt")));
+    }
+
+    /**
+     * Sauvegarde une nouvelle commande, par lot si le group commit est actif
+     * Bloque jusqu'à l'écriture de son lot
+     */
+    public Order save(Order order) {
+        CompletableFuture<Order> saved = submit(order);
+        if (saved == null) {
+            return orderRepository.save(order);
+        }
+        try {
+            return saved.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Ajoute une nouvelle commande au prochain lot
+     *
+     * Ne bloque jamais : utilisable depuis la stack réactive
+     *
+     * @return complété avec la commande sauvegardée (ID renseigné), ou avec l'erreur de son document ;
+     *         null si la commande n'est pas prise (group commit inactif, file pleine, arrêt en cours),
+     *         à l'appelant de faire un save classique
+     */
+    public CompletableFuture<Order> submit(Order order) {
+        if (!enabled) {
+            return null;
+        }
+        if (!running) {
+            fallbackCounter.increment();
+            return null;
+        }
+
+        // ID attribué ici : le bulk insert ne le renseigne pas sur l'entité
+        if (order.getId() == null) {
+            order.setId(new ObjectId().toHexString());
+        }
+
+        PendingInsert pending = new PendingInsert(order);
+        if (!queue.offer(pending)) {
+            fallbackCounter.increment();
+            return null;
+        }
+        return pending.future;
+    }
+
+    private void writeLoop() {
+        List<PendingInsert> batch = new ArrayList<>(maxBatchSize);
+        long lingerNanos = TimeUnit.MICROSECONDS.toNanos(lingerMicros);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingInsert first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // On complète le lot avec ce qui arrive pendant la fenêtre, sans la dépasser
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < maxBatchSize) {
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingInsert next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(pending -> pending.future.completeExceptionally(
+                    new IllegalStateException("Écriture interrompue")));
+                return;
+            } catch (Exception e) {
+                // Ne doit pas tuer le writer : les appelants du lot ont déjà leur erreur
+                logger.error("Erreur inattendue dans le writer de commandes: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingInsert> batch) {
+        long startNanos = System.nanoTime();
+        List<Order> orders = new ArrayList<>(batch.size());
+        for (PendingInsert pending : batch) {
+            waitTimer.record(startNanos - pending.enqueuedNanos, TimeUnit.NANOSECONDS);
+            orders.add(pending.order);
+        }
+        batchSizeSummary.record(batch.size());
+
+        RuntimeException[] errors = new RuntimeException[batch.size()];
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Order.class)
+                .insert(orders)
+                .execute();
+        } catch (BulkOperationException e) {
+            // Non ordonné : tous les autres documents sont écrits, on n'échoue que les fautifs
+            for (BulkWriteError error : e.getErrors()) {
+                errors[error.getIndex()] = toException(error);
+            }
+        } catch (RuntimeException e) {
+            // Erreur globale (réseau, Mongo indisponible) : tout le lot échoue
+            logger.error("Échec de l'écriture d'un lot de {} commandes: {}", batch.size(), e.getMessage());
+            Arrays.fill(errors, e);
+        } finally {
+            writeTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            PendingInsert pending = batch.get(i);
+            if (errors[i] != null) {
+                pending.future.completeExceptionally(errors[i]);
+            } else {
+                pending.future.complete(pending.order);
+            }
+        }
+    }
+
+    private RuntimeException toException(BulkWriteError error) {
+        if (error.getCode() == DUPLICATE_KEY_CODE) {
+            return new DuplicateKeyException(error.getMessage());
+        }
+        return new DataIntegrityViolationException(error.getMessage());
+    }
+
+    private static final class PendingInsert {
+        final Order order;
+        final CompletableFuture<Order> future = new CompletableFuture<>();
+        final long enqueuedNanos = System.nanoTime();
+
+        PendingInsert(Order order) {
+            this.order = order;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.microcommerce.orderservice.service;
+
+import com.microcommerce.orderservice.config.RabbitMQConfig;
+import com.microcommerce.orderservice.entity.Order;
+import com.microcommerce.orderservice.entity.OrderReplayJob;
+import com.microcommerce.orderservice.repository.OrderReplayJobRepository;
+import com.mongodb.ReadPreference;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Service de rejeu des événements commandes depuis MongoDB
+ *
+ * Quand un consommateur (analytics, notifications...) a perdu son état,
+ * on reparcourt les commandes avec un curseur, on reconstruit les OrderEvent
+ * et on les republie. Pour ne pas pénaliser le checkout :
+ * - un seul job à la fois, sur un thread de basse priorité
+ * - lecture sur un secondaire quand il y en a un
+ * - débit limité (événements/seconde) et publication par lots
+ * - checkpoint après chaque lot pour pouvoir reprendre
+ */
+@Service
+public class OrderReplayService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderReplayService.class);
+
+    private static final Set<String> ALLOWED_EXCHANGES =
+        Set.of(RabbitMQConfig.ORDER_REPLAY_EXCHANGE, RabbitMQConfig.ORDER_EXCHANGE);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private OrderReplayJobRepository replayJobRepository;
+
+    @Autowired
+    private OrderEventPublisher orderEventPublisher;
+
+    @Value("${replay.default-rate-per-second:500}")
+    private int defaultRatePerSecond;
+
+    @Value("${replay.max-rate-per-second:5000}")
+    private int maxRatePerSecond;
+
+    @Value("${replay.default-batch-size:200}")
+    private int defaultBatchSize;
+
+    // Jobs en cours sur cette instance -> drapeau d'arrêt
+    private final Map<String, AtomicBoolean> activeJobs = new ConcurrentHashMap<>();
+
+    // Un seul thread : les jobs passent l'un après l'autre
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-replay");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    @PreDestroy
+    public void shutdown() {
+        activeJobs.values().forEach(stop -> stop.set(true));
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Crée et lance un nouveau job de rejeu
+     */
+    public OrderReplayJob startJob(OrderReplayJob request) {
+        if (request.getFrom() != null && request.getTo() != null && request.getFrom().isAfter(request.getTo())) {
+            throw new IllegalArgumentException("La date de début doit précéder la date de fin");
+        }
+
+        OrderReplayJob job = new OrderReplayJob();
+        job.setFrom(request.getFrom());
+        job.setTo(request.getTo());
+        job.setStatus(request.getStatus());
+        job.setUserId(request.getUserId());
+        job.setRoutingKey(request.getRoutingKey());
+
+        String exchange = request.getExchange() != null ? request.getExchange() : RabbitMQConfig.ORDER_REPLAY_EXCHANGE;
+        if (!ALLOWED_EXCHANGES.contains(exchange)) {
+            throw new IllegalArgumentException("Exchange non autorisé pour le rejeu: " + exchange);
+        }
+        job.setExchange(exchange);
+
+        int rate = request.getRatePerSecond() > 0 ? request.getRatePerSecond() : defaultRatePerSecond;
+        job.setRatePerSecond(Math.min(rate, maxRatePerSecond));
+        job.setBatchSize(request.getBatchSize() > 0 ? request.getBatchSize() : defaultBatchSize);
+
+        OrderReplayJob savedJob = replayJobRepository.save(job);
+        logger.info("Job de rejeu créé: {} vers {}", savedJob.getId(), exchange);
+        return submit(savedJob);
+    }
+
+    /**
+     * Reprend un job depuis son dernier checkpoint
+     */
+    public OrderReplayJob resumeJob(String jobId) {
+        OrderReplayJob job = replayJobRepository.findById(jobId)
+            .orElseThrow(() -> new RuntimeException("Job de rejeu introuvable: " + jobId));
+
+        if (job.getJobStatus() == OrderReplayJob.JobStatus.COMPLETED) {
+            throw new IllegalStateException("Le job " + jobId + " est déjà terminé");
+        }
+        if (activeJobs.containsKey(jobId)) {
+            throw new IllegalStateException("Le job " + jobId + " tourne déjà");
+        }
+
+        logger.info("Reprise du job de rejeu {} après la commande {}", jobId, job.getLastOrderId());
+        return submit(job);
+    }
+
+    /**
+     * Demande l'arrêt d'un job (il s'arrête à la fin du lot en cours)
+     */
+    public OrderReplayJob pauseJob(String jobId) {
+        OrderReplayJob job = replayJobRepository.findById(jobId)
+            .orElseThrow(() -> new RuntimeException("Job de rejeu introuvable: " + jobId));
+
+        AtomicBoolean stop = activeJobs.get(jobId);
+        if (stop == null) {
+            throw new IllegalStateException("Le job " + jobId + " ne tourne pas sur cette instance");
+        }
+        stop.set(true);
+        return job;
+    }
+
+    public Optional<OrderReplayJob> getJob(String jobId) {
+        return replayJobRepository.findById(jobId);
+    }
+
+    public List<OrderReplayJob> getJobs() {
+        return replayJobRepository.findAllByOrderByCreatedAtDesc();
+    }
+
+    private OrderReplayJob submit(OrderReplayJob job) {
+        AtomicBoolean stop = new AtomicBoolean(false);
+        activeJobs.put(job.getId(), stop);
+
+        job.setJobStatus(OrderReplayJob.JobStatus.RUNNING);
+        job.setLastError(null);
+        OrderReplayJob savedJob = replayJobRepository.save(job);
+
+        executor.execute(() -> {
+            try {
+                runJob(savedJob, stop);
+            } finally {
+                activeJobs.remove(savedJob.getId());
+            }
+        });
+        return savedJob;
+    }
+
+    /**
+     * Parcourt les commandes par _id croissant à partir du checkpoint
+     */
+    private void runJob(OrderReplayJob job, AtomicBoolean stop) {
+        Query query = buildQuery(job);
+        List<Order> batch = new ArrayList<>(job.getBatchSize());
+        long startNanos = System.nanoTime();
+        long publishedThisRun = 0;
+
+        try (Stream<Order> orders = mongoTemplate.stream(query, Order.class)) {
+            Iterator<Order> iterator = orders.iterator();
+            while (iterator.hasNext()) {
+                if (stop.get()) {
+                    job.setJobStatus(OrderReplayJob.JobStatus.PAUSED);
+                    replayJobRepository.save(job);
+                    logger.info("Job de rejeu {} mis en pause après {} événements", job.getId(), job.getPublishedCount());
+                    return;
+                }
+
+                batch.add(iterator.next());
+                if (batch.size() >= job.getBatchSize()) {
+                    publishedThisRun += flushBatch(job, batch);
+                    throttle(startNanos, publishedThisRun, job.getRatePerSecond());
+                }
+            }
+
+            flushBatch(job, batch);
+            job.setJobStatus(OrderReplayJob.JobStatus.COMPLETED);
+            replayJobRepository.save(job);
+            logger.info("Job de rejeu {} terminé: {} événements publiés", job.getId(), job.getPublishedCount());
+
+        } catch (Exception e) {
+            logger.error("Erreur dans le job de rejeu {}: {}", job.getId(), e.getMessage());
+            job.setJobStatus(OrderReplayJob.JobStatus.FAILED);
+            job.setLastError(e.getMessage());
+            replayJobRepository.save(job);
+        }
+    }
+
+    private Query buildQuery(OrderReplayJob job) {
+        Query query = new Query();
+
+        if (job.getFrom() != null || job.getTo() != null) {
+            Criteria createdAt = Criteria.where("createdAt");
+            if (job.getFrom() != null) {
+                createdAt = createdAt.gte(job.getFrom());
+            }
+            if (job.getTo() != null) {
+                createdAt = createdAt.lte(job.getTo());
+            }
+            query.addCriteria(createdAt);
+        }
+        if (job.getStatus() != null) {
+            query.addCriteria(Criteria.where("status").is(job.getStatus()));
+        }
+        if (job.getUserId() != null) {
+            query.addCriteria(Criteria.where("userId").is(job.getUserId()));
+        }
+        if (job.getLastOrderId() != null) {
+            query.addCriteria(Criteria.where("id").gt(job.getLastOrderId()));
+        }
+
+        return query.with(Sort.by(Sort.Direction.ASC, "id"))
+            .cursorBatchSize(job.getBatchSize())
+            .withReadPreference(ReadPreference.secondaryPreferred());
+    }
+
+    /**
+     * Publie le lot puis enregistre le checkpoint
+     * publishReplayBatch ne rend la main qu'une fois le lot confirmé par le broker : le checkpoint
+     * n'avance jamais sur un lot perdu. En cas de crash entre les deux, le lot sera republié (at-least-once)
+     */
+    private int flushBatch(OrderReplayJob job, List<Order> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        orderEventPublisher.publishReplayBatch(batch, job.getExchange(), job.getRoutingKey(), job.getId());
+
+        int size = batch.size();
+        job.setLastOrderId(batch.get(size - 1).getId());
+        job.setPublishedCount(job.getPublishedCount() + size);
+        job.setUpdatedAt(LocalDateTime.now());
+        replayJobRepository.save(job);
+
+        batch.clear();
+        return size;
+    }
+
+    /**
+     * Attend ce qu'il faut pour rester sous le débit demandé
+     */
+    private void throttle(long startNanos, long published, int ratePerSecond) throws InterruptedException {
+        long expectedNanos = published * TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long aheadNanos = expectedNanos - (System.nanoTime() - startNanos);
+        if (aheadNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(aheadNanos);
+        }
+    }
+}
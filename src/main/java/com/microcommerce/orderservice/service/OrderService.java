@@ -1,17 +1,23 @@
 package com.microcommerce.orderservice.service;
 
+import com.microcommerce.orderservice.config.RequestTrace;
+import com.microcommerce.orderservice.entity.Money;
 import com.microcommerce.orderservice.entity.Order;
 import com.microcommerce.orderservice.entity.OrderItem;
 import com.microcommerce.orderservice.entity.OrderStatus;
+import com.microcommerce.orderservice.entity.OrderVersion;
 import com.microcommerce.orderservice.repository.OrderRepository;
 import com.microcommerce.orderservice.event.OrderEvent;
 import com.microcommerce.orderservice.service.OrderEventPublisher;
+import com.microcommerce.orderservice.jfr.OrderCreationEvent;
+import com.microcommerce.orderservice.jfr.OrderStatusTransitionEvent;
+import com.microcommerce.orderservice.jfr.ProductLookupEvent;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -24,8 +30,12 @@ import java.util.Optional;
  * - Gestion des transitions de statut
  * - Calculs des totaux
  * - Recherches et filtres
+ * 
+ * Chaque opération publique est chronométrée (order.service, tags class/method/exception)
+ * Créations et changements de statut émettent aussi des événements JFR (package jfr)
  */
 @Service
+@Timed(value = "order.service", percentiles = {0.5, 0.95, 0.99}, histogram = true)
 public class OrderService {
     
     private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
@@ -42,6 +52,9 @@ public class OrderService {
     @Autowired
     private OrderEventPublisher orderEventPublisher;
     
+    @Autowired
+    private OrderInsertBatcher orderInsertBatcher;
+    
     /**
      * Crée une nouvelle commande
      * Valide les produits et calcule le total automatiquement
@@ -49,30 +62,65 @@ public class OrderService {
     public Order createOrder(Order order) {
         logger.info("Création d'une nouvelle commande pour l'utilisateur: {}", order.getUserId());
         
+        OrderCreationEvent jfrEvent = new OrderCreationEvent();
+        jfrEvent.begin();
+        jfrEvent.userId = order.getUserId();
+        jfrEvent.itemCount = order.getItems() != null ? order.getItems().size() : 0;
+        
         try {
             // On vérifie que l'utilisateur existe
-            if (!userServiceClient.userExists(order.getUserId())) {
+            // (durées des phases relevées même en cas d'échec, c'est là qu'elles intéressent)
+            long phaseStart = System.nanoTime();
+            boolean userExists = userServiceClient.userExists(order.getUserId());
+            jfrEvent.userCheckTime = System.nanoTime() - phaseStart;
+            if (!userExists) {
                 throw new RuntimeException("Utilisateur introuvable: " + order.getUserId());
             }
             
             // On valide et enrichit les items avec les infos produits
-            validateAndEnrichOrderItems(order);
+            phaseStart = System.nanoTime();
+            try {
+                validateAndEnrichOrderItems(order);
+            } finally {
+                jfrEvent.productLookupTime = System.nanoTime() - phaseStart;
+            }
             
             // On calcule le total
+            phaseStart = System.nanoTime();
             order.calculateTotal();
+            jfrEvent.totalCalculationTime = System.nanoTime() - phaseStart;
             
-            // On sauvegarde
-            Order savedOrder = orderRepository.save(order);
+            // On sauvegarde (regroupé avec les créations concurrentes si le group commit est actif)
+            phaseStart = System.nanoTime();
+            Order savedOrder;
+            try {
+                savedOrder = orderInsertBatcher.save(order);
+            } finally {
+                jfrEvent.saveTime = System.nanoTime() - phaseStart;
+            }
+            jfrEvent.orderId = savedOrder.getId();
             logger.info("Commande créée avec succès: {}", savedOrder.getId());
             
             // Publier l'événement de création de commande
+            phaseStart = System.nanoTime();
             orderEventPublisher.publishOrderCreated(savedOrder);
+            jfrEvent.publishTime = System.nanoTime() - phaseStart;
             
+            jfrEvent.success = true;
             return savedOrder;
             
         } catch (Exception e) {
             logger.error("Erreur lors de la création de la commande: {}", e.getMessage());
             throw new RuntimeException("Impossible de créer la commande: " + e.getMessage());
+        } finally {
+            jfrEvent.commit();
+            // Mêmes phases pour le suivi des requêtes lentes (sans effet hors requête HTTP)
+            RequestTrace.phase(RequestTrace.Phase.USER_CHECK, jfrEvent.userCheckTime);
+            RequestTrace.phase(RequestTrace.Phase.PRODUCT_LOOKUP, jfrEvent.productLookupTime);
+            RequestTrace.phase(RequestTrace.Phase.TOTAL_CALCULATION, jfrEvent.totalCalculationTime);
+            RequestTrace.phase(RequestTrace.Phase.SAVE, jfrEvent.saveTime);
+            RequestTrace.phase(RequestTrace.Phase.PUBLISH, jfrEvent.publishTime);
+            RequestTrace.orderId(jfrEvent.orderId);
         }
     }
     
@@ -92,6 +140,13 @@ public class OrderService {
         return orderRepository.findById(id);
     }
     
+    /**
+     * Version (id + updatedAt) d'une commande, lue par projection pour les GET conditionnels
+     */
+    public Optional<OrderVersion> getOrderVersion(String id) {
+        return orderRepository.findVersionById(id);
+    }
+    
     /**
      * Récupère toutes les commandes d'un utilisateur
      */
@@ -100,6 +155,13 @@ public class OrderService {
         return orderRepository.findByUserIdOrderByCreatedAtDesc(userId);
     }
     
+    /**
+     * Versions des commandes d'un utilisateur (projection), pour l'ETag de la liste
+     */
+    public List<OrderVersion> getOrderVersionsByUserId(String userId) {
+        return orderRepository.findVersionsByUserIdOrderByCreatedAtDesc(userId);
+    }
+    
     /**
      * Récupère les commandes par statut
      */
@@ -115,15 +177,22 @@ public class OrderService {
     public Order updateOrderStatus(String orderId, OrderStatus newStatus) {
         logger.info("Mise à jour du statut de la commande {} vers {}", orderId, newStatus);
         
+        OrderStatusTransitionEvent jfrEvent = new OrderStatusTransitionEvent();
+        jfrEvent.begin();
+        
         Optional<Order> optionalOrder = orderRepository.findById(orderId);
         if (optionalOrder.isEmpty()) {
             throw new RuntimeException("Commande introuvable: " + orderId);
         }
         
         Order order = optionalOrder.get();
+        jfrEvent.orderId = orderId;
+        jfrEvent.fromStatus = order.getStatus().name();
+        jfrEvent.toStatus = newStatus.name();
         
         // On vérifie que la transition est autorisée
         if (!order.getStatus().canTransitionTo(newStatus)) {
+            jfrEvent.commit();
             throw new RuntimeException(
                 String.format("Transition non autorisée de %s vers %s", 
                     order.getStatus(), newStatus)
@@ -138,6 +207,8 @@ public class OrderService {
         // Publier l'événement de mise à jour de statut
         orderEventPublisher.publishOrderStatusUpdated(updatedOrder);
         
+        jfrEvent.accepted = true;
+        jfrEvent.commit();
         return updatedOrder;
     }
     
@@ -147,14 +218,21 @@ public class OrderService {
     public Order cancelOrder(String orderId) {
         logger.info("Tentative d'annulation de la commande: {}", orderId);
         
+        OrderStatusTransitionEvent jfrEvent = new OrderStatusTransitionEvent();
+        jfrEvent.begin();
+        
         Optional<Order> optionalOrder = orderRepository.findById(orderId);
         if (optionalOrder.isEmpty()) {
             throw new RuntimeException("Commande introuvable: " + orderId);
         }
         
         Order order = optionalOrder.get();
+        jfrEvent.orderId = orderId;
+        jfrEvent.fromStatus = order.getStatus().name();
+        jfrEvent.toStatus = OrderStatus.CANCELLED.name();
         
         if (!order.getStatus().canBeCancelled()) {
+            jfrEvent.commit();
             throw new RuntimeException(
                 "Impossible d'annuler une commande avec le statut: " + order.getStatus()
             );
@@ -168,6 +246,8 @@ public class OrderService {
         // Publier l'événement d'annulation de commande
         orderEventPublisher.publishOrderCancelled(cancelledOrder);
         
+        jfrEvent.accepted = true;
+        jfrEvent.commit();
         return cancelledOrder;
     }
     
@@ -238,21 +318,17 @@ public class OrderService {
             if (item.getQuantity() <= 0) {
                 throw new IllegalArgumentException("La quantité doit être positive pour le produit: " + item.getProductId());
             }
-            if (item.getPrice().compareTo(BigDecimal.ZERO) < 0) {
+            if (item.getPrice().isNegative()) {
                 throw new IllegalArgumentException("Le prix unitaire ne peut pas être négatif pour le produit: " + item.getProductId());
             }
         }
     }
     
     /**
-     * Calcule le montant total d'une commande
+     * Calcule le montant total d'une commande (comme Order.calculateTotal, sans toucher à updatedAt)
      */
     public void calculateTotalAmount(Order order) {
-        BigDecimal total = order.getItems().stream()
-            .map(OrderItem::getSubTotal)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        order.setTotalAmount(total);
+        order.setTotalAmount(Money.total(order.getItems(), order.getTotalAmount()));
     }
     
     /**
@@ -265,6 +341,9 @@ public class OrderService {
         
         // Pour chaque item, on vérifie que le produit existe et on récupère ses infos
         order.getItems().forEach(item -> {
+            ProductLookupEvent jfrEvent = new ProductLookupEvent();
+            jfrEvent.begin();
+            jfrEvent.productId = item.getProductId();
             try {
                 // Appel au Product Service pour vérifier l'existence et récupérer les infos
                 var productInfo = productServiceClient.getProductInfo(item.getProductId());
@@ -272,6 +351,7 @@ public class OrderService {
                 if (productInfo == null) {
                     throw new RuntimeException("Produit introuvable: " + item.getProductId());
                 }
+                jfrEvent.found = true;
                 
                 // On enrichit l'item avec les infos du produit
                 item.setProductName(productInfo.getName());
@@ -279,14 +359,16 @@ public class OrderService {
                 item.setProductCategory(productInfo.getCategory());
                 
                 // On utilise le prix actuel du produit si pas spécifié
-                if (item.getPrice() == null) {
-                    item.setPrice(productInfo.getPrice());
+                if (item.getPrice() == null && productInfo.getPrice() != null) {
+                    item.setPrice(Money.of(productInfo.getPrice()));
                 }
                 
             } catch (Exception e) {
                 logger.error("Erreur lors de la validation du produit {}: {}", 
                            item.getProductId(), e.getMessage());
                 throw new RuntimeException("Produit invalide: " + item.getProductId());
+            } finally {
+                jfrEvent.commit();
             }
         });
     }
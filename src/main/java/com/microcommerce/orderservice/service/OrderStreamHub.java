@@ -0,0 +1,254 @@
+package com.microcommerce.orderservice.service;
+
+import com.microcommerce.orderservice.event.OrderStreamEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Diffusion des transitions de statut aux connexions SSE de cette instance
+ *
+ * Chaque instance reçoit toutes les transitions via l'exchange fanout (OrderStreamListener)
+ * et les pousse aux abonnés d'une commande ou d'un utilisateur. Un abonné inactif ne coûte
+ * qu'une entrée d'index : pas de thread, pas de buffer tant que rien n'est à envoyer.
+ *
+ * Un historique circulaire des derniers événements permet la reprise via Last-Event-ID.
+ * Toutes les instances reçoivent les mêmes événements : la reprise marche quel que soit
+ * le nœud sur lequel le client se reconnecte.
+ */
+@Service
+public class OrderStreamHub {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStreamHub.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${order-stream.history-size:10000}")
+    private int historySize;
+
+    @Value("${order-stream.max-subscribers:50000}")
+    private int maxSubscribers;
+
+    @Value("${order-stream.heartbeat-interval:PT15S}")
+    private Duration heartbeatInterval;
+
+    // Index des abonnés par commande et par utilisateur
+    private final Map<String, Set<OrderStreamSubscriber>> orderSubscribers = new ConcurrentHashMap<>();
+    private final Map<String, Set<OrderStreamSubscriber>> userSubscribers = new ConcurrentHashMap<>();
+    private final Set<OrderStreamSubscriber> allSubscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    // Historique circulaire, protégé par le verrou qui sérialise aussi diffusion et abonnements :
+    // un abonné qui reprend ne peut ni rater ni recevoir deux fois un événement
+    private final ReentrantLock lock = new ReentrantLock();
+    private OrderStreamEvent[] history;
+    private int historyNext;
+    private int historyCount;
+
+    private Counter overflowCounter;
+    private Counter rejectedCounter;
+    private Counter replayedCounter;
+    private Counter resyncCounter;
+
+    private final ScheduledExecutorService heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-stream-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void init() {
+        history = new OrderStreamEvent[historySize];
+
+        Gauge.builder("order.stream.subscribers", subscriberCount, AtomicInteger::get)
+            .description("Connexions SSE ouvertes sur cette instance")
+            .register(meterRegistry);
+        overflowCounter = Counter.builder("order.stream.overflow")
+            .description("Connexions SSE fermées car le client ne suivait pas (buffer plein)")
+            .register(meterRegistry);
+        rejectedCounter = Counter.builder("order.stream.rejected")
+            .description("Connexions SSE refusées (nombre max d'abonnés atteint)")
+            .register(meterRegistry);
+        replayedCounter = Counter.builder("order.stream.resume")
+            .tag("outcome", "replayed")
+            .description("Reprises Last-Event-ID")
+            .register(meterRegistry);
+        resyncCounter = Counter.builder("order.stream.resume")
+            .tag("outcome", "resync")
+            .description("Reprises Last-Event-ID")
+            .register(meterRegistry);
+
+        long intervalMs = heartbeatInterval.toMillis();
+        heartbeatScheduler.scheduleWithFixedDelay(this::sendHeartbeats, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeatScheduler.shutdownNow();
+        allSubscribers.forEach(OrderStreamSubscriber::close);
+    }
+
+    /**
+     * Abonne une connexion aux transitions d'une commande
+     *
+     * @param lastEventId dernier id reçu par le client (reconnexion), ou null
+     * @return false si l'instance a déjà trop d'abonnés
+     */
+    public boolean subscribeOrder(String orderId, OrderStreamSubscriber subscriber, String lastEventId) {
+        return subscribe(orderSubscribers, orderId, subscriber, lastEventId,
+            event -> orderId.equals(event.getOrderId()));
+    }
+
+    /**
+     * Abonne une connexion aux transitions de toutes les commandes d'un utilisateur
+     */
+    public boolean subscribeUser(String userId, OrderStreamSubscriber subscriber, String lastEventId) {
+        return subscribe(userSubscribers, userId, subscriber, lastEventId,
+            event -> userId.equals(event.getUserId()));
+    }
+
+    public void unsubscribeOrder(String orderId, OrderStreamSubscriber subscriber) {
+        unsubscribe(orderSubscribers, orderId, subscriber);
+    }
+
+    public void unsubscribeUser(String userId, OrderStreamSubscriber subscriber) {
+        unsubscribe(userSubscribers, userId, subscriber);
+    }
+
+    /**
+     * Diffuse une transition reçue du fanout aux abonnés concernés
+     */
+    public void dispatch(OrderStreamEvent event) {
+        lock.lock();
+        try {
+            history[historyNext] = event;
+            historyNext = (historyNext + 1) % history.length;
+            historyCount = Math.min(historyCount + 1, history.length);
+
+            // offer() ne fait que déposer dans le buffer de la connexion : pas de blocage sous le verrou
+            deliver(orderSubscribers.get(event.getOrderId()), event);
+            deliver(userSubscribers.get(event.getUserId()), event);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private boolean subscribe(Map<String, Set<OrderStreamSubscriber>> index, String key,
+                              OrderStreamSubscriber subscriber, String lastEventId,
+                              Predicate<OrderStreamEvent> filter) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            rejectedCounter.increment();
+            return false;
+        }
+
+        lock.lock();
+        try {
+            index.compute(key, (k, subscribers) -> {
+                Set<OrderStreamSubscriber> set = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+                set.add(subscriber);
+                return set;
+            });
+            allSubscribers.add(subscriber);
+
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                replay(subscriber, lastEventId, filter);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+
+    private void unsubscribe(Map<String, Set<OrderStreamSubscriber>> index, String key,
+                             OrderStreamSubscriber subscriber) {
+        // Appelé par les callbacks de fin de connexion, parfois plusieurs fois : on ne décompte qu'une fois
+        if (!allSubscribers.remove(subscriber)) {
+            return;
+        }
+        subscriberCount.decrementAndGet();
+        index.computeIfPresent(key, (k, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    /**
+     * Renvoie à l'abonné les événements postérieurs à lastEventId (appelé sous le verrou)
+     * Si l'id n'est plus dans l'historique, le client doit recharger son état
+     */
+    private void replay(OrderStreamSubscriber subscriber, String lastEventId, Predicate<OrderStreamEvent> filter) {
+        int oldest = (historyNext - historyCount + history.length) % history.length;
+        int found = -1;
+        for (int i = historyCount - 1; i >= 0; i--) {
+            OrderStreamEvent event = history[(oldest + i) % history.length];
+            if (Objects.equals(lastEventId, event.getId())) {
+                found = i;
+                break;
+            }
+        }
+
+        if (found < 0) {
+            resyncCounter.increment();
+            logger.debug("Last-Event-ID {} hors historique, resync demandé", lastEventId);
+            subscriber.offerResync();
+            return;
+        }
+
+        replayedCounter.increment();
+        for (int i = found + 1; i < historyCount; i++) {
+            OrderStreamEvent event = history[(oldest + i) % history.length];
+            if (filter.test(event) && !subscriber.offer(event)) {
+                // Plus d'événements manqués que le buffer n'en contient : autant recharger
+                overflowCounter.increment();
+                subscriber.close();
+                return;
+            }
+        }
+    }
+
+    private void deliver(Set<OrderStreamSubscriber> subscribers, OrderStreamEvent event) {
+        if (subscribers == null) {
+            return;
+        }
+        for (OrderStreamSubscriber subscriber : subscribers) {
+            if (!subscriber.offer(event)) {
+                // Client trop lent : on coupe, il se reconnectera avec son Last-Event-ID
+                overflowCounter.increment();
+                subscriber.close();
+            }
+        }
+    }
+
+    private void sendHeartbeats() {
+        try {
+            allSubscribers.forEach(OrderStreamSubscriber::heartbeat);
+        } catch (Exception e) {
+            logger.warn("Erreur pendant l'envoi des heartbeats SSE: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.microcommerce.orderservice.service;
+
+import com.microcommerce.orderservice.event.OrderStreamEvent;
+
+/**
+ * Une connexion SSE abonnée à l'{@link OrderStreamHub}
+ *
+ * Implémentée côté servlet (SseEmitter) et côté WebFlux (Flux de ServerSentEvent).
+ * Les méthodes sont appelées depuis le thread du listener RabbitMQ ou du heartbeat :
+ * elles ne doivent jamais bloquer, juste déposer dans le buffer borné de la connexion.
+ */
+public interface OrderStreamSubscriber {
+
+    /**
+     * Dépose un événement dans le buffer de la connexion
+     *
+     * @return false si le buffer est plein : le client ne suit pas, le hub ferme la connexion
+     */
+    boolean offer(OrderStreamEvent event);
+
+    /**
+     * Demande au client de recharger son état (Last-Event-ID trop ancien pour être rejoué)
+     */
+    boolean offerResync();
+
+    /**
+     * Commentaire SSE pour garder la connexion ouverte à travers les proxys
+     * Ignoré si des événements sont déjà en attente
+     */
+    void heartbeat();
+
+    /**
+     * Ferme la connexion (débordement, arrêt du service)
+     */
+    void close();
+}
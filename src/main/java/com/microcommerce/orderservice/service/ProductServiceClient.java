@@ -2,13 +2,16 @@ package com.microcommerce.orderservice.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.time.Duration;
+import java.util.Collection;
 
 /**
  * Client pour communiquer avec le Product Service
@@ -21,8 +24,14 @@ public class ProductServiceClient {
     
     private static final Logger logger = LoggerFactory.getLogger(ProductServiceClient.class);
     
+    // Appels simultanés max vers le product-service pour une même commande
+    private static final int MAX_CONCURRENT_LOOKUPS = 8;
+    
     private final WebClient webClient;
     
+    @Autowired
+    private DownstreamMetrics downstreamMetrics;
+    
     @Value("${services.product-service.url:http://localhost:8081}")
     private String productServiceUrl;
     
@@ -40,12 +49,8 @@ public class ProductServiceClient {
         logger.info("Récupération des infos du produit: {}", productId);
         
         try {
-            return webClient.get()
-                .uri(productServiceUrl + "/api/products/internal/{id}", productId)
-                .retrieve()
-                .bodyToMono(ProductInfo.class)
-                .timeout(Duration.ofSeconds(5)) // Timeout de 5 secondes
-                .block(); // Bloquant pour simplifier (en prod, utiliser reactive)
+            return getProductInfoReactive(productId)
+                .block(); // Bloquant pour la stack servlet (la variante reactive utilise le Mono)
                 
         } catch (Exception e) {
             logger.error("Erreur lors de la récupération du produit {}: {}", productId, e.getMessage());
@@ -53,6 +58,31 @@ public class ProductServiceClient {
         }
     }
     
+    /**
+     * Version non bloquante de {@link #getProductInfo}
+     * 
+     * @param productId l'ID du produit
+     * @return les infos du produit, ou un Mono vide si introuvable ou en erreur
+     */
+    public Mono<ProductInfo> getProductInfoReactive(String productId) {
+        return downstreamMetrics.record("product", "getProductInfo", webClient.get()
+                .uri(productServiceUrl + "/api/products/internal/{id}", productId)
+                .retrieve()
+                .bodyToMono(ProductInfo.class)
+                .timeout(Duration.ofSeconds(5))) // Timeout de 5 secondes
+            .doOnError(e -> logger.error("Erreur lors de la récupération du produit {}: {}", productId, e.getMessage()))
+            .onErrorResume(e -> Mono.empty());
+    }
+    
+    /**
+     * Récupère les infos de plusieurs produits en parallèle, sans bloquer
+     * Les produits introuvables sont absents du Flux
+     */
+    public Flux<ProductInfo> getProductsInfoReactive(Collection<String> productIds) {
+        return Flux.fromIterable(productIds)
+            .flatMap(this::getProductInfoReactive, MAX_CONCURRENT_LOOKUPS);
+    }
+    
     /**
      * Vérifie si un produit existe
      * 
@@ -63,11 +93,11 @@ public class ProductServiceClient {
         logger.info("Vérification de l'existence du produit: {}", productId);
         
         try {
-            return webClient.get()
-                .uri(productServiceUrl + "/api/products/{id}", productId)
-                .retrieve()
-                .toBodilessEntity()
-                .timeout(Duration.ofSeconds(3))
+            return downstreamMetrics.record("product", "productExists", webClient.get()
+                    .uri(productServiceUrl + "/api/products/{id}", productId)
+                    .retrieve()
+                    .toBodilessEntity()
+                    .timeout(Duration.ofSeconds(3)))
                 .map(response -> response.getStatusCode().is2xxSuccessful())
                 .onErrorReturn(false)
                 .block();
@@ -0,0 +1,322 @@
+package com.microcommerce.orderservice.service;
+
+import com.microcommerce.orderservice.entity.Money;
+import com.microcommerce.orderservice.entity.Order;
+import com.microcommerce.orderservice.entity.OrderItem;
+import com.microcommerce.orderservice.entity.OrderStatus;
+import com.microcommerce.orderservice.entity.OrderVersion;
+import com.microcommerce.orderservice.jfr.OrderCreationEvent;
+import com.microcommerce.orderservice.jfr.OrderStatusTransitionEvent;
+import com.microcommerce.orderservice.jfr.ProductLookupEvent;
+import com.microcommerce.orderservice.repository.ReactiveOrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongConsumer;
+
+/**
+ * Variante non bloquante de {@link OrderService} (profil reactive)
+ *
+ * Même logique métier et mêmes messages d'erreur, mais :
+ * - MongoDB via le driver réactif, les listes sont des Flux avec backpressure
+ * - les vérifications utilisateur et produits partent en parallèle via WebClient
+ * - la publication RabbitMQ (RabbitTemplate, bloquant) est déportée sur boundedElastic
+ * Mêmes événements JFR que la version servlet.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveOrderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveOrderService.class);
+
+    // Produits vérifiés en parallèle pour une même commande
+    private static final int PRODUCT_LOOKUP_CONCURRENCY = 8;
+
+    @Autowired
+    private ReactiveOrderRepository orderRepository;
+
+    @Autowired
+    private ProductServiceClient productServiceClient;
+
+    @Autowired
+    private UserServiceClient userServiceClient;
+
+    @Autowired
+    private OrderEventPublisher orderEventPublisher;
+
+    @Autowired
+    private OrderInsertBatcher orderInsertBatcher;
+
+    /**
+     * Crée une nouvelle commande
+     * Valide l'utilisateur et les produits en parallèle, puis calcule le total
+     */
+    public Mono<Order> createOrder(Order order) {
+        logger.info("Création d'une nouvelle commande pour l'utilisateur: {}", order.getUserId());
+
+        if (order.getItems() == null || order.getItems().isEmpty()) {
+            return Mono.error(new RuntimeException("Impossible de créer la commande: Une commande doit contenir au moins un item"));
+        }
+
+        OrderCreationEvent jfrEvent = new OrderCreationEvent();
+        jfrEvent.userId = order.getUserId();
+        jfrEvent.itemCount = order.getItems().size();
+
+        Mono<Void> userCheck = timed(userServiceClient.userExistsReactive(order.getUserId())
+            .flatMap(exists -> exists
+                ? Mono.<Void>empty()
+                : Mono.error(new RuntimeException("Utilisateur introuvable: " + order.getUserId()))),
+            elapsed -> jfrEvent.userCheckTime = elapsed);
+
+        Mono<Void> itemsCheck = timed(Flux.fromIterable(order.getItems())
+            .flatMap(this::enrichOrderItem, PRODUCT_LOOKUP_CONCURRENCY)
+            .then(),
+            elapsed -> jfrEvent.productLookupTime = elapsed);
+
+        return Mono.when(userCheck, itemsCheck)
+            .then(Mono.fromCallable(() -> {
+                long start = System.nanoTime();
+                order.calculateTotal();
+                jfrEvent.totalCalculationTime = System.nanoTime() - start;
+                return order;
+            }))
+            .flatMap(toSave -> timed(insert(toSave), elapsed -> jfrEvent.saveTime = elapsed))
+            .doOnNext(savedOrder -> {
+                jfrEvent.orderId = savedOrder.getId();
+                logger.info("Commande créée avec succès: {}", savedOrder.getId());
+            })
+            .flatMap(savedOrder -> timed(publish(() -> orderEventPublisher.publishOrderCreated(savedOrder)),
+                    elapsed -> jfrEvent.publishTime = elapsed)
+                .thenReturn(savedOrder))
+            .doOnSubscribe(subscription -> jfrEvent.begin())
+            .doOnSuccess(savedOrder -> jfrEvent.success = savedOrder != null)
+            .doFinally(signal -> jfrEvent.commit())
+            .onErrorMap(e -> {
+                logger.error("Erreur lors de la création de la commande: {}", e.getMessage());
+                return new RuntimeException("Impossible de créer la commande: " + e.getMessage());
+            });
+    }
+
+    /**
+     * Insertion par le group commit s'il est actif (le futur ne bloque pas l'event loop),
+     * sinon save réactif classique
+     */
+    private Mono<Order> insert(Order order) {
+        CompletableFuture<Order> saved = orderInsertBatcher.submit(order);
+        return saved != null ? Mono.fromFuture(saved) : orderRepository.save(order);
+    }
+
+    /**
+     * Récupère toutes les commandes (en flux, au rythme du client)
+     */
+    public Flux<Order> getAllOrders() {
+        logger.info("Récupération de toutes les commandes");
+        return orderRepository.findAll();
+    }
+
+    /**
+     * Chope une commande par son ID
+     */
+    public Mono<Order> getOrderById(String id) {
+        logger.info("Recherche de la commande: {}", id);
+        return orderRepository.findById(id);
+    }
+
+    /**
+     * Version (id + updatedAt) d'une commande, lue par projection pour les GET conditionnels
+     */
+    public Mono<OrderVersion> getOrderVersion(String id) {
+        return orderRepository.findVersionById(id);
+    }
+
+    /**
+     * Récupère toutes les commandes d'un utilisateur
+     */
+    public Flux<Order> getOrdersByUserId(String userId) {
+        logger.info("Récupération des commandes pour l'utilisateur: {}", userId);
+        return orderRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    }
+
+    /**
+     * Versions des commandes d'un utilisateur (projection), pour l'ETag de la liste
+     */
+    public Flux<OrderVersion> getOrderVersionsByUserId(String userId) {
+        return orderRepository.findVersionsByUserIdOrderByCreatedAtDesc(userId);
+    }
+
+    /**
+     * Récupère les commandes par statut
+     */
+    public Flux<Order> getOrdersByStatus(OrderStatus status) {
+        logger.info("Récupération des commandes avec le statut: {}", status);
+        return orderRepository.findByStatusOrderByCreatedAtDesc(status);
+    }
+
+    /**
+     * Met à jour le statut d'une commande
+     * Vérifie que la transition est autorisée
+     */
+    public Mono<Order> updateOrderStatus(String orderId, OrderStatus newStatus) {
+        logger.info("Mise à jour du statut de la commande {} vers {}", orderId, newStatus);
+
+        OrderStatusTransitionEvent jfrEvent = new OrderStatusTransitionEvent();
+        return orderRepository.findById(orderId)
+            .doOnSubscribe(subscription -> jfrEvent.begin())
+            .switchIfEmpty(Mono.error(() -> new RuntimeException("Commande introuvable: " + orderId)))
+            .flatMap(order -> {
+                jfrEvent.orderId = orderId;
+                jfrEvent.fromStatus = order.getStatus().name();
+                jfrEvent.toStatus = newStatus.name();
+                if (!order.getStatus().canTransitionTo(newStatus)) {
+                    jfrEvent.commit();
+                    return Mono.error(new RuntimeException(
+                        String.format("Transition non autorisée de %s vers %s", order.getStatus(), newStatus)));
+                }
+                order.setStatus(newStatus);
+                return orderRepository.save(order);
+            })
+            .doOnNext(updatedOrder -> logger.info("Statut mis à jour avec succès pour la commande: {}", orderId))
+            .flatMap(updatedOrder -> publish(() -> orderEventPublisher.publishOrderStatusUpdated(updatedOrder))
+                .thenReturn(updatedOrder))
+            .doOnNext(updatedOrder -> {
+                jfrEvent.accepted = true;
+                jfrEvent.commit();
+            });
+    }
+
+    /**
+     * Annule une commande si c'est possible
+     */
+    public Mono<Order> cancelOrder(String orderId) {
+        logger.info("Tentative d'annulation de la commande: {}", orderId);
+
+        OrderStatusTransitionEvent jfrEvent = new OrderStatusTransitionEvent();
+        return orderRepository.findById(orderId)
+            .doOnSubscribe(subscription -> jfrEvent.begin())
+            .switchIfEmpty(Mono.error(() -> new RuntimeException("Commande introuvable: " + orderId)))
+            .flatMap(order -> {
+                jfrEvent.orderId = orderId;
+                jfrEvent.fromStatus = order.getStatus().name();
+                jfrEvent.toStatus = OrderStatus.CANCELLED.name();
+                if (!order.getStatus().canBeCancelled()) {
+                    jfrEvent.commit();
+                    return Mono.error(new RuntimeException(
+                        "Impossible d'annuler une commande avec le statut: " + order.getStatus()));
+                }
+                order.setStatus(OrderStatus.CANCELLED);
+                return orderRepository.save(order);
+            })
+            .doOnNext(cancelledOrder -> logger.info("Commande annulée avec succès: {}", orderId))
+            .flatMap(cancelledOrder -> publish(() -> orderEventPublisher.publishOrderCancelled(cancelledOrder))
+                .thenReturn(cancelledOrder))
+            .doOnNext(cancelledOrder -> {
+                jfrEvent.accepted = true;
+                jfrEvent.commit();
+            });
+    }
+
+    /**
+     * Supprime une commande (admin seulement)
+     */
+    public Mono<Void> deleteOrder(String orderId) {
+        logger.info("Suppression de la commande: {}", orderId);
+
+        return orderRepository.findById(orderId)
+            .switchIfEmpty(Mono.error(() -> new RuntimeException("Commande non trouvée avec l'ID: " + orderId)))
+            .flatMap(order -> {
+                if (order.getStatus() == OrderStatus.DELIVERED) {
+                    return Mono.error(new RuntimeException("Impossible de supprimer une commande déjà livrée"));
+                }
+                return orderRepository.deleteById(orderId);
+            })
+            .then(Mono.defer(() -> {
+                logger.info("Commande {} supprimée avec succès", orderId);
+                return publish(() -> orderEventPublisher.publishOrderDeleted(orderId));
+            }));
+    }
+
+    /**
+     * Recherche les commandes dans une période donnée
+     */
+    public Flux<Order> getOrdersBetweenDates(LocalDateTime startDate, LocalDateTime endDate) {
+        logger.info("Recherche des commandes entre {} et {}", startDate, endDate);
+        return orderRepository.findByCreatedAtBetween(startDate, endDate);
+    }
+
+    /**
+     * Récupère les stats des commandes
+     * Les comptages partent en parallèle au lieu de s'enchaîner
+     */
+    public Mono<OrderService.OrderStats> getOrderStats() {
+        logger.info("Calcul des statistiques des commandes");
+
+        return Mono.zip(
+                orderRepository.count(),
+                orderRepository.countByStatus(OrderStatus.PENDING),
+                orderRepository.countByStatus(OrderStatus.CONFIRMED),
+                orderRepository.countByStatus(OrderStatus.PROCESSING),
+                orderRepository.countByStatus(OrderStatus.SHIPPED),
+                orderRepository.countByStatus(OrderStatus.DELIVERED),
+                orderRepository.countByStatus(OrderStatus.CANCELLED))
+            .map(counts -> new OrderService.OrderStats(counts.getT1(), counts.getT2(), counts.getT3(),
+                counts.getT4(), counts.getT5(), counts.getT6(), counts.getT7()));
+    }
+
+    /**
+     * Trouve les commandes qui contiennent un produit spécifique
+     */
+    public Flux<Order> getOrdersByProductId(String productId) {
+        logger.info("Recherche des commandes contenant le produit: {}", productId);
+        return orderRepository.findByProductId(productId);
+    }
+
+    /**
+     * Vérifie qu'un produit existe et enrichit l'item avec ses infos
+     */
+    private Mono<OrderItem> enrichOrderItem(OrderItem item) {
+        ProductLookupEvent jfrEvent = new ProductLookupEvent();
+        jfrEvent.productId = item.getProductId();
+        return productServiceClient.getProductInfoReactive(item.getProductId())
+            .doOnSubscribe(subscription -> jfrEvent.begin())
+            .switchIfEmpty(Mono.error(() -> new RuntimeException("Produit invalide: " + item.getProductId())))
+            .map(productInfo -> {
+                jfrEvent.found = true;
+                item.setProductName(productInfo.getName());
+                item.setProductCategory(productInfo.getCategory());
+
+                // On utilise le prix actuel du produit si pas spécifié
+                if (item.getPrice() == null && productInfo.getPrice() != null) {
+                    item.setPrice(Money.of(productInfo.getPrice()));
+                }
+                return item;
+            })
+            .doFinally(signal -> jfrEvent.commit());
+    }
+
+    /**
+     * Mesure une phase de la création (de la souscription au signal de fin) pour l'événement JFR
+     */
+    private static <T> Mono<T> timed(Mono<T> phase, LongConsumer elapsed) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return phase.doFinally(signal -> elapsed.accept(System.nanoTime() - start));
+        });
+    }
+
+    /**
+     * RabbitTemplate est bloquant : on publie hors de l'event loop
+     */
+    private Mono<Void> publish(Runnable publication) {
+        return Mono.fromRunnable(publication)
+            .subscribeOn(Schedulers.boundedElastic())
+            .then();
+    }
+}
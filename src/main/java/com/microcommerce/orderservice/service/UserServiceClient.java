@@ -2,9 +2,11 @@ package com.microcommerce.orderservice.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 
@@ -21,6 +23,9 @@ public class UserServiceClient {
     
     private final WebClient webClient;
     
+    @Autowired
+    private DownstreamMetrics downstreamMetrics;
+    
     @Value("${services.user-service.url:http://localhost:8082}")
     private String userServiceUrl;
     
@@ -38,14 +43,7 @@ public class UserServiceClient {
         logger.info("Vérification de l'existence de l'utilisateur: {}", userId);
         
         try {
-            return webClient.get()
-                .uri(userServiceUrl + "/api/users/{id}", userId)
-                .retrieve()
-                .toBodilessEntity()
-                .timeout(Duration.ofSeconds(3))
-                .map(response -> response.getStatusCode().is2xxSuccessful())
-                .onErrorReturn(false)
-                .block();
+            return userExistsReactive(userId).block();
                 
         } catch (Exception e) {
             logger.error("Erreur lors de la vérification de l'utilisateur {}: {}", userId, e.getMessage());
@@ -53,6 +51,19 @@ public class UserServiceClient {
         }
     }
     
+    /**
+     * Version non bloquante de {@link #userExists}
+     */
+    public Mono<Boolean> userExistsReactive(String userId) {
+        return downstreamMetrics.record("user", "userExists", webClient.get()
+                .uri(userServiceUrl + "/api/users/{id}", userId)
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(Duration.ofSeconds(3)))
+            .map(response -> response.getStatusCode().is2xxSuccessful())
+            .onErrorReturn(false);
+    }
+    
     /**
      * Récupère les informations de base d'un utilisateur via l'endpoint interne
      * 
@@ -63,12 +74,7 @@ public class UserServiceClient {
         logger.info("Récupération des infos de l'utilisateur: {}", userId);
         
         try {
-            return webClient.get()
-                .uri(userServiceUrl + "/api/users/internal/{id}", userId)
-                .retrieve()
-                .bodyToMono(UserInfo.class)
-                .timeout(Duration.ofSeconds(5))
-                .block();
+            return getUserInfoReactive(userId).block();
                 
         } catch (Exception e) {
             logger.error("Erreur lors de la récupération de l'utilisateur {}: {}", userId, e.getMessage());
@@ -76,6 +82,21 @@ public class UserServiceClient {
         }
     }
     
+    /**
+     * Version non bloquante de {@link #getUserInfo}
+     * 
+     * @return les infos de l'utilisateur, ou un Mono vide si introuvable ou en erreur
+     */
+    public Mono<UserInfo> getUserInfoReactive(String userId) {
+        return downstreamMetrics.record("user", "getUserInfo", webClient.get()
+                .uri(userServiceUrl + "/api/users/internal/{id}", userId)
+                .retrieve()
+                .bodyToMono(UserInfo.class)
+                .timeout(Duration.ofSeconds(5)))
+            .doOnError(e -> logger.error("Erreur lors de la récupération de l'utilisateur {}: {}", userId, e.getMessage()))
+            .onErrorResume(e -> Mono.empty());
+    }
+    
     /**
      * Classe interne pour représenter les infos d'un utilisateur
      * Correspond au nouveau DTO optimisé du User Service